@@ -1,6 +1,3 @@
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-
 import java.io.IOException;
 import java.text.ParseException;
 
@@ -35,6 +32,38 @@ public abstract class Actor {
      * Whether the actor is alive.
      */
     private boolean isAlive;
+    /**
+     * The index of this actor in its grid's occupant table, or -1 if it occupies no cell.
+     */
+    private int gridSlot = -1;
+    /**
+     * The index of this actor in its level's {@link ActorRegistry}, or -1 if it is not registered.
+     */
+    private int registryIndex = -1;
+    /**
+     * Whether the actor is asleep, i.e. will not be updated until something nearby changes.
+     */
+    private boolean asleep;
+    /**
+     * The grid tick on which the actor fell asleep.
+     */
+    private long sleptAtTick;
+    /**
+     * Whether the actor is in the level's set of actors to update.
+     */
+    private boolean scheduled;
+    /**
+     * The grid tick on which the actor last moved, or -1 if it never has.
+     */
+    private long movedAtTick = -1;
+    /**
+     * The x-coordinate the actor was at before it last moved.
+     */
+    private int movedFromX;
+    /**
+     * The y-coordinate the actor was at before it last moved.
+     */
+    private int movedFromY;
 
     /**
      * Constructs an {@code Actor} with specified parameters.
@@ -174,22 +203,133 @@ public abstract class Actor {
     }
 
     /**
-     * Renders the actor on a graphics context.
+     * Checks if the actor is asleep. Sleeping actors are not updated until a change in the grid wakes them.
+     *
+     * @return {@code true} if the actor is asleep; {@code false} otherwise
+     */
+    public boolean isAsleep() {
+        return asleep;
+    }
+
+    /**
+     * Puts the actor to sleep. Only Grid should call this; actors should call {@link Grid#sleep(Actor)}.
+     *
+     * @param tick the current grid tick
+     */
+    void sleep(final long tick) {
+        asleep = true;
+        sleptAtTick = tick;
+    }
+
+    /**
+     * Wakes the actor up, keeping its update cadence as if it had been counting ticks the whole time it slept.
+     * Only Grid should call this.
      *
-     * @param gc the graphics context for rendering
+     * @param tick the current grid tick
      */
-    public void draw(final GraphicsContext gc) {
-        gc.drawImage(getImage(), (x + 1) * Level.DRAW_ENTITY_SIZE,
-                (y + 1) * Level.DRAW_ENTITY_SIZE,
-                Level.DRAW_ENTITY_SIZE, Level.DRAW_ENTITY_SIZE);
+    void wake(final long tick) {
+        asleep = false;
+        tickCount = (int) ((tick - sleptAtTick) % tickRate);
     }
 
     /**
-     * Gets the image representing the actor.
+     * Records that the actor is moving from where it is now, unless it has already moved this tick, in which case
+     * it is still remembered as coming from where it started the tick. Only Grid should call this.
      *
-     * @return the image of the actor
+     * @param tick the current grid tick
+     * @return {@code true} if this is the actor's first move this tick
      */
-    protected abstract Image getImage();
+    boolean recordMove(final long tick) {
+        if (movedAtTick == tick) {
+            return false;
+        }
+        movedAtTick = tick;
+        movedFromX = x;
+        movedFromY = y;
+        return true;
+    }
+
+    /**
+     * Gets the grid tick on which the actor last moved, e.g. so that a renderer can slide it between cells.
+     *
+     * @return the tick, or -1 if the actor has never moved
+     * @see Grid#getTickCount()
+     */
+    public long getMovedAtTick() {
+        return movedAtTick;
+    }
+
+    /**
+     * Gets the x-coordinate the actor was at before it last moved.
+     *
+     * @return the x-coordinate at the start of the tick the actor last moved on
+     */
+    public int getMovedFromX() {
+        return movedFromX;
+    }
+
+    /**
+     * Gets the y-coordinate the actor was at before it last moved.
+     *
+     * @return the y-coordinate at the start of the tick the actor last moved on
+     */
+    public int getMovedFromY() {
+        return movedFromY;
+    }
+
+    /**
+     * Checks if the actor is in the level's set of actors to update. Only Level should use this.
+     *
+     * @return {@code true} if the actor is scheduled for updates
+     */
+    boolean isScheduled() {
+        return scheduled;
+    }
+
+    /**
+     * Sets whether the actor is in the level's set of actors to update. Only Level should use this.
+     *
+     * @param scheduled whether the actor is scheduled for updates
+     */
+    void setScheduled(final boolean scheduled) {
+        this.scheduled = scheduled;
+    }
+
+    /**
+     * Gets the index of this actor in its level's actor registry. Only ActorRegistry should use this.
+     *
+     * @return the registry index, or -1 if the actor is not registered
+     */
+    int getRegistryIndex() {
+        return registryIndex;
+    }
+
+    /**
+     * Sets the index of this actor in its level's actor registry. Only ActorRegistry should use this.
+     *
+     * @param registryIndex the registry index, or -1 if the actor is no longer registered
+     */
+    void setRegistryIndex(final int registryIndex) {
+        this.registryIndex = registryIndex;
+    }
+
+    /**
+     * Gets the index of this actor in its grid's occupant table. Only Grid should use this.
+     *
+     * @return the index, or -1 if the actor occupies no cell
+     */
+    int getGridSlot() {
+        return gridSlot;
+    }
+
+    /**
+     * Sets the index of this actor in its grid's occupant table. Only Grid should use this.
+     *
+     * @param gridSlot the new index, or -1 if the actor no longer occupies any cell
+     */
+    void setGridSlot(final int gridSlot) {
+        this.gridSlot = gridSlot;
+    }
 
     /**
      * Determines if a player can walk on this actor's position.
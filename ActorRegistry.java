@@ -0,0 +1,161 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * The set of every actor in a level. Actors are kept in a flat array in the order they were added and each actor
+ * records its own index, so adding or removing an actor takes constant time no matter how many actors there are.
+ * Removing an actor only leaves a gap in the array; {@link #compact(Consumer)} closes the gaps and drops dead actors
+ * in a single pass, and is meant to be called once per tick.
+ *
+ * @author Sam
+ * @see Grid
+ * @see Level
+ */
+public class ActorRegistry implements Iterable<Actor> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NOT_REGISTERED = -1;
+
+    private Actor[] actors;
+    private int end; //One past the last used index; everything from here on is null.
+    private int size;
+
+    /**
+     * Constructs an empty registry.
+     */
+    public ActorRegistry() {
+        actors = new Actor[INITIAL_CAPACITY];
+        end = 0;
+        size = 0;
+    }
+
+    /**
+     * Adds an actor to the registry. An actor can only be in the registry once, so adding an actor that is already
+     * registered does nothing.
+     *
+     * @param actor The actor to add.
+     * @return {@code true} if the actor was added; {@code false} if it was already registered.
+     */
+    public boolean add(final Actor actor) {
+        if (contains(actor)) {
+            return false;
+        }
+
+        if (end == actors.length) {
+            actors = Arrays.copyOf(actors, actors.length * 2);
+        }
+
+        actor.setRegistryIndex(end);
+        actors[end++] = actor;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes an actor from the registry, leaving a gap to be closed by the next {@link #compact(Consumer)}.
+     *
+     * @param actor The actor to remove.
+     * @return {@code true} if the actor was removed; {@code false} if it was not registered.
+     */
+    public boolean remove(final Actor actor) {
+        if (!contains(actor)) {
+            return false;
+        }
+
+        actors[actor.getRegistryIndex()] = null;
+        actor.setRegistryIndex(NOT_REGISTERED);
+        size--;
+        return true;
+    }
+
+    /**
+     * Checks if an actor is in the registry.
+     *
+     * @param actor The actor to check.
+     * @return {@code true} if the actor is registered; {@code false} otherwise.
+     */
+    public boolean contains(final Actor actor) {
+        final int index = actor.getRegistryIndex();
+        return index != NOT_REGISTERED && index < end && actors[index] == actor;
+    }
+
+    /**
+     * Gets the number of actors in the registry, including any that have died since the last compaction.
+     *
+     * @return The number of registered actors.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every dead actor from the registry and closes the gaps left by removed actors, keeping the remaining
+     * actors in the order they were added.
+     *
+     * @param onDead Called with each dead actor as it is removed.
+     */
+    public void compact(final Consumer<Actor> onDead) {
+        int next = 0;
+        for (int i = 0; i < end; i++) {
+            final Actor actor = actors[i];
+            if (actor == null) {
+                continue;
+            }
+
+            if (!actor.isAlive()) {
+                actor.setRegistryIndex(NOT_REGISTERED);
+                size--;
+                onDead.accept(actor);
+                continue;
+            }
+
+            actor.setRegistryIndex(next);
+            actors[next++] = actor;
+        }
+
+        Arrays.fill(actors, next, end, null);
+        end = next;
+    }
+
+    /**
+     * Iterates over the registered actors in the order they were added. The registry must not be modified while the
+     * iterator is in use.
+     *
+     * @return An iterator over the registered actors.
+     */
+    @Override
+    public Iterator<Actor> iterator() {
+        return new Iterator<>() {
+            private int index = skipGaps(0);
+
+            @Override
+            public boolean hasNext() {
+                return index < end;
+            }
+
+            @Override
+            public Actor next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Actor actor = actors[index];
+                index = skipGaps(index + 1);
+                return actor;
+            }
+        };
+    }
+
+    /**
+     * Finds the first used index at or after the given one.
+     *
+     * @param from The index to start from.
+     * @return The first index holding an actor, or {@code end} if there is none.
+     */
+    private int skipGaps(int from) {
+        while (from < end && actors[from] == null) {
+            from++;
+        }
+        return from;
+    }
+}
@@ -1,9 +1,5 @@
-import javafx.scene.image.Image;
-
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
 import java.util.Random;
 import java.util.stream.Collectors;
 
@@ -15,10 +11,6 @@ import java.util.stream.Collectors;
  * @author Sam
  */
 public class Amoeba extends Actor {
-    /**
-     * The image of the amoeba.
-     */
-    private static final Image IMG = new Image("amoeba.png");
     /**
      * The default tick rate for amoebas.
      */
@@ -91,11 +83,8 @@ public class Amoeba extends Actor {
             return;
         }
 
-        getGroup(grid).stream()
-                .map(Tile::getOccupier)
-                .filter(occupier -> occupier instanceof Amoeba)
-                .map(occupier -> (Amoeba) occupier)
-                .forEach(Amoeba::markUpdatedThisTick);
+        final int[] group = grid.getAmoebaGroup(getX(), getY());
+        tellGroupUpdated(group, grid);
 
         final HashSet<ActorType> enemies = new HashSet<>();
         enemies.add(ActorType.BUTTERFLY);
@@ -119,19 +108,12 @@ public class Amoeba extends Actor {
                                 && !tile.hasOccupier()))
                 .collect(Collectors.toCollection(ArrayList::new));
 
-        ArrayList<Tile> group = getGroup(grid);
-
-        if (group.size() == maxGroupSize) {
+        if (group.length == maxGroupSize) {
             turnToBoulders(group, grid);
             return;
         }
 
-        final boolean inGroup = !adjacents.stream()
-                .filter(Tile::hasOccupier)
-                .map(Tile::getOccupier)
-                .map(Actor::getType)
-                .filter(type -> type == ActorType.AMOEBA)
-                .toList().isEmpty();
+        final boolean inGroup = group.length > 1;
 
         if (inGroup) {
             trySpread(group, grid);
@@ -143,118 +125,60 @@ public class Amoeba extends Actor {
 
             grid.addActor(spawnAt.getX(), spawnAt.getY(),
                     new Amoeba(spawnAt.getX(), spawnAt.getY()));
-
-            group.add(spawnAt);
         } else {
             turnToDiamonds(group, grid);
         }
 
-        tellGroupUpdated(group);
+        tellGroupUpdated(group, grid);
     }
 
     private void markUpdatedThisTick() {
         lastUpdateWasNTicksAgo = 0;
     }
 
-    private ArrayList<Tile> getGroup(final Grid grid) {
-        HashSet<Tile> seen = new HashSet<>();
-        Queue<Tile> tiles = new LinkedList<>();
-        tiles.offer(grid.getTile(getX(), getY()));
-
-        while (!tiles.isEmpty()) {
-            final Tile front = tiles.poll();
-
-            grid.getAdjacentTiles(front).stream()
-                    .filter(tile -> !seen.contains(tile))
-                    .filter(Tile::hasOccupier)
-                    .filter(tile -> tile.getOccupier().getType()
-                            == ActorType.AMOEBA)
-                    .forEach(tiles::offer);
-
-            seen.add(front);
+    private void trySpread(final int[] amoeba, final Grid grid) {
+        final int cell = grid.getAmoebaGrowthCell(getX(), getY());
+        if (cell == AmoebaGroups.NO_CELL) {
+            turnToDiamonds(amoeba, grid);
+            return;
         }
 
-        return new ArrayList<>(seen);
+        final int x = cell % grid.getWidth();
+        final int y = cell / grid.getWidth();
+        grid.addActor(x, y, new Amoeba(x, y));
     }
 
-    private void trySpread(final ArrayList<Tile> amoeba, final Grid grid) {
-        Queue<Tile> tiles = new LinkedList<>(amoeba);
-
-        boolean hasSpread = false;
-
-        while (!tiles.isEmpty() && !hasSpread) {
-            final Tile front = tiles.poll();
-
-            ArrayList<Tile> adjacents = grid.getAdjacentTiles(front);
-
-            for (Tile adjacent : adjacents) {
-                if (canSpreadTo(adjacent) && !hasSpread) {
-                    performSpread(adjacent, amoeba, grid);
-                    hasSpread = true;
-                }
+    private void tellGroupUpdated(final int[] amoeba, final Grid grid) {
+        for (int cell : amoeba) {
+            final Actor occupier = grid.getOccupier(cell % grid.getWidth(), cell / grid.getWidth());
+            if (occupier instanceof Amoeba) {
+                ((Amoeba) occupier).markUpdatedThisTick();
             }
         }
-
-        if (!hasSpread) {
-            turnToDiamonds(amoeba, grid);
-        } else {
-            tellGroupUpdated(amoeba);
-        }
     }
 
-    private boolean canSpreadTo(final Tile tile) {
-        return !tile.hasOccupier()
-                && (tile.getType() == TileType.PATH
-                || tile.getType() == TileType.DIRT);
-    }
-
-    private void performSpread(final Tile tile, final ArrayList<Tile> amoeba,
-                               final Grid grid) {
-        grid.addActor(tile.getX(), tile.getY(),
-                new Amoeba(tile.getX(), tile.getY()));
-        amoeba.add(grid.getTile(tile.getX(), tile.getY()));
-    }
-
-    private void tellGroupUpdated(final ArrayList<Tile> amoeba) {
-        amoeba.stream()
-                .map(Tile::getOccupier)
-                .filter(actor -> actor instanceof Amoeba)
-                .map(actor -> (Amoeba) actor)
-                .forEach(Amoeba::markUpdatedThisTick);
-    }
-
-    private void turnToDiamonds(final ArrayList<Tile> group, final Grid grid) {
-        group.stream()
-                .map(Tile::getOccupier)
-                .filter(occupier -> occupier.getType() != ActorType.DIAMOND)
-                .forEach(tile -> {
-                    grid.removeActor(tile.getX(), tile.getY());
-                    grid.removeTile(tile.getX(), tile.getY());
-                    grid.addActor(tile.getX(), tile.getY(),
-                            new Diamond(tile.getX(), tile.getY()));
-                });
-        tellGroupUpdated(group);
-    }
-
-    private void turnToBoulders(final ArrayList<Tile> group, final Grid grid) {
-        group.stream()
-                .map(Tile::getOccupier)
-                .filter(occupier -> occupier.getType() != ActorType.BOULDER)
-                .forEach(tile -> {
-                    grid.removeActor(tile.getX(), tile.getY());
-                    grid.removeTile(tile.getX(), tile.getY());
-                    grid.addActor(tile.getX(), tile.getY(),
-                            new Boulder(tile.getX(), tile.getY()));
-                });
-        tellGroupUpdated(group);
+    private void turnToDiamonds(final int[] group, final Grid grid) {
+        for (int cell : group) {
+            final int x = cell % grid.getWidth();
+            final int y = cell / grid.getWidth();
+            if (grid.getOccupier(x, y).getType() != ActorType.DIAMOND) {
+                grid.removeActor(x, y);
+                grid.removeTile(x, y);
+                grid.addActor(x, y, new Diamond(x, y));
+            }
+        }
     }
 
-    /**
-     * @return the image of the amoeba.
-     */
-    @Override
-    protected Image getImage() {
-        return IMG;
+    private void turnToBoulders(final int[] group, final Grid grid) {
+        for (int cell : group) {
+            final int x = cell % grid.getWidth();
+            final int y = cell / grid.getWidth();
+            if (grid.getOccupier(x, y).getType() != ActorType.BOULDER) {
+                grid.removeActor(x, y);
+                grid.removeTile(x, y);
+                grid.addActor(x, y, new Boulder(x, y));
+            }
+        }
     }
 
     /**
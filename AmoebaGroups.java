@@ -0,0 +1,500 @@
+import java.util.Arrays;
+
+/**
+ * Keeps track of which amoebas are joined together into groups, so that an amoeba can find its group and the group's
+ * size without searching the grid. Groups are held in a disjoint-set (union-find) structure over the grid's cells:
+ * an amoeba entering a cell is merged with the groups of any amoebas next to it, and each group keeps its size and a
+ * circular list of its cells so that the group can be walked without a search.
+ *
+ * A disjoint set can't be split, so when an amoeba leaves a cell its group is only marked as broken. Broken groups
+ * are rebuilt from their old list of cells the next time groups are needed, which means turning a whole group into
+ * diamonds costs one rebuild rather than one per amoeba.
+ *
+ * Each group also keeps a frontier: a list of the cells next to it that it could grow into, i.e. dirt or path with
+ * nothing on it. A cell is added to the frontier of every neighbouring group when it opens up (an amoeba arrives next
+ * to it, or whatever was on it leaves, or it becomes path), and the frontiers of two groups are spliced together when
+ * they merge. Rather than searching every group's list when a cell fills up, cells that can no longer be grown into
+ * are dropped when they reach the front of the list, so finding somewhere to grow, or finding out that there is
+ * nowhere, costs constant time on average. A frontier that has built up many more dropped cells than its group has
+ * sides is rebuilt from the group's cells, so it never grows without bound.
+ *
+ * @author Sam
+ * @see Amoeba
+ * @see Grid#getAmoebaGroup(int, int)
+ * @see Grid#getAmoebaGrowthCell(int, int)
+ */
+public class AmoebaGroups {
+    /**
+     * Returned in place of a cell when there is no cell to return.
+     */
+    public static final int NO_CELL = -1;
+    private static final int NO_ENTRY = -1;
+    private static final int FRONTIER_SLACK = 16;
+
+    private final int width;
+    private final int height;
+    private final int[] parent;
+    private final int[] size;
+    private final int[] next;
+    private final boolean[] isAmoeba;
+    private final boolean[] isBroken;
+    private final int[] brokenRoots;
+    private int brokenCount;
+    private final int[] scratch;
+
+    private final int[] frontierTail;
+    private final int[] frontierLength;
+    private int[] entryCell;
+    private int[] entryNext;
+    private int entryCount;
+    private int freeEntry;
+
+    /**
+     * Constructs the groups for an empty grid.
+     *
+     * @param width  The width of the grid.
+     * @param height The height of the grid.
+     */
+    public AmoebaGroups(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+        final int cells = width * height;
+        parent = new int[cells];
+        size = new int[cells];
+        next = new int[cells];
+        isAmoeba = new boolean[cells];
+        isBroken = new boolean[cells];
+        brokenRoots = new int[cells];
+        scratch = new int[cells];
+        frontierTail = new int[cells];
+        frontierLength = new int[cells];
+        entryCell = new int[16];
+        entryNext = new int[16];
+        freeEntry = NO_ENTRY;
+        for (int cell = 0; cell < cells; cell++) {
+            parent[cell] = cell;
+            next[cell] = cell;
+            frontierTail[cell] = NO_ENTRY;
+        }
+    }
+
+    /**
+     * Tells the groups that the occupier of a cell has changed. Only Grid should call this, after it records the new
+     * occupier, as the groups look at the grid to find the cells they can grow into.
+     *
+     * @param grid   The grid.
+     * @param cell   The index of the cell.
+     * @param before The actor that was in the cell, or null.
+     * @param after  The actor that is now in the cell, or null.
+     */
+    void occupierChanged(final Grid grid, final int cell, final Actor before, final Actor after) {
+        final boolean nowAmoeba = after != null && after.getType() == ActorType.AMOEBA;
+        if (nowAmoeba != isAmoeba[cell]) {
+            if (nowAmoeba) {
+                rebuildBrokenGroups(grid);
+                join(grid, cell);
+            } else {
+                leave(cell);
+            }
+        }
+
+        if (after == null && canGrowOnto(grid, cell)) {
+            cellOpened(grid, cell);
+        }
+    }
+
+    /**
+     * Tells the groups that the type of a tile has changed. Only Grid should call this, after it records the new type.
+     *
+     * @param grid The grid.
+     * @param cell The index of the cell.
+     */
+    void tileChanged(final Grid grid, final int cell) {
+        if (isGrowable(grid, cell)) {
+            cellOpened(grid, cell);
+        }
+    }
+
+    /**
+     * Gets the number of amoebas in the group of the amoeba in a cell.
+     *
+     * @param grid The grid.
+     * @param cell The index of a cell holding an amoeba.
+     * @return The size of the cell's group, or 0 if there is no amoeba in the cell.
+     */
+    public int getSize(final Grid grid, final int cell) {
+        rebuildBrokenGroups(grid);
+        return isAmoeba[cell] ? size[find(cell)] : 0;
+    }
+
+    /**
+     * Gets every cell in the group of the amoeba in a cell.
+     *
+     * @param grid The grid.
+     * @param cell The index of a cell holding an amoeba.
+     * @return The indices of the cells in the group, or an empty array if there is no amoeba in the cell.
+     */
+    public int[] getCells(final Grid grid, final int cell) {
+        rebuildBrokenGroups(grid);
+        if (!isAmoeba[cell]) {
+            return new int[0];
+        }
+
+        final int[] cells = new int[size[find(cell)]];
+        int member = cell;
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = member;
+            member = next[member];
+        }
+        return cells;
+    }
+
+    /**
+     * Finds a cell that the group of the amoeba in a cell can grow into: a dirt or path cell with nothing on it, next
+     * to one of the group's amoebas.
+     *
+     * @param grid The grid.
+     * @param cell The index of a cell holding an amoeba.
+     * @return The index of a cell to grow into, or {@link #NO_CELL} if the group is enclosed or there is no amoeba
+     *         in the cell.
+     */
+    public int getGrowableCell(final Grid grid, final int cell) {
+        rebuildBrokenGroups(grid);
+        if (!isAmoeba[cell]) {
+            return NO_CELL;
+        }
+
+        final int root = find(cell);
+        while (frontierTail[root] != NO_ENTRY) {
+            final int candidate = entryCell[entryNext[frontierTail[root]]];
+            if (isGrowable(grid, candidate) && bordersGroup(candidate, root)) {
+                return candidate;
+            }
+            removeFrontierHead(root);
+        }
+        return NO_CELL;
+    }
+
+    /**
+     * Adds a cell as a group of its own, then merges it with the groups of any neighbouring amoebas and adds the free
+     * cells around it to the frontier.
+     *
+     * @param grid The grid.
+     * @param cell The index of the cell.
+     */
+    private void join(final Grid grid, final int cell) {
+        isAmoeba[cell] = true;
+        parent[cell] = cell;
+        size[cell] = 1;
+        next[cell] = cell;
+
+        unionWithNeighbours(cell);
+        addGrowableNeighbours(grid, cell);
+    }
+
+    /**
+     * Removes a cell from its group, marking the group as needing a rebuild.
+     *
+     * @param cell The index of the cell.
+     */
+    private void leave(final int cell) {
+        final int root = find(cell);
+        isAmoeba[cell] = false;
+        if (!isBroken[root]) {
+            isBroken[root] = true;
+            brokenRoots[brokenCount++] = root;
+        }
+    }
+
+    /**
+     * Rebuilds every group that has lost an amoeba since the last rebuild. The remaining amoebas of a broken group
+     * may have been split into several groups, so they are made into groups of their own and merged again, and
+     * their frontiers are rebuilt from their cells.
+     *
+     * @param grid The grid.
+     */
+    private void rebuildBrokenGroups(final Grid grid) {
+        for (int i = 0; i < brokenCount; i++) {
+            final int root = brokenRoots[i];
+            isBroken[root] = false;
+            clearFrontier(root);
+
+            //Gather the old list first, as resetting the cells destroys it.
+            int count = 0;
+            int member = root;
+            do {
+                scratch[count++] = member;
+                member = next[member];
+            } while (member != root);
+
+            for (int j = 0; j < count; j++) {
+                final int cell = scratch[j];
+                parent[cell] = cell;
+                size[cell] = isAmoeba[cell] ? 1 : 0;
+                next[cell] = cell;
+            }
+            for (int j = 0; j < count; j++) {
+                if (isAmoeba[scratch[j]]) {
+                    unionWithNeighbours(scratch[j]);
+                }
+            }
+            for (int j = 0; j < count; j++) {
+                if (isAmoeba[scratch[j]]) {
+                    addGrowableNeighbours(grid, scratch[j]);
+                }
+            }
+        }
+        brokenCount = 0;
+    }
+
+    /**
+     * Merges a cell's group with the groups of the amoebas above, below, left and right of it.
+     *
+     * @param cell The index of the cell.
+     */
+    private void unionWithNeighbours(final int cell) {
+        final int x = cell % width;
+        final int y = cell / width;
+        if (x + 1 < width && isAmoeba[cell + 1]) {
+            union(cell, cell + 1);
+        }
+        if (x > 0 && isAmoeba[cell - 1]) {
+            union(cell, cell - 1);
+        }
+        if (y + 1 < height && isAmoeba[cell + width]) {
+            union(cell, cell + width);
+        }
+        if (y > 0 && isAmoeba[cell - width]) {
+            union(cell, cell - width);
+        }
+    }
+
+    /**
+     * Merges the groups of two cells, hanging the smaller under the larger and joining their lists of cells and their
+     * frontiers.
+     *
+     * @param a The index of the first cell.
+     * @param b The index of the second cell.
+     */
+    private void union(final int a, final int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return;
+        }
+        if (size[rootA] < size[rootB]) {
+            final int temp = rootA;
+            rootA = rootB;
+            rootB = temp;
+        }
+
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+
+        //Splicing two circular lists together is just a swap of their next pointers.
+        final int temp = next[rootA];
+        next[rootA] = next[rootB];
+        next[rootB] = temp;
+
+        final int tailA = frontierTail[rootA];
+        final int tailB = frontierTail[rootB];
+        if (tailB != NO_ENTRY) {
+            if (tailA != NO_ENTRY) {
+                final int head = entryNext[tailA];
+                entryNext[tailA] = entryNext[tailB];
+                entryNext[tailB] = head;
+            }
+            frontierTail[rootA] = tailB;
+            frontierLength[rootA] += frontierLength[rootB];
+            frontierTail[rootB] = NO_ENTRY;
+            frontierLength[rootB] = 0;
+        }
+    }
+
+    /**
+     * Adds a newly opened cell to the frontier of every group next to it.
+     *
+     * @param grid The grid.
+     * @param cell The index of the cell.
+     */
+    private void cellOpened(final Grid grid, final int cell) {
+        final int x = cell % width;
+        final int y = cell / width;
+        if (x + 1 < width && isAmoeba[cell + 1]) {
+            addToFrontier(grid, find(cell + 1), cell);
+        }
+        if (x > 0 && isAmoeba[cell - 1]) {
+            addToFrontier(grid, find(cell - 1), cell);
+        }
+        if (y + 1 < height && isAmoeba[cell + width]) {
+            addToFrontier(grid, find(cell + width), cell);
+        }
+        if (y > 0 && isAmoeba[cell - width]) {
+            addToFrontier(grid, find(cell - width), cell);
+        }
+    }
+
+    /**
+     * Adds the cells above, below, left and right of an amoeba that can be grown into to the frontier of its group.
+     *
+     * @param grid The grid.
+     * @param cell The index of the amoeba's cell.
+     */
+    private void addGrowableNeighbours(final Grid grid, final int cell) {
+        final int x = cell % width;
+        final int y = cell / width;
+        if (x + 1 < width && isGrowable(grid, cell + 1)) {
+            addToFrontier(grid, find(cell), cell + 1);
+        }
+        if (x > 0 && isGrowable(grid, cell - 1)) {
+            addToFrontier(grid, find(cell), cell - 1);
+        }
+        if (y + 1 < height && isGrowable(grid, cell + width)) {
+            addToFrontier(grid, find(cell), cell + width);
+        }
+        if (y > 0 && isGrowable(grid, cell - width)) {
+            addToFrontier(grid, find(cell), cell - width);
+        }
+    }
+
+    /**
+     * Checks if a cell is next to an amoeba of a group.
+     *
+     * @param cell The index of the cell.
+     * @param root The index of the root cell of the group.
+     * @return Whether any amoeba above, below, left or right of the cell is in the group.
+     */
+    private boolean bordersGroup(final int cell, final int root) {
+        final int x = cell % width;
+        final int y = cell / width;
+        return (x + 1 < width && isAmoeba[cell + 1] && find(cell + 1) == root)
+                || (x > 0 && isAmoeba[cell - 1] && find(cell - 1) == root)
+                || (y + 1 < height && isAmoeba[cell + width] && find(cell + width) == root)
+                || (y > 0 && isAmoeba[cell - width] && find(cell - width) == root);
+    }
+
+    /**
+     * Checks if an amoeba could grow into a cell right now.
+     *
+     * @param grid The grid.
+     * @param cell The index of the cell.
+     * @return Whether the cell is dirt or path with nothing on it.
+     */
+    private boolean isGrowable(final Grid grid, final int cell) {
+        return grid.getOccupier(cell % width, cell / width) == null && canGrowOnto(grid, cell);
+    }
+
+    /**
+     * Checks if a cell's tile is one that amoebas grow into, whatever is on it.
+     *
+     * @param grid The grid.
+     * @param cell The index of the cell.
+     * @return Whether the cell is dirt or path.
+     */
+    private boolean canGrowOnto(final Grid grid, final int cell) {
+        final TileType type = grid.getTileType(cell % width, cell / width);
+        return type == TileType.PATH || type == TileType.DIRT;
+    }
+
+    /**
+     * Adds a cell to the back of a group's frontier. If the frontier has grown far beyond what the group could
+     * border, it is rebuilt from the group's cells instead.
+     *
+     * @param grid The grid.
+     * @param root The index of the root cell of the group.
+     * @param cell The index of the cell to add.
+     */
+    private void addToFrontier(final Grid grid, final int root, final int cell) {
+        if (frontierLength[root] > FRONTIER_SLACK + 4 * size[root]) {
+            clearFrontier(root);
+            int member = root;
+            do {
+                addGrowableNeighbours(grid, member);
+                member = next[member];
+            } while (member != root);
+            return;
+        }
+
+        final int entry = allocateEntry();
+        entryCell[entry] = cell;
+        final int tail = frontierTail[root];
+        if (tail == NO_ENTRY) {
+            entryNext[entry] = entry;
+        } else {
+            entryNext[entry] = entryNext[tail];
+            entryNext[tail] = entry;
+        }
+        frontierTail[root] = entry;
+        frontierLength[root]++;
+    }
+
+    /**
+     * Removes the cell at the front of a group's frontier.
+     *
+     * @param root The index of the root cell of the group.
+     */
+    private void removeFrontierHead(final int root) {
+        final int tail = frontierTail[root];
+        final int head = entryNext[tail];
+        if (head == tail) {
+            frontierTail[root] = NO_ENTRY;
+        } else {
+            entryNext[tail] = entryNext[head];
+        }
+        frontierLength[root]--;
+        freeEntry(head);
+    }
+
+    /**
+     * Empties a group's frontier.
+     *
+     * @param root The index of the root cell of the group.
+     */
+    private void clearFrontier(final int root) {
+        while (frontierTail[root] != NO_ENTRY) {
+            removeFrontierHead(root);
+        }
+    }
+
+    /**
+     * Takes an unused frontier entry, growing the pool of entries if there are none.
+     *
+     * @return The index of the entry.
+     */
+    private int allocateEntry() {
+        if (freeEntry != NO_ENTRY) {
+            final int entry = freeEntry;
+            freeEntry = entryNext[entry];
+            return entry;
+        }
+        if (entryCount == entryCell.length) {
+            entryCell = Arrays.copyOf(entryCell, entryCount * 2);
+            entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+        }
+        return entryCount++;
+    }
+
+    /**
+     * Returns a frontier entry to the pool.
+     *
+     * @param entry The index of the entry.
+     */
+    private void freeEntry(final int entry) {
+        entryNext[entry] = freeEntry;
+        freeEntry = entry;
+    }
+
+    /**
+     * Finds the root of a cell's group, halving the path to it on the way.
+     *
+     * @param cell The index of the cell.
+     * @return The index of the root cell of the group.
+     */
+    private int find(int cell) {
+        while (parent[cell] != cell) {
+            parent[cell] = parent[parent[cell]];
+            cell = parent[cell];
+        }
+        return cell;
+    }
+}
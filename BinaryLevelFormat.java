@@ -0,0 +1,428 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.EnumMap;
+import java.util.HashSet;
+
+/**
+ * Reads and writes levels in our compact binary format, which holds exactly what the text format does but is several
+ * times smaller and is read without any parsing, so big levels (e.g. endless maps) save and load almost instantly.
+ * {@link LevelFactory#createFromBytes(byte[])} tells the two formats apart, so either can be used for level files and
+ * save games. Run this class to convert a level file between the formats:
+ * {@code java BinaryLevelFormat <input file> <output file>}.
+ *
+ * A level is laid out as follows, with every number big-endian:
+ * <ul>
+ *     <li>The magic number "BDLV" and a version byte.</li>
+ *     <li>The header: the amoeba rate (float), maximum amoeba size, level timer and diamond threshold (ints).</li>
+ *     <li>The width and height of the grid (ints), then the tile plane: the type of every tile, row by row, packed
+ *     three bits to a tile.</li>
+ *     <li>The extra data of exits (diamond threshold, int), keys and doors (ID, int, then colour, byte), in the order
+ *     their tiles appear in the plane.</li>
+ *     <li>The player: its cell and diamond count, then the number of keys it holds and their IDs (ints).</li>
+ *     <li>The actor table: the number of actors (int), then each actor's type (byte, with the top bit set for a
+ *     butterfly or firefly that follows the wall on its left) and cell (int).</li>
+ * </ul>
+ * Cells are given by their index, {@code y * width + x}. Types and colours have fixed codes in this class, so the
+ * format does not change if the enums are reordered.
+ *
+ * @author Sam
+ * @see LevelFactory
+ */
+public class BinaryLevelFormat {
+    /**
+     * The version of the format written by this class. Bump this whenever the layout changes.
+     */
+    public static final byte VERSION = 1;
+
+    private static final byte[] MAGIC = {'B', 'D', 'L', 'V'};
+    private static final int TILE_BITS = 3;
+    private static final int LEFT_FLAG = 0x80;
+
+    /**
+     * The tile types, actor types and colours, indexed by their code in the format.
+     */
+    private static final TileType[] TILE_TYPES = {TileType.PATH, TileType.DIRT, TileType.WALL,
+            TileType.TITANIUM_WALL, TileType.MAGIC_WALL, TileType.EXIT, TileType.KEY, TileType.DOOR};
+    private static final ActorType[] ACTOR_TYPES = {ActorType.BOULDER, ActorType.DIAMOND, ActorType.AMOEBA,
+            ActorType.FROG, ActorType.BUTTERFLY, ActorType.FIREFLY};
+    private static final KeyDoorColour[] COLOURS = {KeyDoorColour.RED, KeyDoorColour.GREEN, KeyDoorColour.BLUE,
+            KeyDoorColour.YELLOW};
+
+    private static final EnumMap<TileType, Integer> TILE_CODES = codes(TileType.class, TILE_TYPES);
+    private static final EnumMap<ActorType, Integer> ACTOR_CODES = codes(ActorType.class, ACTOR_TYPES);
+    private static final EnumMap<KeyDoorColour, Integer> COLOUR_CODES = codes(KeyDoorColour.class, COLOURS);
+
+    /**
+     * Converts a level file between the text and binary formats, whichever way round it is.
+     *
+     * @param args The path of the file to convert, then the path to write the converted level to.
+     * @throws IOException    If either file cannot be read or written.
+     * @throws ParseException If the level is invalid.
+     */
+    public static void main(String[] args) throws IOException, ParseException {
+        if (args.length < 2) {
+            System.out.println("Usage: java BinaryLevelFormat <input file> <output file>");
+            return;
+        }
+
+        final byte[] input = Files.readAllBytes(Paths.get(args[0]));
+        final byte[] output = isBinary(input, 0)
+                ? binaryToText(input).getBytes(StandardCharsets.UTF_8)
+                : textToBinary(new String(input, StandardCharsets.UTF_8));
+        Files.write(Paths.get(args[1]), output);
+
+        System.out.printf("Converted %s (%d bytes) to %s (%d bytes).%n", args[0], input.length, args[1],
+                output.length);
+    }
+
+    /**
+     * Checks if some data starts with a level in the binary format, rather than the text format.
+     *
+     * @param data   The data.
+     * @param offset The index in the data the level starts at.
+     * @return Whether the level is in the binary format.
+     */
+    public static boolean isBinary(final byte[] data, final int offset) {
+        if (data.length - offset < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[offset + i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts a level from the text format to the binary format.
+     *
+     * @param text The level in the text format.
+     * @return The level in the binary format.
+     * @throws ParseException If the text is not a valid level.
+     */
+    public static byte[] textToBinary(final String text) throws ParseException {
+        return write(LevelFactory.createFromText(text));
+    }
+
+    /**
+     * Converts a level from the binary format to the text format.
+     *
+     * @param data The level in the binary format.
+     * @return The level in the text format.
+     * @throws ParseException If the data is not a valid level.
+     */
+    public static String binaryToText(final byte[] data) throws ParseException {
+        return readTemplate(data, 0).toText();
+    }
+
+    /**
+     * Saves the entire state of a level in the binary format. Like {@link Level#toText()}, this must not be called
+     * while the level is being updated.
+     *
+     * @param level The level.
+     * @return The level in the binary format.
+     */
+    public static byte[] write(final Level level) {
+        final Grid grid = level.getGrid();
+        final Player player = level.getPlayer();
+        final int width = grid.getWidth();
+        final int height = grid.getHeight();
+        final int cells = width * height;
+
+        int extrasSize = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                extrasSize += switch (grid.getTileType(x, y)) {
+                    case EXIT -> Integer.BYTES;
+                    case KEY, DOOR -> Integer.BYTES + 1;
+                    default -> 0;
+                };
+            }
+        }
+        int actorCount = 0;
+        for (Actor actor : grid.getActors()) {
+            if (actor != player) {
+                actorCount++;
+            }
+        }
+
+        final int size = MAGIC.length + 1 + 4 * Integer.BYTES
+                + 2 * Integer.BYTES + planeSize(cells) + extrasSize
+                + 3 * Integer.BYTES + player.getCollectedKeys().size() * Integer.BYTES
+                + Integer.BYTES + actorCount * (1 + Integer.BYTES);
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+
+        buffer.put(MAGIC).put(VERSION);
+        buffer.putFloat(level.getAmoebaRate()).putInt(level.getAmoebaMax()).putInt(level.getLevelTimer())
+                .putInt(Level.LEVEL_DIAMOND_COUNT);
+
+        buffer.putInt(width).putInt(height);
+        long bits = 0;
+        int bitCount = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                bits |= (long) TILE_CODES.get(grid.getTileType(x, y)) << bitCount;
+                bitCount += TILE_BITS;
+                while (bitCount >= Byte.SIZE) {
+                    buffer.put((byte) bits);
+                    bits >>>= Byte.SIZE;
+                    bitCount -= Byte.SIZE;
+                }
+            }
+        }
+        if (bitCount > 0) {
+            buffer.put((byte) bits);
+        }
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                switch (grid.getTileType(x, y)) {
+                    case EXIT -> buffer.putInt(((ExitTile) grid.getTile(x, y)).getDiamondThreshold());
+                    case KEY -> {
+                        final Key key = (Key) grid.getTile(x, y);
+                        buffer.putInt(key.getKeyID()).put((byte) (int) COLOUR_CODES.get(key.getColour()));
+                    }
+                    case DOOR -> {
+                        final Door door = (Door) grid.getTile(x, y);
+                        buffer.putInt(door.getDoorID()).put((byte) (int) COLOUR_CODES.get(door.getColour()));
+                    }
+                    default -> { }
+                }
+            }
+        }
+
+        buffer.putInt(player.getY() * width + player.getX()).putInt(player.getDiamondCount());
+        buffer.putInt(player.getCollectedKeys().size());
+        player.getCollectedKeys().forEach(buffer::putInt);
+
+        buffer.putInt(actorCount);
+        for (Actor actor : grid.getActors()) {
+            if (actor != player) {
+                int code = ACTOR_CODES.get(actor.getType());
+                if ((actor instanceof Butterfly butterfly && butterfly.isLeft())
+                        || (actor instanceof Firefly firefly && firefly.isLeft())) {
+                    code |= LEFT_FLAG;
+                }
+                buffer.put((byte) code).putInt(actor.getY() * width + actor.getX());
+            }
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Creates a level from data in the binary format.
+     *
+     * @param data   The data.
+     * @param offset The index in the data the level starts at.
+     * @return The level.
+     * @throws ParseException If the data is not a valid level, an exception is thrown denoting what the issue was
+     *                        and where.
+     */
+    public static Level read(final byte[] data, final int offset) throws ParseException {
+        return readTemplate(data, offset).instantiate();
+    }
+
+    /**
+     * Reads a level template from data in the binary format. Unlike creating a level, this changes no global state, so
+     * it can be called on any thread.
+     *
+     * @param data   The data.
+     * @param offset The index in the data the level starts at.
+     * @return The template.
+     * @throws ParseException If the data is not a valid level, an exception is thrown denoting what the issue was
+     *                        and where.
+     */
+    public static LevelTemplate readTemplate(final byte[] data, final int offset) throws ParseException {
+        if (!isBinary(data, offset)) {
+            throw new ParseException("Binary level did not start with 'BDLV' header", offset);
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(data, offset + MAGIC.length, data.length - offset - MAGIC.length);
+        try {
+            return readTemplate(buffer);
+        } catch (BufferUnderflowException exception) {
+            throw new ParseException(String.format("Binary level ended early, after %d bytes.",
+                    buffer.position() - offset), buffer.position());
+        }
+    }
+
+    /**
+     * Reads a level template from a buffer positioned just after the magic number.
+     *
+     * @param buffer The buffer.
+     * @return The template.
+     * @throws ParseException If the data is not a valid level.
+     */
+    private static LevelTemplate readTemplate(final ByteBuffer buffer) throws ParseException {
+        final byte version = buffer.get();
+        if (version != VERSION) {
+            throw new ParseException(String.format("Binary level has version %d, expected %d.", version, VERSION),
+                    buffer.position() - 1);
+        }
+
+        final float amoebaRate = buffer.getFloat();
+        final int amoebaMax = buffer.getInt();
+        final int levelTimer = buffer.getInt();
+        final int diamondThreshold = buffer.getInt();
+
+        final int width = buffer.getInt();
+        final int height = buffer.getInt();
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new ParseException(String.format("Binary level has an invalid grid size of %d by %d.",
+                    width, height), buffer.position());
+        }
+        final int cells = width * height;
+        //Check the tiles are all there before allocating anything the size of the grid, so a corrupt size fails fast.
+        if (planeSize(cells) > buffer.remaining()) {
+            throw new ParseException(String.format("Binary level has a grid of %d by %d, but only %d bytes are left "
+                    + "for its tiles.", width, height, buffer.remaining()), buffer.position());
+        }
+        final LevelTemplate.Builder builder = new LevelTemplate.Builder(width, height)
+                .setAmoeba(amoebaRate, amoebaMax).setLevelTimer(levelTimer).setDiamondThreshold(diamondThreshold);
+
+        final byte[] plane = new byte[planeSize(cells)];
+        buffer.get(plane);
+        int bit = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                //A tile may straddle two bytes of the plane.
+                final int index = bit / Byte.SIZE;
+                int bits = plane[index] & 0xFF;
+                if (index + 1 < plane.length) {
+                    bits |= (plane[index + 1] & 0xFF) << Byte.SIZE;
+                }
+                final int code = (bits >>> (bit % Byte.SIZE)) & ((1 << TILE_BITS) - 1);
+                readTile(buffer, builder, TILE_TYPES[code], x, y);
+                bit += TILE_BITS;
+            }
+        }
+
+        final int playerCell = readCell(buffer, cells, "the player");
+        buffer.getInt(); //Like the text format, the diamond count is saved but a loaded level starts from zero.
+        final int keyCount = buffer.getInt();
+        if (keyCount < 0) {
+            throw new ParseException(String.format("Binary level has %d keys for the player.", keyCount),
+                    buffer.position());
+        }
+        final HashSet<Integer> collectedKeys = new HashSet<>();
+        for (int i = 0; i < keyCount; i++) {
+            collectedKeys.add(buffer.getInt());
+        }
+        builder.setPlayer(playerCell % width, playerCell / width, collectedKeys);
+
+        final int actorCount = buffer.getInt();
+        for (int actorIndex = 0; actorIndex < actorCount; actorIndex++) {
+            final int code = buffer.get() & 0xFF;
+            final int type = code & ~LEFT_FLAG;
+            if (type >= ACTOR_TYPES.length) {
+                throw new ParseException(String.format("Actor with index %d had type code %d which is not in valid set.",
+                        actorIndex, type), buffer.position() - 1);
+            }
+            final int actorCell = readCell(buffer, cells, "actor with index " + actorIndex);
+            final int x = actorCell % width;
+            final int y = actorCell / width;
+            if (builder.isOccupied(x, y)) {
+                throw new ParseException(String.format("Actor with index %d tried to occupy a tile already occupied.",
+                        actorIndex), actorIndex);
+            }
+            builder.addActor(ACTOR_TYPES[type], x, y, (code & LEFT_FLAG) != 0);
+        }
+
+        if (buffer.hasRemaining()) {
+            throw new ParseException(String.format("Binary level has %d unexpected bytes after its actors.",
+                    buffer.remaining()), buffer.position());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Sets a tile of the level being read, reading any extra data it has from the buffer.
+     *
+     * @param buffer  The buffer, at the tile's extra data if it has any.
+     * @param builder The builder of the level.
+     * @param type    The type of the tile.
+     * @param x       The column of the tile.
+     * @param y       The row of the tile.
+     * @throws ParseException If a key or door has an invalid colour.
+     */
+    private static void readTile(final ByteBuffer buffer, final LevelTemplate.Builder builder, final TileType type,
+                                 final int x, final int y) throws ParseException {
+        switch (type) {
+            case EXIT -> builder.setExit(x, y, buffer.getInt());
+            case KEY -> builder.setKey(x, y, buffer.getInt(), readColour(buffer, "key", x, y));
+            case DOOR -> builder.setDoor(x, y, buffer.getInt(), readColour(buffer, "locked door", x, y));
+            default -> builder.setTile(x, y, type);
+        }
+    }
+
+    /**
+     * Reads the colour of a key or door.
+     *
+     * @param buffer The buffer, at the colour.
+     * @param what   What is being created, for error messages.
+     * @param x      The column of the key or door.
+     * @param y      The row of the key or door.
+     * @return The colour.
+     * @throws ParseException If the colour is not one of ours.
+     */
+    private static KeyDoorColour readColour(final ByteBuffer buffer, final String what, final int x, final int y)
+            throws ParseException {
+        final int code = buffer.get() & 0xFF;
+        if (code >= COLOURS.length) {
+            throw new ParseException(String.format("When creating %s, expected a colour code below %d. Was given %d at row %d, column %d",
+                    what, COLOURS.length, code, y, x), buffer.position() - 1);
+        }
+        return COLOURS[code];
+    }
+
+    /**
+     * Reads the cell of the player or an actor.
+     *
+     * @param buffer The buffer, at the cell.
+     * @param cells  The number of cells in the grid.
+     * @param what   Whose cell it is, for error messages.
+     * @return The index of the cell.
+     * @throws ParseException If the cell is outside the grid.
+     */
+    private static int readCell(final ByteBuffer buffer, final int cells, final String what) throws ParseException {
+        final int cell = buffer.getInt();
+        if (cell < 0 || cell >= cells) {
+            throw new ParseException(String.format("Cell %d of %s is outside the grid.", cell, what),
+                    buffer.position() - Integer.BYTES);
+        }
+        return cell;
+    }
+
+    /**
+     * Gets the size of the tile plane of a grid.
+     *
+     * @param cells The number of cells in the grid.
+     * @return The size, in bytes.
+     */
+    private static int planeSize(final int cells) {
+        return (int) (((long) cells * TILE_BITS + Byte.SIZE - 1) / Byte.SIZE);
+    }
+
+    /**
+     * Looks up the code of every constant of an enum in a table of codes.
+     *
+     * @param type  The enum.
+     * @param table The constants, indexed by their code.
+     * @param <E>   The type of the enum.
+     * @return The codes, keyed by constant.
+     */
+    private static <E extends Enum<E>> EnumMap<E, Integer> codes(final Class<E> type, final E[] table) {
+        final EnumMap<E, Integer> codes = new EnumMap<>(type);
+        for (int code = 0; code < table.length; code++) {
+            codes.put(table[code], code);
+        }
+        return codes;
+    }
+}
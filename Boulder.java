@@ -1,6 +1,3 @@
-import javafx.scene.image.Image;
-import javafx.util.Pair;
-
 import java.util.Random;
 
 /**
@@ -13,7 +10,6 @@ import java.util.Random;
 public class Boulder extends Actor {
 
     private static final int BOULDER_TICK_RATE = 3;
-    private static final Image IMAGE = new Image("boulder.png");
     private boolean hasFallen = false;
 
     /**
@@ -68,6 +64,8 @@ public class Boulder extends Actor {
                 mWall.interactWith(this, grid);
             }
         }
+        final int startX = getX();
+        final int startY = getY();
         Random random = new Random();
         if (canFall(grid)) {
             fall(grid);
@@ -84,6 +82,11 @@ public class Boulder extends Actor {
                 rollRight(grid);
             }
         }
+
+        //A boulder that didn't move can't move until one of the cells around it changes, so stop updating it.
+        if (getX() == startX && getY() == startY && grid.getOccupier(startX, startY) == this) {
+            grid.sleep(this);
+        }
     }
 
     /**
@@ -94,8 +97,8 @@ public class Boulder extends Actor {
      */
     private boolean canFall(final Grid grid) {
         if (getY() + 1 < grid.getHeight()
-                && grid.getTile(getX(), getY() + 1).getType() == TileType.PATH
-                && grid.getTile(getX(), getY() + 1).getOccupier() == null) {
+                && grid.getTileType(getX(), getY() + 1) == TileType.PATH
+                && grid.getOccupier(getX(), getY() + 1) == null) {
             return true;
         } else {
             hasFallen = false;
@@ -111,7 +114,7 @@ public class Boulder extends Actor {
      */
     private void fall(final Grid grid) {
         if (getY() + 1 < grid.getHeight()) {
-            Actor occupier = grid.getTile(getX(), getY() + 1).getOccupier();
+            Actor occupier = grid.getOccupier(getX(), getY() + 1);
             if (occupier == null) {
                 grid.tryMove(this, getX(), getY() + 1);
                 hasFallen = true;
@@ -126,7 +129,7 @@ public class Boulder extends Actor {
             } else {
                 hasFallen = false;
             }
-            Actor newOccupier = grid.getTile(getX(), getY() + 1).getOccupier();
+            Actor newOccupier = grid.getOccupier(getX(), getY() + 1);
             if (newOccupier != null) {
                 if (hasFallen && (newOccupier.getType() != ActorType.DIAMOND
                         && newOccupier.getType() != ActorType.AMOEBA
@@ -151,11 +154,11 @@ public class Boulder extends Actor {
      */
     private boolean canRollLeft(final Grid grid) {
         return getX() - 1 >= 0 && getY() + 1 < grid.getHeight()
-                && grid.getTile(getX() - 1, getY()).getType() == TileType.PATH
-                &&  grid.getTile(getX() - 1, getY()).getOccupier() == null
-                && grid.getTile(getX() - 1, getY() + 1).getType() == TileType.PATH
-                && grid.getTile(getX() - 1, getY() + 1).getOccupier() == null
-                && grid.getTile(getX(), getY() + 1).getType() != TileType.MAGIC_WALL;
+                && grid.getTileType(getX() - 1, getY()) == TileType.PATH
+                &&  grid.getOccupier(getX() - 1, getY()) == null
+                && grid.getTileType(getX() - 1, getY() + 1) == TileType.PATH
+                && grid.getOccupier(getX() - 1, getY() + 1) == null
+                && grid.getTileType(getX(), getY() + 1) != TileType.MAGIC_WALL;
     }
 
     /**
@@ -177,11 +180,11 @@ public class Boulder extends Actor {
      */
     private boolean canRollRight(Grid grid) {
         return getX() + 1 < grid.getWidth() && getY() + 1 < grid.getHeight()
-                && grid.getTile(getX() + 1, getY()).getType() == TileType.PATH
-                && grid.getTile(getX() + 1, getY()).getOccupier() == null
-                && grid.getTile(getX() + 1, getY() + 1).getType() == TileType.PATH
-                && grid.getTile(getX() + 1, getY() + 1).getOccupier() == null
-                && grid.getTile(getX(), getY() + 1).getType() != TileType.MAGIC_WALL;
+                && grid.getTileType(getX() + 1, getY()) == TileType.PATH
+                && grid.getOccupier(getX() + 1, getY()) == null
+                && grid.getTileType(getX() + 1, getY() + 1) == TileType.PATH
+                && grid.getOccupier(getX() + 1, getY() + 1) == null
+                && grid.getTileType(getX(), getY() + 1) != TileType.MAGIC_WALL;
     }
 
     /**
@@ -203,8 +206,8 @@ public class Boulder extends Actor {
      */
     public boolean canBePushedRight(final Grid grid) {
         return getX() + 1 < grid.getWidth()
-                && grid.getTile(getX() + 1, getY()).getType() == TileType.PATH
-                && grid.getTile(getX() + 1, getY()).getOccupier() == null;
+                && grid.getTileType(getX() + 1, getY()) == TileType.PATH
+                && grid.getOccupier(getX() + 1, getY()) == null;
     }
 
     /**
@@ -215,8 +218,8 @@ public class Boulder extends Actor {
      */
     public boolean canBePushedLeft(final Grid grid) {
         return getX() - 1 >= 0
-                && grid.getTile(getX() - 1, getY()).getType() == TileType.PATH
-                && grid.getTile(getX() - 1, getY()).getOccupier() == null;
+                && grid.getTileType(getX() - 1, getY()) == TileType.PATH
+                && grid.getOccupier(getX() - 1, getY()) == null;
     }
 
     /**
@@ -250,14 +253,4 @@ public class Boulder extends Actor {
     public boolean playerCanWalkOn(Actor actor) {
         return false;
     }
-
-    /**
-     * Retrieves the image representation of the boulder.
-     *
-     * @return The image of the boulder.
-     */
-    @Override
-    public Image getImage() {
-        return IMAGE;
-    }
 }
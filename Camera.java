@@ -1,22 +1,25 @@
 import javafx.scene.canvas.GraphicsContext;
 
 /**
- * Represents a camera that follows a specified {@link Actor}
- * and updates its position on the canvas based on the actor's movements.
- * Provides basic camera translation functionality.
+ * Represents a camera that follows a target (the player)
+ * and updates its position on the canvas based on the target's movements.
+ * Provides basic camera translation functionality, and tells renderers which cells of the level are on screen so
+ * that they need not draw the rest.
  *
  * @author Sam
  */
 public class Camera {
     private GraphicsContext graphicsContext;
-    private Actor follow;
     private int previousX = 0;
     private int previousY = 0;
     private static final int FACTOR = 150;
     private static final int THRESHOLD = 14;
     private static final double TRANSLATION_SCALAR = 0.75;
     private static double SCALE_BIG = 2;
+    private static final int VISIBLE_MARGIN = 1;
     private boolean isBig;
+    private double translateX;
+    private double translateY;
 
     /**
      * Constructs a Camera instance with the specified {@link GraphicsContext}.
@@ -26,6 +29,8 @@ public class Camera {
     public Camera(final GraphicsContext gc) {
         this.graphicsContext = gc;
         isBig = false;
+        translateX = 0;
+        translateY = 0;
     }
 
     /**
@@ -37,45 +42,124 @@ public class Camera {
         this.isBig = isBig;
     }
     /**
-     * Sets the target {@link Actor} that the camera will follow.
+     * Sets where the target the camera will follow starts.
      *
-     * @param actor the {@link Actor} to follow
+     * @param x the x-coordinate of the target
+     * @param y the y-coordinate of the target
      */
-    public void setTarget(final Actor actor) {
-        follow = actor;
-        previousX = actor.getX();
-        previousY = actor.getY();
+    public void setTarget(final int x, final int y) {
+        previousX = x;
+        previousY = y;
 
         if (previousX > THRESHOLD) {
-            graphicsContext.translate(-1 * previousX * Level.DRAW_ENTITY_SIZE * TRANSLATION_SCALAR,
-                    0);
+            translate(-1 * previousX * Level.DRAW_ENTITY_SIZE * TRANSLATION_SCALAR, 0);
         }
 
         if (previousY > THRESHOLD) {
-            graphicsContext.translate(0, -1 * previousY * Level.DRAW_ENTITY_SIZE * TRANSLATION_SCALAR);
+            translate(0, -1 * previousY * Level.DRAW_ENTITY_SIZE * TRANSLATION_SCALAR);
         }
     }
 
     /**
-     * Updates the camera's position by translating the view based on the target
-     * actor's movements. It adjusts the translation only if the actor's position
+     * Updates the camera's position by translating the view based on the target's
+     * movements. It adjusts the translation only if the target's position
      * has changed since the last update.
+     *
+     * @param x the x-coordinate of the target now
+     * @param y the y-coordinate of the target now
+     * @return Whether the view was translated, in which case everything already drawn is in the wrong place.
      */
-    public void update() {
-        if (follow.getX() - previousX > THRESHOLD / ((isBig) ? SCALE_BIG : 1)) {
-            previousX = follow.getX();
-            graphicsContext.translate(-1 * FACTOR, 0);
-        } else if (follow.getX() - previousX < -1 * THRESHOLD / ((isBig) ? SCALE_BIG : 1)) {
-            previousX = follow.getX();
-            graphicsContext.translate(FACTOR, 0);
+    public boolean update(final int x, final int y) {
+        boolean moved = false;
+        if (x - previousX > THRESHOLD / ((isBig) ? SCALE_BIG : 1)) {
+            previousX = x;
+            translate(-1 * FACTOR, 0);
+            moved = true;
+        } else if (x - previousX < -1 * THRESHOLD / ((isBig) ? SCALE_BIG : 1)) {
+            previousX = x;
+            translate(FACTOR, 0);
+            moved = true;
         }
 
-        if (follow.getY() - previousY > (THRESHOLD / ((isBig) ? SCALE_BIG : 1))) {
-            previousY = follow.getY();
-            graphicsContext.translate(0, -FACTOR);
-        } else if (follow.getY() - previousY < -1 * ((isBig) ? SCALE_BIG : 1)) {
-            previousY = follow.getY();
-            graphicsContext.translate(0, FACTOR);
+        if (y - previousY > (THRESHOLD / ((isBig) ? SCALE_BIG : 1))) {
+            previousY = y;
+            translate(0, -FACTOR);
+            moved = true;
+        } else if (y - previousY < -1 * ((isBig) ? SCALE_BIG : 1)) {
+            previousY = y;
+            translate(0, FACTOR);
+            moved = true;
         }
+        return moved;
+    }
+
+    /**
+     * Gets the leftmost column of the level that is on screen, or nearly.
+     *
+     * @return The x-coordinate of the column; may be off the level.
+     */
+    public int getFirstVisibleColumn() {
+        return toCell(-translateX) - VISIBLE_MARGIN;
+    }
+
+    /**
+     * Gets the rightmost column of the level that is on screen, or nearly.
+     *
+     * @return The x-coordinate of the column; may be off the level.
+     */
+    public int getLastVisibleColumn() {
+        return toCell(graphicsContext.getCanvas().getWidth() - translateX) + VISIBLE_MARGIN;
+    }
+
+    /**
+     * Gets the top row of the level that is on screen, or nearly.
+     *
+     * @return The y-coordinate of the row; may be off the level.
+     */
+    public int getFirstVisibleRow() {
+        return toCell(-translateY) - VISIBLE_MARGIN;
+    }
+
+    /**
+     * Gets the bottom row of the level that is on screen, or nearly.
+     *
+     * @return The y-coordinate of the row; may be off the level.
+     */
+    public int getLastVisibleRow() {
+        return toCell(graphicsContext.getCanvas().getHeight() - translateY) + VISIBLE_MARGIN;
+    }
+
+    /**
+     * Checks if a cell of the level is on screen, or nearly.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return Whether the cell is in the visible rectangle.
+     */
+    public boolean isVisible(final int x, final int y) {
+        return x >= getFirstVisibleColumn() && x <= getLastVisibleColumn()
+                && y >= getFirstVisibleRow() && y <= getLastVisibleRow();
+    }
+
+    /**
+     * Translates the view, keeping track of the total translation.
+     *
+     * @param x How far to move the view right, in pixels.
+     * @param y How far to move the view down, in pixels.
+     */
+    private void translate(final double x, final double y) {
+        graphicsContext.translate(x, y);
+        translateX += x;
+        translateY += y;
+    }
+
+    /**
+     * Finds the cell drawn at a position on the untranslated canvas. Cells are drawn one cell in from the origin.
+     *
+     * @param position The position, in pixels.
+     * @return The coordinate of the cell.
+     */
+    private static int toCell(final double position) {
+        return (int) Math.floor(position / Level.DRAW_ENTITY_SIZE) - 1;
     }
 }
@@ -0,0 +1,124 @@
+import java.util.Arrays;
+
+/**
+ * Labels the caves of a generated map. Every cell that isn't stone is given the ID of the cave it is in, a cave being a
+ * group of such cells joined up, down, left or right.
+ *
+ * A cave is filled a run of cells along a row at a time, with the runs still to look at kept on a stack of our own
+ * rather than the call stack, so filling takes time linear in the size of the cave and never overflows however big the
+ * map is. The stack is kept between fills, so labelling a whole map only grows it a few times.
+ *
+ * @author Sam
+ * @see MapGenerator
+ * @see CaveItemPlacer
+ */
+final class CaveFill {
+    private static final int INITIAL_STACK_SIZE = 64;
+
+    private final float[][] field;
+    private final int[][] labels;
+    private final float stoneThreshold;
+    private final int width;
+    private int[] stack;
+    private int stackSize;
+
+    /**
+     * Constructs a fill over a field.
+     *
+     * @param field          The field, indexed [row][column]. Every row must be the same length.
+     * @param labels         The cave ID of each cell, the same size as the field. 0 means not in a cave (yet).
+     * @param stoneThreshold Cells with a value below this are stone.
+     */
+    CaveFill(final float[][] field, final int[][] labels, final float stoneThreshold) {
+        this.field = field;
+        this.labels = labels;
+        this.stoneThreshold = stoneThreshold;
+        this.width = (field.length == 0) ? 0 : field[0].length;
+        this.stack = new int[INITIAL_STACK_SIZE];
+        this.stackSize = 0;
+    }
+
+    /**
+     * Labels every cell in the same cave as a given cell. Nothing is labelled if that cell is stone or has already
+     * been labelled. Cells off the edge of the field count as stone.
+     *
+     * @param row    The row of the cell.
+     * @param column The column of the cell.
+     * @param caveID The ID to label the cave with. Must not be 0.
+     */
+    void fill(final int row, final int column, final int caveID) {
+        push(row, column);
+        while (stackSize > 0) {
+            final int cell = stack[--stackSize];
+            final int y = cell / width;
+            final int x = cell % width;
+            if (!isUnlabelledCave(y, x)) {
+                continue; //Already filled from another seed.
+            }
+
+            //Widen to the whole run along the row, and label it.
+            int left = x;
+            while (left > 0 && isUnlabelledCave(y, left - 1)) {
+                left--;
+            }
+            int right = x;
+            while (right < width - 1 && isUnlabelledCave(y, right + 1)) {
+                right++;
+            }
+            Arrays.fill(labels[y], left, right + 1, caveID);
+
+            //Then look for runs touching it in the rows either side.
+            if (y > 0) {
+                pushRuns(y - 1, left, right);
+            }
+            if (y < field.length - 1) {
+                pushRuns(y + 1, left, right);
+            }
+        }
+    }
+
+    /**
+     * Pushes one cell of each run of unlabelled cave cells in a row between two columns.
+     *
+     * @param y     The row.
+     * @param left  The first column, inclusive.
+     * @param right The last column, inclusive.
+     */
+    private void pushRuns(final int y, final int left, final int right) {
+        boolean inRun = false;
+        for (int x = left; x <= right; x++) {
+            final boolean isCave = isUnlabelledCave(y, x);
+            if (isCave && !inRun) {
+                push(y, x);
+            }
+            inRun = isCave;
+        }
+    }
+
+    /**
+     * Checks if a cell still needs to be filled.
+     *
+     * @param y The row of the cell.
+     * @param x The column of the cell.
+     * @return Whether the cell is not stone and has no cave ID yet.
+     */
+    private boolean isUnlabelledCave(final int y, final int x) {
+        return field[y][x] >= stoneThreshold && labels[y][x] == 0;
+    }
+
+    /**
+     * Pushes a cell onto the stack, growing it if needed.
+     *
+     * @param y The row of the cell.
+     * @param x The column of the cell.
+     */
+    private void push(final int y, final int x) {
+        if (y < 0 || y >= field.length || x < 0 || x >= width) {
+            return;
+        }
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[stackSize++] = y * width + x;
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Handles the placement of various items within a grid-based system.
@@ -15,7 +16,7 @@ public class CaveItemPlacer {
 
     //cave identification grid
     private float[][] field;
-    private final float[][] caveMap;
+    private final int[][] caveMap;
     private int caveCount;
 
     //block threshold used for determining what a
@@ -35,7 +36,9 @@ public class CaveItemPlacer {
     private static final int FIREFLY_ID = 9;
     private static final int EXIT_ID = 10;
     private static final int KEY_GENERATOR_START = 100;
-    private static int keyIDGenerator = KEY_GENERATOR_START;
+    //shared by every map, which may be generated on different threads
+    private static final AtomicInteger KEY_ID_GENERATOR =
+            new AtomicInteger(KEY_GENERATOR_START);
     private static final float DOOR_CALC_VAL = 0.5f;
 
     /**
@@ -56,7 +59,7 @@ public class CaveItemPlacer {
         field = aField;
         row = aRow;
         col = aCol;
-        caveMap = new float[aCol][aRow];
+        caveMap = new int[aCol][aRow];
         stoneThreshold = aStoneThreshold;
         dirtThreshold = aDirtThreshold;
         floorThreshold = aFloorThreshold;
@@ -99,6 +102,7 @@ public class CaveItemPlacer {
      * Identifies all caves in the field by performing a flood-fill operation.
      */
     private void identifyCaves() {
+        CaveFill caveFill = new CaveFill(field, caveMap, stoneThreshold);
         for (int i = 0; i < col; i++) {
             for (int j = 0; j < row; j++) {
 
@@ -109,34 +113,12 @@ public class CaveItemPlacer {
                     //updates amount of caves
                     caveCount++;
                     //flood fill
-                    addToGroup(i, j, caveCount);
+                    caveFill.fill(i, j, caveCount);
                 }
             }
         }
     }
 
-    /**
-     * Performs a flood-fill operation to group cells into caves.
-     *
-     * @param y the current row index
-     * @param x the current column index
-     * @param caveID the ID of the cave being formed
-     */
-    private void addToGroup(final int y, final int x, final int caveID) {
-
-        //if the cell is being checked is stone
-        //OR its already seen this cell before
-        if (field[y][x] < stoneThreshold || caveMap[y][x] != 0) {
-            return;
-        }
-
-        caveMap[y][x] = caveID;
-        addToGroup(y + 1, x, caveID);
-        addToGroup(y - 1, x, caveID);
-        addToGroup(y, x + 1, caveID);
-        addToGroup(y, x - 1, caveID);
-    }
-
     /**
      * Places items of various types in the field based on specified counts.
      *
@@ -483,12 +465,12 @@ public class CaveItemPlacer {
                         && field[w][z] < floorThreshold
                         && caveMap[w][z] >= 0
                         && canPlaceItem(w, z)) {
-                    field[y][x] = keyIDGenerator; //key
+                    final int keyID = KEY_ID_GENERATOR.getAndIncrement();
+                    field[y][x] = keyID; //key
                     System.out.println("key " + field[y][x]);
-                    field[w][z] = keyIDGenerator + DOOR_CALC_VAL; //door
+                    field[w][z] = keyID + DOOR_CALC_VAL; //door
                     System.out.println("door " + field[w][z]);
 
-                    keyIDGenerator++;
                     keepTrying = false;
 
                 }
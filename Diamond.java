@@ -1,6 +1,3 @@
-import javafx.scene.image.Image;
-import javafx.util.Pair;
-
 import java.util.Random;
 
 /**
@@ -12,7 +9,6 @@ import java.util.Random;
 public class Diamond extends Actor {
 
 
-    private static final Image IMAGE = new Image("diamond.png");
     private boolean hasFallen = false;
 
     /**
@@ -62,10 +58,12 @@ public class Diamond extends Actor {
     public void update(Grid grid) {
         if (getY() + 1 < grid.getHeight()){
             Tile mWall = grid.getTile(getX(), getY() + 1);
-            if (grid.getTile(getX(), getY() + 1).getType() == TileType.MAGIC_WALL) {
+            if (grid.getTileType(getX(), getY() + 1) == TileType.MAGIC_WALL) {
                 mWall.interactWith(this, grid);
             }
         }
+        final int startX = getX();
+        final int startY = getY();
         Random random = new Random();
         if (canFall(grid)) {
             fall(grid);
@@ -82,6 +80,11 @@ public class Diamond extends Actor {
                 rollRight(grid);
             }
         }
+
+        //A diamond that didn't move can't move until one of the cells around it changes, so stop updating it.
+        if (getX() == startX && getY() == startY && grid.getOccupier(startX, startY) == this) {
+            grid.sleep(this);
+        }
     }
 
     /**
@@ -92,8 +95,8 @@ public class Diamond extends Actor {
      */
     private boolean canFall(Grid grid) {
         if (getY() + 1 < grid.getHeight()
-                && grid.getTile(getX(), getY() + 1).getType() == TileType.PATH
-                && grid.getTile(getX(), getY() + 1).getOccupier() == null) {
+                && grid.getTileType(getX(), getY() + 1) == TileType.PATH
+                && grid.getOccupier(getX(), getY() + 1) == null) {
             return true;
         } else {
             hasFallen = false;
@@ -108,7 +111,7 @@ public class Diamond extends Actor {
      */
     private void fall(Grid grid) {
         if (getY() + 1 < grid.getHeight()) {
-            Actor occupier = grid.getTile(getX(), getY() + 1).getOccupier();
+            Actor occupier = grid.getOccupier(getX(), getY() + 1);
             if (occupier == null) {
                 grid.tryMove(this, getX(), getY() + 1);
                 hasFallen = true;
@@ -118,7 +121,7 @@ public class Diamond extends Actor {
             } else {
                 hasFallen = false;
             }
-            Actor newOccupier = grid.getTile(getX(), getY() + 1).getOccupier();
+            Actor newOccupier = grid.getOccupier(getX(), getY() + 1);
             if (newOccupier != null) {
                 if (hasFallen && (newOccupier.getType() != ActorType.BOULDER && newOccupier.getType() != ActorType.AMOEBA && newOccupier.getType() != ActorType.DIAMOND)) { //Only explode if it hits an enemy.
                     grid.placeExplosion(new Pair<>(getX(), getY()));
@@ -138,11 +141,11 @@ public class Diamond extends Actor {
      */
     private boolean canRollLeft(Grid grid) {
         return getX() - 1 >= 0 && getY() + 1 < grid.getHeight()
-                && grid.getTile(getX() - 1, getY()).getType() == TileType.PATH
-                && grid.getTile(getX() - 1, getY()).getOccupier() == null
-                && grid.getTile(getX() - 1, getY() + 1).getType() == TileType.PATH
-                && grid.getTile(getX() - 1, getY() + 1).getOccupier() == null &&
-                grid.getTile(getX(), getY() + 1).getType() != TileType.MAGIC_WALL;
+                && grid.getTileType(getX() - 1, getY()) == TileType.PATH
+                && grid.getOccupier(getX() - 1, getY()) == null
+                && grid.getTileType(getX() - 1, getY() + 1) == TileType.PATH
+                && grid.getOccupier(getX() - 1, getY() + 1) == null &&
+                grid.getTileType(getX(), getY() + 1) != TileType.MAGIC_WALL;
     }
 
     /**
@@ -164,11 +167,11 @@ public class Diamond extends Actor {
      */
     private boolean canRollRight(Grid grid) {
         return getX() + 1 < grid.getWidth() && getY() + 1 < grid.getHeight()
-                && grid.getTile(getX() + 1, getY()).getType() == TileType.PATH
-                && grid.getTile(getX() + 1, getY()).getOccupier() == null
-                && grid.getTile(getX() + 1, getY() + 1).getType() == TileType.PATH
-                && grid.getTile(getX() + 1, getY() + 1).getOccupier() == null
-                && grid.getTile(getX(), getY() + 1).getType() != TileType.MAGIC_WALL;
+                && grid.getTileType(getX() + 1, getY()) == TileType.PATH
+                && grid.getOccupier(getX() + 1, getY()) == null
+                && grid.getTileType(getX() + 1, getY() + 1) == TileType.PATH
+                && grid.getOccupier(getX() + 1, getY() + 1) == null
+                && grid.getTileType(getX(), getY() + 1) != TileType.MAGIC_WALL;
     }
 
     /**
@@ -182,16 +185,6 @@ public class Diamond extends Actor {
         }
     }
 
-    /**
-     * Returns the image associated with the diamond.
-     *
-     * @return the diamond's image.
-     */
-    @Override
-    public Image getImage() {
-        return IMAGE;
-    }
-
     /**
      * Determines if a player can walk on this diamond.
      *
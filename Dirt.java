@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a Dirt tile in the game.
  *
@@ -8,7 +6,6 @@ import javafx.scene.image.Image;
  */
 public class Dirt extends Tile {
     private boolean isPickedUp;
-    private static final Image IMAGE = new Image("crateHL.jpg");
 
     /**
      * Constructs a new Dirt tile at the specified coordinates.
@@ -44,16 +41,6 @@ public class Dirt extends Tile {
     }
 
 
-    /**
-     * Returns the image representing this Dirt tile.
-     *
-     * @return The image of the Dirt tile.
-     */
-    @Override
-    public Image getImage() {
-        return IMAGE;
-    }
-
     /**
      * Determines whether the specified actor can walk on this Dirt tile.
      * Players and Amoebas are allowed to walk on it.
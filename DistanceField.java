@@ -0,0 +1,363 @@
+import java.util.Arrays;
+
+/**
+ * A map of how many steps it takes to reach a target (the player) from every cell of a grid, shared by every actor of
+ * one type that is chasing it. It is built with a single breadth-first search outwards from the target, after which
+ * any chaser can find its next step by looking at the distances of its neighbours, so the cost of chasing no longer
+ * grows with the number of chasers.
+ *
+ * When the target moves the field is rebuilt, the next time it is read. When cells change while the target stays put
+ * (a boulder falls into a corridor, dirt is dug away) only the part of the field that depended on those cells is
+ * repaired, in the spirit of D* Lite: cells whose distance relied on a newly blocked cell are cleared and then
+ * recomputed from their neighbours, and shorter distances through a newly opened cell are spread outwards from it.
+ * Either way the work is proportional to the number of cells whose distance changes, not the size of the map.
+ * Chasers do not block each other's view of the target, so chasers moving around do not change the field at all.
+ *
+ * @author Sam
+ * @see Grid#getDistanceTo(Actor, Actor, int, int)
+ */
+public class DistanceField {
+    /**
+     * The distance of a cell that the target cannot be reached from.
+     */
+    public static final int UNREACHABLE = -1;
+    private static final int NOT_QUEUED = 0;
+    private static final int QUEUED = 1;
+
+    private int[] distance;
+    private int[] queue;
+    private int queueHead;
+    private int queueSize;
+    private byte[] queued;
+    private int[] changed;
+    private boolean[] isChanged;
+    private int changedCount;
+    private int[] cleared;
+    private int clearedCount;
+
+    private Actor target;
+    private int targetCell;
+    private Actor walker;
+    private boolean stale;
+
+    /**
+     * Constructs an empty distance field. It is built on first use.
+     */
+    public DistanceField() {
+        distance = new int[0];
+        queue = new int[0];
+        queued = new byte[0];
+        changed = new int[0];
+        isChanged = new boolean[0];
+        cleared = new int[0];
+        stale = true;
+    }
+
+    /**
+     * Gets the number of steps it takes an actor like the walker to reach the target from a cell, bringing the
+     * field up to date first if anything has changed.
+     *
+     * @param grid   The grid the walker and target are in.
+     * @param walker The actor doing the chasing; actors of the same type do not block each other.
+     * @param target The actor being chased.
+     * @param x      The x-coordinate of the cell.
+     * @param y      The y-coordinate of the cell.
+     * @return The number of steps from the cell to the target, or {@link #UNREACHABLE}.
+     */
+    public int getDistance(final Grid grid, final Actor walker, final Actor target, final int x, final int y) {
+        final int targetNow = target.getY() * grid.getWidth() + target.getX();
+        if (stale || target != this.target || targetNow != targetCell || walker.getType() != this.walker.getType()) {
+            rebuild(grid, walker, target);
+        } else if (changedCount > 0) {
+            repair(grid);
+        }
+        return distance[y * grid.getWidth() + x];
+    }
+
+    /**
+     * Tells the field that the occupier of a cell has changed. Only Grid should call this, after it records the new
+     * occupier.
+     *
+     * @param cell   The index of the cell.
+     * @param before The actor that was in the cell, or null.
+     * @param after  The actor that is now in the cell, or null.
+     */
+    void occupierChanged(final int cell, final Actor before, final Actor after) {
+        if (!isWalker(before) || !isWalker(after)) {
+            markChanged(cell);
+        }
+    }
+
+    /**
+     * Tells the field that the type of a tile has changed. Only Grid should call this.
+     *
+     * @param cell The index of the cell.
+     */
+    void tileChanged(final int cell) {
+        markChanged(cell);
+    }
+
+    /**
+     * Records that a cell needs to be looked at by the next repair.
+     *
+     * @param cell The index of the cell.
+     */
+    private void markChanged(final int cell) {
+        if (stale) {
+            return; //It's all getting rebuilt anyway.
+        }
+        if (!isChanged[cell]) {
+            isChanged[cell] = true;
+            changed[changedCount++] = cell;
+        }
+    }
+
+    /**
+     * Checks if a cell's occupier is a chaser, and so can be ignored.
+     *
+     * @param occupier The occupier of a cell, or null.
+     * @return Whether the occupier is null or of the walker's type.
+     */
+    private boolean isWalker(final Actor occupier) {
+        return occupier == null || (walker != null && occupier.getType() == walker.getType());
+    }
+
+    /**
+     * Checks if a walker could pass through a cell: it must be able to walk on the tile, and the cell must not be
+     * occupied by anything but another walker.
+     *
+     * @param grid The grid.
+     * @param cell The index of the cell.
+     * @return Whether the cell can be part of a path to the target.
+     */
+    private boolean isPassable(final Grid grid, final int cell) {
+        final int x = cell % grid.getWidth();
+        final int y = cell / grid.getWidth();
+        return cell == targetCell
+                || (grid.actorCanWalkOn(x, y, walker) && isWalker(grid.getOccupier(x, y)));
+    }
+
+    /**
+     * Rebuilds the whole field with a breadth-first search from the target's cell.
+     *
+     * @param grid   The grid the walker and target are in.
+     * @param walker The actor doing the chasing.
+     * @param target The actor being chased.
+     */
+    private void rebuild(final Grid grid, final Actor walker, final Actor target) {
+        final int cells = grid.getWidth() * grid.getHeight();
+        if (distance.length != cells) {
+            distance = new int[cells];
+            queue = new int[cells];
+            queued = new byte[cells];
+            changed = new int[cells];
+            isChanged = new boolean[cells];
+            cleared = new int[cells];
+        }
+        Arrays.fill(distance, UNREACHABLE);
+        clearChanges();
+        queueHead = 0;
+        queueSize = 0;
+
+        this.target = target;
+        this.walker = walker;
+        this.targetCell = target.getY() * grid.getWidth() + target.getX();
+        this.stale = false;
+
+        distance[targetCell] = 0;
+        enqueue(targetCell);
+        spread(grid);
+    }
+
+    /**
+     * Repairs the field after some cells have changed while the target stayed put.
+     *
+     * @param grid The grid the walker and target are in.
+     */
+    private void repair(final Grid grid) {
+        //First clear every distance that can no longer be trusted: those of newly blocked cells, and of any cell
+        //whose only way to the target was through a cleared cell.
+        clearedCount = 0;
+        for (int i = 0; i < changedCount; i++) {
+            final int cell = changed[i];
+            if (distance[cell] != UNREACHABLE && !isPassable(grid, cell)) {
+                clear(grid, cell);
+            }
+        }
+        while (queueSize > 0) {
+            final int cell = dequeue();
+            if (distance[cell] != UNREACHABLE && !hasSupport(grid, cell)) {
+                clear(grid, cell);
+            }
+        }
+
+        //Then give cleared and newly opened cells the best distance their neighbours can offer, and spread any
+        //improvement outwards.
+        for (int i = 0; i < clearedCount; i++) {
+            reseed(grid, cleared[i]);
+        }
+        for (int i = 0; i < changedCount; i++) {
+            reseed(grid, changed[i]);
+        }
+        spread(grid);
+
+        clearChanges();
+    }
+
+    /**
+     * Clears a cell's distance and queues up the neighbours that may have been relying on it.
+     *
+     * @param grid The grid.
+     * @param cell The index of the cell to clear.
+     */
+    private void clear(final Grid grid, final int cell) {
+        final int old = distance[cell];
+        distance[cell] = UNREACHABLE;
+        cleared[clearedCount++] = cell;
+
+        final int width = grid.getWidth();
+        final int x = cell % width;
+        final int y = cell / width;
+        for (int i = 0; i < 4; i++) {
+            final int neighbour = neighbour(grid, x, y, i);
+            if (neighbour != UNREACHABLE && distance[neighbour] == old + 1) {
+                enqueue(neighbour);
+            }
+        }
+    }
+
+    /**
+     * Checks if a cell still has a neighbour one step closer to the target.
+     *
+     * @param grid The grid.
+     * @param cell The index of the cell.
+     * @return Whether the cell's distance is still backed up by a neighbour.
+     */
+    private boolean hasSupport(final Grid grid, final int cell) {
+        if (cell == targetCell) {
+            return true;
+        }
+        final int width = grid.getWidth();
+        for (int i = 0; i < 4; i++) {
+            final int neighbour = neighbour(grid, cell % width, cell / width, i);
+            if (neighbour != UNREACHABLE && distance[neighbour] != UNREACHABLE
+                    && distance[neighbour] == distance[cell] - 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives a passable cell the distance of its closest neighbour plus one, if that is an improvement, and queues it
+     * so that the improvement is spread.
+     *
+     * @param grid The grid.
+     * @param cell The index of the cell.
+     */
+    private void reseed(final Grid grid, final int cell) {
+        if (queued[cell] == QUEUED || !isPassable(grid, cell)) {
+            return;
+        }
+
+        final int width = grid.getWidth();
+        int best = distance[cell];
+        for (int i = 0; i < 4; i++) {
+            final int neighbour = neighbour(grid, cell % width, cell / width, i);
+            if (neighbour != UNREACHABLE && distance[neighbour] != UNREACHABLE
+                    && (best == UNREACHABLE || distance[neighbour] + 1 < best)) {
+                best = distance[neighbour] + 1;
+            }
+        }
+
+        if (best != UNREACHABLE && best != distance[cell]) {
+            distance[cell] = best;
+            enqueue(cell);
+        }
+    }
+
+    /**
+     * Spreads the distances of the queued cells to their passable neighbours until nothing improves.
+     *
+     * @param grid The grid.
+     */
+    private void spread(final Grid grid) {
+        final int width = grid.getWidth();
+        while (queueSize > 0) {
+            final int cell = dequeue();
+
+            for (int i = 0; i < 4; i++) {
+                final int neighbour = neighbour(grid, cell % width, cell / width, i);
+                if (neighbour == UNREACHABLE || neighbour == targetCell) {
+                    continue;
+                }
+                final int newDistance = distance[cell] + 1;
+                if (distance[neighbour] != UNREACHABLE && distance[neighbour] <= newDistance) {
+                    continue;
+                }
+                if (!isPassable(grid, neighbour)) {
+                    continue;
+                }
+
+                distance[neighbour] = newDistance;
+                enqueue(neighbour);
+            }
+        }
+    }
+
+    /**
+     * Adds a cell to the back of the queue, unless it is already queued. The queue is a ring as long as the number
+     * of cells, so it can never overflow.
+     *
+     * @param cell The index of the cell.
+     */
+    private void enqueue(final int cell) {
+        if (queued[cell] == QUEUED) {
+            return;
+        }
+        queued[cell] = QUEUED;
+        queue[(queueHead + queueSize) % queue.length] = cell;
+        queueSize++;
+    }
+
+    /**
+     * Takes the cell at the front of the queue.
+     *
+     * @return The index of the cell.
+     */
+    private int dequeue() {
+        final int cell = queue[queueHead];
+        queueHead = (queueHead + 1) % queue.length;
+        queueSize--;
+        queued[cell] = NOT_QUEUED;
+        return cell;
+    }
+
+    /**
+     * Finds one of the four neighbours of a cell.
+     *
+     * @param grid  The grid.
+     * @param x     The x-coordinate of the cell.
+     * @param y     The y-coordinate of the cell.
+     * @param which Which neighbour: 0 right, 1 left, 2 below or 3 above.
+     * @return The index of the neighbour, or {@link #UNREACHABLE} if it is off the grid.
+     */
+    private int neighbour(final Grid grid, final int x, final int y, final int which) {
+        final int nx = x + ((which == 0) ? 1 : (which == 1) ? -1 : 0);
+        final int ny = y + ((which == 2) ? 1 : (which == 3) ? -1 : 0);
+        if (nx < 0 || ny < 0 || nx >= grid.getWidth() || ny >= grid.getHeight()) {
+            return UNREACHABLE;
+        }
+        return ny * grid.getWidth() + nx;
+    }
+
+    /**
+     * Forgets the cells waiting to be repaired.
+     */
+    private void clearChanges() {
+        for (int i = 0; i < changedCount; i++) {
+            isChanged[changed[i]] = false;
+        }
+        changedCount = 0;
+    }
+}
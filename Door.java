@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a Door tile in the game.
  *
@@ -7,10 +5,6 @@ import javafx.scene.image.Image;
  */
 public class Door extends Tile {
 
-    private static final Image RED_DOOR = new Image("DoorIsRed.png");
-    private static final Image GREEN_DOOR = new Image("DoorIsGreen.png");
-    private static final Image BLUE_DOOR = new Image("DoorIsBlue.png");
-    private static final Image YELLOW_DOOR = new Image("DoorIsYellow.png");
     private final int doorID;
     private final KeyDoorColour colour;
 
@@ -38,18 +32,12 @@ public class Door extends Tile {
     }
 
     /**
-     * Returns the image representation of this Door based on its color.
+     * Gets the colour of this Door, used by the renderer to pick its image.
      *
-     * @return The image of the Door tile, based on its color (Green, Red, Blue, Yellow).
+     * @return The door's colour.
      */
-    @Override
-    public Image getImage() {
-        return switch (colour) {
-            case GREEN -> GREEN_DOOR;
-            case RED -> RED_DOOR;
-            case YELLOW -> YELLOW_DOOR;
-            case BLUE -> BLUE_DOOR;
-        };
+    public KeyDoorColour getColour() {
+        return colour;
     }
 
     /**
@@ -0,0 +1,125 @@
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Generates endless mode levels ahead of time on a thread of its own, keeping a bounded queue of them ready to play.
+ * Generating a map takes far longer than a frame, so the game takes a ready level from the queue instead, and the
+ * generator tops the queue back up in the background.
+ *
+ * Levels are queued as {@link LevelTemplate}s, so nothing global is touched until a level is taken and instantiated
+ * on the thread that is about to run it. If the queue has run dry (e.g. levels are being skipped through faster than
+ * they can be generated) the caller generates one itself rather than waiting for the generator.
+ *
+ * @author Sam
+ * @see MapGenerator
+ */
+public class EndlessLevelQueue implements Runnable {
+    /**
+     * The number of levels kept ready if no other depth is given.
+     */
+    public static final int DEFAULT_DEPTH = 2;
+
+    private final int canvasWidth;
+    private final int canvasHeight;
+    private final ArrayBlockingQueue<LevelTemplate> ready;
+    private Thread thread;
+    private volatile RuntimeException failure;
+
+    /**
+     * Constructs a queue of endless levels. Nothing is generated until {@link #start()} is called.
+     *
+     * @param canvasWidth  The width of the canvas the levels are generated for, as given to {@link MapGenerator}.
+     * @param canvasHeight The height of the canvas the levels are generated for.
+     * @param depth        The number of levels to keep ready.
+     */
+    public EndlessLevelQueue(final int canvasWidth, final int canvasHeight, final int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException(String.format("Expected at least one level to keep ready, was given %d.",
+                    depth));
+        }
+        this.canvasWidth = canvasWidth;
+        this.canvasHeight = canvasHeight;
+        this.ready = new ArrayBlockingQueue<>(depth);
+    }
+
+    /**
+     * Starts generating levels in the background.
+     */
+    public void start() {
+        if (thread != null) {
+            throw new IllegalStateException("The endless generator has already been started.");
+        }
+        thread = new Thread(this, "Endless generator");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY); //Never compete with the game for a core.
+        thread.start();
+    }
+
+    /**
+     * Stops generating levels. Levels already in the queue can still be taken.
+     */
+    public void stop() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Gets the number of levels ready to play.
+     *
+     * @return The number of levels in the queue.
+     */
+    public int getReadyCount() {
+        return ready.size();
+    }
+
+    /**
+     * Gets the exception that stopped the generator, if it failed.
+     *
+     * @return The exception, or null if the generator has not failed.
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Takes the next endless level, ready to play. This never waits on the generator; if no level is ready, one is
+     * generated on the calling thread.
+     *
+     * @return A fresh level.
+     * @throws RuntimeException The exception that stopped the generator, if it has failed, rather than quietly
+     *                          generating every level from now on on the calling thread.
+     */
+    public Level next() {
+        if (failure != null) {
+            throw failure;
+        }
+        final LevelTemplate template = ready.poll();
+        return ((template != null) ? template : generate()).instantiate();
+    }
+
+    /**
+     * The generator loop. Levels are generated one after another for as long as there is room in the queue, until
+     * the queue is stopped.
+     */
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                ready.put(generate());
+            }
+        } catch (InterruptedException e) {
+            //Stopped.
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Generates one level.
+     *
+     * @return The level's template.
+     */
+    private LevelTemplate generate() {
+        return new MapGenerator(canvasWidth, canvasHeight).createTemplate();
+    }
+}
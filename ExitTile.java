@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents an exit tile in the game.
  *
@@ -7,7 +5,6 @@ import javafx.scene.image.Image;
  */
 public class ExitTile extends Tile {
 
-    private static Image image = new Image("ExitNether.jpg");
     private int diamondThreshold;
 
     /**
@@ -23,13 +20,12 @@ public class ExitTile extends Tile {
     }
 
     /**
-     * Returns the image associated with this ExitTile.
+     * Returns the number of diamonds needed to exit the level.
      *
-     * @return the Image representing the exit tile
+     * @return the diamond threshold
      */
-    @Override
-    public Image getImage() {
-        return image;
+    public int getDiamondThreshold() {
+        return diamondThreshold;
     }
 
     /**
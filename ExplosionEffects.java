@@ -0,0 +1,142 @@
+import java.util.Arrays;
+
+/**
+ * The explosion animations playing on screen. Each cell caught in an explosion gets an effect that steps through the
+ * frames of the explosion animation (small, medium, then big, as in {@link SpriteAtlas#getExplosionSprite(int)}) as
+ * time passes, and then ends. The game loop advances every effect once per frame.
+ *
+ * Effects are kept in flat arrays that are reused as effects start and end, and only grow when more effects are
+ * playing at once than ever before, so any number of overlapping explosions can play without allocating anything per
+ * frame.
+ *
+ * @author Sam
+ * @see LevelRenderer
+ */
+public class ExplosionEffects {
+    /**
+     * The number of frames in the explosion animation.
+     */
+    public static final int FRAMES = 3;
+
+    private final long frameNanos;
+    private int[] cells;
+    private long[] startTimes;
+    private int[] frames;
+    private int count;
+    private int[] finishedCells;
+    private int finishedCount;
+
+    /**
+     * Constructs an empty set of effects.
+     *
+     * @param frameNanos How long each frame of the animation is shown for, in nanoseconds.
+     */
+    public ExplosionEffects(final long frameNanos) {
+        this.frameNanos = frameNanos;
+        cells = new int[16];
+        startTimes = new long[16];
+        frames = new int[16];
+        finishedCells = new int[16];
+        count = 0;
+        finishedCount = 0;
+    }
+
+    /**
+     * Starts an explosion animation in a cell.
+     *
+     * @param cell The index of the cell.
+     * @param now  The time the animation starts, in nanoseconds.
+     */
+    public void start(final int cell, final long now) {
+        if (count == cells.length) {
+            cells = Arrays.copyOf(cells, count * 2);
+            startTimes = Arrays.copyOf(startTimes, count * 2);
+            frames = Arrays.copyOf(frames, count * 2);
+            finishedCells = Arrays.copyOf(finishedCells, count * 2);
+        }
+        cells[count] = cell;
+        startTimes[count] = now;
+        frames[count] = 0;
+        count++;
+    }
+
+    /**
+     * Moves every effect on to the frame it should be showing now. Effects that have shown their last frame end, and
+     * their cells can be read with {@link #getFinishedCell(int)} until the next advance.
+     *
+     * @param now The current time, in nanoseconds.
+     */
+    public void advance(final long now) {
+        finishedCount = 0;
+        int i = 0;
+        while (i < count) {
+            final long frame = (now - startTimes[i]) / frameNanos;
+            if (frame >= FRAMES) {
+                finishedCells[finishedCount++] = cells[i];
+                count--;
+                cells[i] = cells[count];
+                startTimes[i] = startTimes[count];
+                frames[i] = frames[count];
+            } else {
+                frames[i] = (int) Math.max(frame, 0);
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Ends every effect at once, e.g. because a new level has started.
+     */
+    public void clear() {
+        count = 0;
+        finishedCount = 0;
+    }
+
+    /**
+     * Gets the number of effects playing.
+     *
+     * @return The number of effects.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the cell an effect is playing in.
+     *
+     * @param effect The index of the effect, from 0 to {@link #getCount()} - 1.
+     * @return The index of the cell.
+     */
+    public int getCell(final int effect) {
+        return cells[effect];
+    }
+
+    /**
+     * Gets the frame of the animation an effect is showing, as of the last advance.
+     *
+     * @param effect The index of the effect, from 0 to {@link #getCount()} - 1.
+     * @return The frame, from 0 to {@link #FRAMES} - 1.
+     */
+    public int getFrame(final int effect) {
+        return frames[effect];
+    }
+
+    /**
+     * Gets the number of effects that ended in the last advance.
+     *
+     * @return The number of finished effects.
+     */
+    public int getFinishedCount() {
+        return finishedCount;
+    }
+
+    /**
+     * Gets the cell of an effect that ended in the last advance.
+     *
+     * @param effect The index of the finished effect, from 0 to {@link #getFinishedCount()} - 1.
+     * @return The index of the cell.
+     */
+    public int getFinishedCell(final int effect) {
+        return finishedCells[effect];
+    }
+}
@@ -0,0 +1,20 @@
+/**
+ * Enum representing what an explosion leaves behind in the cells it clears.
+ *
+ * @author Sam
+ * @see Grid#placeExplosion(Pair, ExplosionType)
+ */
+public enum ExplosionType {
+    /**
+     * Leaves the cells as empty path, e.g. when a boulder lands on the player.
+     */
+    PLAIN,
+    /**
+     * Leaves a diamond in each cell, as a butterfly does when it dies.
+     */
+    DIAMONDS,
+    /**
+     * Leaves a boulder in each cell, as a firefly does when it dies.
+     */
+    BOULDERS
+}
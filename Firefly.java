@@ -1,6 +1,3 @@
-import javafx.scene.image.Image;
-import javafx.util.Pair;
-
 /**
  * Represents a Butterfly actor in the game that moves in a predefined pattern,
  * interacts with the player, and explodes upon death.
@@ -9,7 +6,6 @@ import javafx.util.Pair;
  */
 public class Firefly extends Actor {
     private final boolean isLeft;
-    private static final Image IMAGE = new Image("fireflie.png");
     private Direction direction = Direction.SOUTH;
     private boolean begginingDirectionSet = false;
     private final Actor player;
@@ -102,6 +98,15 @@ public class Firefly extends Actor {
         player = target;
     }
 
+    /**
+     * Checks which wall the firefly follows.
+     *
+     * @return Whether the firefly follows the wall on its left.
+     */
+    public boolean isLeft() {
+        return isLeft;
+    }
+
     /**
      * Defines how the butterfly interacts with another actor.
      *
@@ -129,7 +134,7 @@ public class Firefly extends Actor {
      */
     @Override
     public String toText() {
-        return String.format("Bu %d %d %s",
+        return String.format("Fi %d %d %s",
                 getX(), getY(), (isLeft) ? "L" : "R");
     }
 
@@ -166,8 +171,7 @@ public class Firefly extends Actor {
 
 
         if (detectBoulderDiamond(grid)) {
-            grid.placeExplosion(new Pair<>(this.getX(), this.getY()));
-            grid.getTile(getX(), getY() - 1).getOccupier().kill();
+            grid.getOccupier(getX(), getY() - 1).kill();
             grid.removeActor(getX(), getY() - 1);
             this.kill();
             grid.removeActor(this.getX(), this.getY());
@@ -182,7 +186,7 @@ public class Firefly extends Actor {
     }
 
     private boolean detectBoulderDiamond(final Grid aGrid) {
-        Actor occupier = aGrid.getTile(getX(), getY() - 1).getOccupier();
+        Actor occupier = aGrid.getOccupier(getX(), getY() - 1);
         if (occupier == null) {
             return false;
         } else {
@@ -198,15 +202,10 @@ public class Firefly extends Actor {
      * @param aGrid The grid containing all game tiles and actors.
      */
     private void setInitIalDirectionLeft(final Grid aGrid) {
-        Tile leftB = aGrid.getTile(getX() - 1, getY());
-        Tile rightB = aGrid.getTile(getX() + 1, getY());
-        Tile upB = aGrid.getTile(getX(), getY() - 1);
-        Tile downB = aGrid.getTile(getX(), getY() + 1);
-
-        boolean upBl = !allowedTile(upB);
-        boolean downBl = !allowedTile(downB);
-        boolean rightBl = !allowedTile(rightB);
-        boolean leftBl = !allowedTile(leftB);
+        boolean upBl = !allowedTile(aGrid, getX(), getY() - 1);
+        boolean downBl = !allowedTile(aGrid, getX(), getY() + 1);
+        boolean rightBl = !allowedTile(aGrid, getX() + 1, getY());
+        boolean leftBl = !allowedTile(aGrid, getX() - 1, getY());
 
         if (!upBl) {
             direction = Direction.EAST;
@@ -228,20 +227,14 @@ public class Firefly extends Actor {
      * @param aGrid The grid containing all game tiles and actors.
      */
     private void setInitIalDirectionRight(final Grid aGrid) {
-        Tile leftB = aGrid.getTile(getX() - 1, getY());
-        Tile rightB = aGrid.getTile(getX() + 1, getY());
-        Tile upB = aGrid.getTile(getX(), getY() - 1);
-        Tile downB = aGrid.getTile(getX(), getY() + 1);
-
-
         //if the down block is one of the allowed types
-        if (allowedTile(downB)) {
+        if (allowedTile(aGrid, getX(), getY() + 1)) {
             direction = Direction.EAST;
-        } else if (allowedTile(leftB)) {
+        } else if (allowedTile(aGrid, getX() - 1, getY())) {
             direction = Direction.SOUTH;
-        } else if (allowedTile(upB)) {
+        } else if (allowedTile(aGrid, getX(), getY() - 1)) {
             direction = Direction.WEST;
-        } else if (allowedTile(rightB)) {
+        } else if (allowedTile(aGrid, getX() + 1, getY())) {
             direction = Direction.NORTH;
         }
     }
@@ -250,14 +243,20 @@ public class Firefly extends Actor {
      * Checks whether the given tile is an...
      * ...allowed tile for the butterfly to interact with.
      *
-     * @param tile The tile to check.
+     * Reads the grid directly rather than through a tile, as...
+     * ...every fly checks all four neighbours every time it moves.
+     *
+     * @param aGrid The grid containing all game tiles and actors.
+     * @param x The x-coordinate of the tile to check.
+     * @param y The y-coordinate of the tile to check.
      * @return True if the tile is allowed, otherwise false.
      */
-    private boolean allowedTile(final Tile tile) {
+    private boolean allowedTile(final Grid aGrid, final int x, final int y) {
 
         boolean allowed;
-        if (tile.getOccupier() != null) {
-            switch (tile.getOccupier().getType()) {
+        final Actor occupier = aGrid.getOccupier(x, y);
+        if (occupier != null) {
+            switch (occupier.getType()) {
                 case BUTTERFLY, FIREFLY, FROG -> {
                     movingObjectPresent = true;
                     System.out.println("Moving object detected");
@@ -267,7 +266,7 @@ public class Firefly extends Actor {
                 default -> allowed = false;
             }
         } else {
-            switch (tile.getType()) {
+            switch (aGrid.getTileType(x, y)) {
                 case WALL, DIRT, MAGIC_WALL, EXIT,
                      TITANIUM_WALL, DOOR, KEY -> allowed = true;
                 default -> allowed = false;
@@ -276,31 +275,6 @@ public class Firefly extends Actor {
         return allowed;
     }
 
-    /**
-     * Checks whether the given tile can explode.
-     *
-     * @param tile The tile to check.
-     * @return True if the tile is explodable, otherwise false.
-     */
-    private boolean allowedTileExplode(final Tile tile) {
-        boolean allowed;
-        if (tile.getOccupier() != null) {
-            switch (tile.getOccupier().getType()) {
-                case BOULDER, BUTTERFLY, FIREFLY,
-                     AMOEBA, DIAMOND, FROG -> allowed = true;
-                default -> allowed = false;
-            }
-        } else {
-            switch (tile.getType()) {
-                case WALL, DIRT, MAGIC_WALL, DOOR, KEY, PATH -> {
-                    allowed = true;
-                }
-                default -> allowed = false;
-            }
-        }
-        return allowed;
-    }
-
     /**
      * Determines if the butterfly's movement...
      * ...pattern matches a right-handed cycle.
@@ -442,16 +416,10 @@ public class Firefly extends Actor {
         previousPos[posPointer][1] = getY();
 
 
-        Tile upB = aGrid.getTile(getX(), getY() - 1);
-        Tile downB = aGrid.getTile(getX(), getY() + 1);
-        Tile rightB = aGrid.getTile(getX() + 1, getY());
-        Tile leftB = aGrid.getTile(getX() - 1, getY());
-
-
-        boolean northBl = !allowedTile(upB);
-        boolean southBl = !allowedTile(downB);
-        boolean eastBl = !allowedTile(rightB);
-        boolean westBl = !allowedTile(leftB);
+        boolean northBl = !allowedTile(aGrid, getX(), getY() - 1);
+        boolean southBl = !allowedTile(aGrid, getX(), getY() + 1);
+        boolean eastBl = !allowedTile(aGrid, getX() + 1, getY());
+        boolean westBl = !allowedTile(aGrid, getX() - 1, getY());
 
 
         boolean[][] truthDirLeft = {
@@ -503,16 +471,10 @@ public class Firefly extends Actor {
         previousPos[posPointer][0] = getX();
         previousPos[posPointer][1] = getY();
 
-        Tile leftB = aGrid.getTile(getX() - 1, getY());
-        Tile rightB = aGrid.getTile(getX() + 1, getY());
-        Tile upB = aGrid.getTile(getX(), getY() - 1);
-        Tile downB = aGrid.getTile(getX(), getY() + 1);
-
-
-        boolean leftBl = !allowedTile(leftB);
-        boolean rightBl = !allowedTile(rightB);
-        boolean upBl = !allowedTile(upB);
-        boolean downBl = !allowedTile(downB);
+        boolean leftBl = !allowedTile(aGrid, getX() - 1, getY());
+        boolean rightBl = !allowedTile(aGrid, getX() + 1, getY());
+        boolean upBl = !allowedTile(aGrid, getX(), getY() - 1);
+        boolean downBl = !allowedTile(aGrid, getX(), getY() + 1);
 
         boolean[][] truthDirRight = {
                 {upBl, rightBl, upBl, leftBl, downBl},
@@ -553,34 +515,16 @@ public class Firefly extends Actor {
         posPointer %= previousPos.length;
     }
     /**
-     * Triggers the butterfly's explosion,...
-     * ...converting nearby tiles and spawning diamonds.
+     * Triggers the firefly's explosion,...
+     * ...converting nearby tiles and spawning boulders. The explosion goes off at the end of the tick.
      *
      * @param aGrid The grid containing all game tiles and actors.
+     * @see Grid#resolveExplosions()
      */
     public void explode(final Grid aGrid) {
-        for (int aX = getX() - 1; aX <= getX() + 1; aX++) {
-            for (int aY = getY() - 1; aY <= getY() + 1; aY++) {
-                if (aGrid.getTile(aX, aY).getOccupier() == null
-                        && allowedTileExplode(aGrid.getTile(aX, aY))) {
-                    aGrid.changeTile(aX, aY, TileType.PATH);
-                    Boulder newBoulder = new Boulder(aX, aY);
-                    aGrid.addActor(aX, aY, newBoulder);
-                }
-            }
-        }
+        aGrid.placeExplosion(new Pair<>(getX(), getY()), ExplosionType.BOULDERS);
     }
 
-
-    /**
-     * Retrieves the image representation of the butterfly.
-     *
-     * @return The butterfly's image.
-     */
-    @Override
-    protected Image getImage() {
-        return IMAGE;
-    }
     /**
      * Determines if the player can walk on the butterfly.
      *
@@ -1,22 +1,16 @@
-import javafx.scene.image.Image;
-import javafx.util.Pair;
-
 import java.util.ArrayList;
-import java.util.Queue;
 import java.util.Random;
 
 /**
  * Represents a frog actor in the game. The frog moves towards the player and interacts with the player if adjacent.
- * It uses pathfinding to move towards the player, or moves randomly if no path is available.
+ * It follows the grid's shared distance field towards the player, or moves randomly if the player can't be reached.
  *
  * @author Sam
  */
 public class Frog extends Actor {
-    private static final Image IMAGE = new Image("headCrabHL.png");
     private Actor target; //Player
     private static final int FROG_RATE = 4;
-
-    private Queue<Pair<Integer, Integer>> path;
+    private static final int[][] NEIGHBOUR_OFFSETS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
 
     /**
      * Constructs a Frog with the specified target (the player) and initial position (x, y).
@@ -62,8 +56,8 @@ public class Frog extends Actor {
     }
 
     /**
-     * Updates the frog's state each game tick. The frog moves towards the player if a path exists.
-     * If no path is available, the frog moves randomly to an adjacent tile.
+     * Updates the frog's state each game tick. The frog steps to the free neighbouring tile closest to the player,
+     * if the player can be reached. If not, the frog moves randomly to an adjacent tile.
      *
      * @param grid the game grid on which the frog operates
      */
@@ -79,19 +73,12 @@ public class Frog extends Actor {
 
         if (adjacentToPlayer) {
             target.kill();
-            path = null;
             return;
         }
 
+        final int distance = grid.getDistanceTo(this, target, getX(), getY());
 
-        if (path == null || path.isEmpty() || !grid.pathStillValid(path, this, target)) {
-            path = grid.getPath(this, target);
-        }
-
-
-        final boolean noPath = path == null || path.isEmpty();
-
-        if (noPath) {
+        if (distance == DistanceField.UNREACHABLE) {
             ArrayList<Tile> adj = grid.getAdjacentTiles(this); //move randomly, if possible
             if (!adj.isEmpty()) {
                 Random r = new Random();
@@ -99,21 +86,40 @@ public class Frog extends Actor {
                 grid.tryMove(this, adj.get(idx).getX(), adj.get(idx).getY());
             }
         } else {
-            Pair<Integer, Integer> newPos = path.poll();
-            grid.tryMove(this, newPos.getKey(), newPos.getValue());
+            stepTowardsTarget(grid, distance);
         }
-
-
     }
 
     /**
-     * Returns the image representation of the frog.
+     * Moves the frog to the free neighbouring tile that is closest to its target. If every tile closer to the target
+     * is taken (e.g. by another frog), the frog waits.
      *
-     * @return the Image object representing the frog
+     * @param grid     the game grid on which the frog operates
+     * @param distance the frog's current distance from its target
      */
-    @Override
-    protected Image getImage() {
-        return IMAGE;
+    private void stepTowardsTarget(Grid grid, int distance) {
+        int bestX = getX();
+        int bestY = getY();
+        int bestDistance = distance;
+
+        for (int[] offset : NEIGHBOUR_OFFSETS) {
+            final int x = getX() + offset[0];
+            final int y = getY() + offset[1];
+            if (x < 0 || y < 0 || x >= grid.getWidth() || y >= grid.getHeight() || grid.getOccupier(x, y) != null) {
+                continue;
+            }
+
+            final int neighbourDistance = grid.getDistanceTo(this, target, x, y);
+            if (neighbourDistance != DistanceField.UNREACHABLE && neighbourDistance < bestDistance) {
+                bestX = x;
+                bestY = y;
+                bestDistance = neighbourDistance;
+            }
+        }
+
+        if (bestDistance < distance) {
+            grid.tryMove(this, bestX, bestY);
+        }
     }
 
     /**
@@ -16,8 +16,17 @@ import java.text.ParseException;
 public class Game extends Application {
     private static Stage stage;
     private MediaPlayer mediaPlayer;
+    private final LevelRepository levels = new LevelRepository();
+    //How many endless levels to keep ready can be set with -DendlessQueueDepth=N
+    private final EndlessLevelQueue endlessLevels = new EndlessLevelQueue(ENDLESS_WIDTH, ENDLESS_HEIGHT,
+            Integer.getInteger("endlessQueueDepth", EndlessLevelQueue.DEFAULT_DEPTH));
     public static final int WIDTH = 1280;
     public static final int HEIGHT = 720;
+    /**
+     * The size of the canvas endless levels are generated for.
+     */
+    private static final int ENDLESS_WIDTH = 3840;
+    private static final int ENDLESS_HEIGHT = 2160;
 
     /**
      * The entry point to the game.
@@ -41,6 +50,8 @@ public class Game extends Application {
         Game.stage = stage;
         stage.setTitle("Boulder Dash");
         playMusic("ariaMath8Bit.mp3");
+        levels.preloadAll(); //Read in the background while the menus are up.
+        endlessLevels.start();
 
         runMenu();
     }
@@ -65,6 +76,22 @@ public class Game extends Application {
         return stage;
     }
 
+    /**
+     * A method to get the levels of the game.
+     * @return The levels, read once and shared by every game played.
+     */
+    public LevelRepository getLevels() {
+        return levels;
+    }
+
+    /**
+     * A method to get the endless levels of the game.
+     * @return The endless levels, generated ahead of time.
+     */
+    public EndlessLevelQueue getEndlessLevels() {
+        return endlessLevels;
+    }
+
     /**
      * A method to load and show the menu.
      * @throws IOException If loading the menu fails.
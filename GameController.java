@@ -1,7 +1,5 @@
-import javafx.animation.Animation;
+import javafx.animation.AnimationTimer;
 import javafx.animation.FadeTransition;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.fxml.FXML;
 import javafx.scene.Group;
 import javafx.scene.Scene;
@@ -15,8 +13,12 @@ import javafx.util.Duration;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.ParseException;
 import java.util.Optional;
 import java.util.Scanner;
@@ -32,6 +34,7 @@ public class GameController {
     private Level level;
     private Profile profile;
     private static final int TICK_RATE = 100;
+    private static final long TICK_NANOS = TICK_RATE * 1_000_000L;
 
     @FXML
     private Canvas gameLayer;
@@ -45,11 +48,15 @@ public class GameController {
     private GraphicsContext gameGraphicsContext;
 
     private Camera levelCamera;
+    private LevelRenderer renderer;
     @FXML
     private Rectangle fadeRectangle;
     private boolean paused = false;
 
-    private Timeline tick;
+    private SimulationRunner simulation;
+    private AnimationTimer gameLoop;
+    private RenderSnapshot shownSnapshot;
+    private boolean isExiting;
 
     private Group currentGroup;
 
@@ -62,21 +69,23 @@ public class GameController {
     }
 
     public void exit() throws IOException {
+        simulation.stop();
         game.runMenu();
     }
 
+    /**
+     * Saves the game and returns to the menu. The save starts with the level ID on a line of its own, followed by the
+     * level in the binary format.
+     * @throws IOException If the save cannot be written.
+     * @see BinaryLevelFormat
+     */
     public void saveExit() throws IOException {
-        final String text = level.toText();
-
-        File file = new File(profile.getName() + ".txt");
-
-        PrintWriter writer = new PrintWriter(file);
+        final byte[] data = BinaryLevelFormat.write(level);
 
-        writer.write(String.format("%d\n",levelID.get()));
-
-        writer.write(text);
-
-        writer.close();
+        try (FileOutputStream output = new FileOutputStream(profile.getName() + ".txt")) {
+            output.write(String.format("%d\n", levelID.get()).getBytes(StandardCharsets.UTF_8));
+            output.write(data);
+        }
 
         exit();
 
@@ -85,16 +94,18 @@ public class GameController {
     public void continueGame() {
         paused = false;
         currentGroup.setVisible(false);
-        tick.play();
+        simulation.resume();
+        gameLoop.start();
 
     }
 
     public void pause() {
-        if (this.tick == null) { //Fade transition, just wait
+        if (this.gameLoop == null) { //Fade transition, just wait
             return;
         }
         paused = true;
-        tick.pause();
+        simulation.pause(); //The level can't change from here on, so it can be saved.
+        gameLoop.stop();
         currentGroup = (levelID.isEmpty()) ? menuGroupNoSave : menuGroup;
         currentGroup.setVisible(true);
     }
@@ -107,7 +118,7 @@ public class GameController {
      * @see LevelFactory
      */
     public void runEndless(Scene scene) throws ParseException, IOException {
-        level = LevelFactory.createRandomMap(3840, 2160);
+        level = game.getEndlessLevels().next();
 
         levelID = Optional.empty();
 
@@ -126,16 +137,15 @@ public class GameController {
         final String path = String.format("%s.txt", profile.getName());
         this.levelID = Optional.of(levelID);
 
-        Scanner scanner = new Scanner(new File(path));
-        scanner.nextLine();
-        StringBuilder builder = new StringBuilder();
-        while (scanner.hasNextLine()) {
-            builder.append(scanner.nextLine()).append("\n");
+        final byte[] data = Files.readAllBytes(Paths.get(path));
+        int levelStart = 0;
+        while (levelStart < data.length && data[levelStart] != '\n') {
+            levelStart++;
         }
-        scanner.close();
+        levelStart++; //Skip the level ID line. Older saves hold the level as text, which is still read.
 
         try {
-            level = LevelFactory.createFromText(builder.toString());
+            level = LevelFactory.createFromBytes(data, Math.min(levelStart, data.length));
         } catch (ParseException exception) {
             throw new RuntimeException(String.format("Failed to parse savegame with path %s. Error: %s", path, exception));
         }
@@ -151,18 +161,11 @@ public class GameController {
      * @throws FileNotFoundException If the level file expected with the ID does not exist.
      */
     public void run(Profile profile, Scene scene, int levelID) throws IOException, ParseException {
-        final String path = String.format("level%d.txt", levelID);
+        final String path = String.format(LevelRepository.LEVEL_FILE_FORMAT, levelID);
         this.levelID = Optional.of(levelID);
-        File file = new File(path);
-        StringBuilder builder = new StringBuilder();
-        Scanner scanner = new Scanner(file);
-        while (scanner.hasNextLine()) {
-            builder.append(scanner.nextLine()).append("\n");
-        }
-        scanner.close();
 
         try {
-            level = LevelFactory.createFromText(builder.toString());
+            level = game.getLevels().createLevel(levelID);
         } catch (ParseException exception) {
             throw new RuntimeException(String.format("Failed to parse level with path %s. Error: %s", path, exception));
         }
@@ -179,7 +182,10 @@ public class GameController {
         fadeRectangle = (Rectangle) scene.lookup("#fadeRectangle");
         levelCamera = new Camera(gameGraphicsContext);
         levelCamera.setIsBigLevel(isBig);
-        level.bindCamera(levelCamera);
+        levelCamera.setTarget(level.getPlayer().getX(), level.getPlayer().getY());
+        renderer = new LevelRenderer();
+        simulation = new SimulationRunner(level, TICK_NANOS);
+        isExiting = false;
 
         fadeRectangle.setFill(Color.BLACK);
 
@@ -193,66 +199,120 @@ public class GameController {
         ft.setToValue(0.0);
         ft.setCycleCount(0);
         ft.setOnFinished(any -> {
-            scene.addEventFilter(KeyEvent.KEY_PRESSED, event -> level.receiveEvent(event));
+            scene.addEventFilter(KeyEvent.KEY_PRESSED, this::receiveKey);
             scene.lookup("#pauseButton").setVisible(true);
-            tick = new Timeline(new KeyFrame(Duration.millis(TICK_RATE), event -> {
-                try {
-                    update();
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                } catch (ParseException e) {
-                    throw new RuntimeException(e);
+            gameLoop = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    try {
+                        runFrame();
+                    } catch (FileNotFoundException e) {
+                        throw new RuntimeException(e);
+                    }
                 }
-            }));
-            tick.setCycleCount(Animation.INDEFINITE);
-            tick.play();
+            };
+            simulation.start();
+            gameLoop.start();
             paused = false;
 
         });
         ft.play();
-        update();
+        render(simulation.getSnapshot(), 0, System.nanoTime());
+    }
+
+    /**
+     * Runs one frame of the game loop. The level is updated on its own thread, once every {@link #TICK_RATE}
+     * milliseconds; each frame draws the latest snapshot it has published, partway between that tick and the next.
+     *
+     * @throws FileNotFoundException If the level has finished and the profiles can't be saved.
+     */
+    private void runFrame() throws FileNotFoundException {
+        if (simulation.getFailure() != null) {
+            throw simulation.getFailure();
+        }
+
+        final RenderSnapshot snapshot = simulation.getSnapshot();
+        if (snapshot != shownSnapshot) {
+            shownSnapshot = snapshot;
+            if (levelCamera.update(snapshot.getPlayerX(), snapshot.getPlayerY())) {
+                renderer.redrawAll();
+            }
+            UIText.setText(snapshot.getUIText());
+        }
+
+        final long now = System.nanoTime();
+        final double progress = (double) (now - snapshot.getCapturedAt()) / TICK_NANOS;
+        render(snapshot, Math.min(Math.max(progress, 0), 1), now);
+
+        if (snapshot.getExitReason().isPresent() && !isExiting) {
+            isExiting = true;
+            handleLevelExit();
+        }
     }
 
-    private void update() throws IOException, ParseException {
-        level.update();
-        gameGraphicsContext.setFill(Color.BLACK);
-        gameGraphicsContext.clearRect(0, 0, Game.WIDTH, Game.HEIGHT);
-        levelCamera.update();
-        gameGraphicsContext.clearRect(-Game.WIDTH, -Game.HEIGHT, Game.WIDTH, Game.HEIGHT);
-        gameGraphicsContext.clearRect(0, -Game.HEIGHT, Game.WIDTH, Game.HEIGHT);
-        gameGraphicsContext.clearRect(Game.WIDTH, -Game.HEIGHT, Game.WIDTH, Game.HEIGHT);
-        gameGraphicsContext.clearRect(0, 0, Game.WIDTH, Game.HEIGHT);
-        gameGraphicsContext.fillRect(0, 0, Game.WIDTH, Game.HEIGHT);
-        level.draw(gameGraphicsContext);
-        UIText.setText(level.getUIText());
-
-        handleLevelExit();
+    /**
+     * Draws a snapshot of the level.
+     *
+     * @param snapshot The snapshot to draw.
+     * @param progress How far it is from the snapshot's tick to the next one, from 0 to 1.
+     * @param now      The time of the frame, in nanoseconds.
+     */
+    private void render(RenderSnapshot snapshot, double progress, long now) {
+        renderer.draw(snapshot, gameGraphicsContext, levelCamera, progress, now);
+    }
 
+    /**
+     * Translates a key press into a direction and passes it on to the level.
+     *
+     * @param event The key event triggered by the player.
+     */
+    private void receiveKey(KeyEvent event) {
+        final Direction input = switch (event.getCode()) {
+            case UP -> Direction.NORTH;
+            case DOWN -> Direction.SOUTH;
+            case LEFT -> Direction.WEST;
+            case RIGHT -> Direction.EAST;
+            default -> null;
+        };
+
+        if (input != null) {
+            simulation.receiveInput(input);
+        }
+        event.consume();
     }
 
     private void handleLevelExit() throws FileNotFoundException {
+        simulation.stop(); //The level is only read from this thread from now on.
         if (!level.shouldExit().isEmpty()) {
             FadeTransition ft = new FadeTransition(Duration.millis(1000), fadeRectangle);
             ft.setFromValue(0.0);
             ft.setToValue(1.0);
             ft.setCycleCount(0);
             ft.setAutoReverse(true);
-            tick.pause();
+            gameLoop.stop();
+            //Completing an endless level moves straight on to the next one, which is already generated.
+            final boolean isNextEndless = levelID.isEmpty() && level.shouldExit().get() == ExitReason.LEVEL_COMPLETE;
             ft.setOnFinished(any -> {
                 try {
-                    game.runMenu();
-                } catch (IOException e) {
+                    if (isNextEndless) {
+                        game.runEndless();
+                    } else {
+                        game.runMenu();
+                    }
+                } catch (IOException | ParseException e) {
                     throw new RuntimeException(e);
                 }
             });
             ft.play();
             switch (level.shouldExit().get()) {
                 case LEVEL_COMPLETE -> {
-                    if (levelID.isPresent()) { //Playing an actual level that should be saved etc
-                        if (this.profile.getMaxLevel() + 1 == levelID.get()) {
-                            profile.setMaxLevel(profile.getMaxLevel() + 1);
-                            Leaderboard.updateLeaderboard(this.profile, level.getScore(), levelID.get());
-                        }
+                    if (levelID.isEmpty()) { //Endless levels have no profile to update.
+                        break;
+                    }
+                    //Playing an actual level that should be saved etc
+                    if (this.profile.getMaxLevel() + 1 == levelID.get()) {
+                        profile.setMaxLevel(profile.getMaxLevel() + 1);
+                        Leaderboard.updateLeaderboard(this.profile, level.getScore(), levelID.get());
                     }
 
                     File file = new File("profiles.txt");
@@ -289,7 +349,7 @@ public class GameController {
 
                 }
                 case TIME_OUT -> {
-                    tick.stop();
+                    gameLoop.stop();
                     break;
                 }
 
@@ -1,97 +1,169 @@
-import javafx.scene.image.Image;
-import javafx.scene.shape.Rectangle;
-import javafx.util.Pair;
-import javafx.scene.canvas.GraphicsContext;
-
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Queue;
 import java.util.Random;
-
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.util.Duration;
+import java.util.function.IntConsumer;
 
 /**
  * The Grid class represents a 2D grid for managing tiles and actors in a game.
- * It supports actions like placing explosions, moving actors, pathfinding, and rendering the grid.
+ * It supports actions like placing explosions, moving actors and pathfinding. Rendering is done by {@link LevelRenderer}.
+ * <p>
+ * Cells are stored in flat primitive arrays indexed by {@code y * width + x}: the tile type of each cell as a byte,
+ * and the occupier of each cell as an index into a small table of actors. The extra data of keys, doors and exits (an
+ * ID or diamond threshold, and a colour) is kept in two more arrays over the same cells. {@link #getTile(int, int)}
+ * hands out {@link Tile} views over this storage, so callers can keep working with tiles as before.
  *
  * @author Sam
  */
-public class Grid {
+public final class Grid {
     private final static int EXPLOSION_SIZE = 3; //UNIFORM SIZE nXn
-    private final ArrayList<ArrayList<Tile>> tiles;
+    private static final int NO_OCCUPIER = -1;
+    private static final byte NOT_EXPLODING = 0;
+    private static final byte EXPLODING = 1;
+    private static final byte EXPLODING_TO_DIAMONDS = 2;
+    private static final byte EXPLODING_TO_BOULDERS = 3;
+    private static final int[] NO_CELLS = new int[0];
+    private static final TileType[] TILE_TYPES = TileType.values();
+    private static final KeyDoorColour[] COLOURS = KeyDoorColour.values();
+    private static final Tile[] SHARED_TILES = new Tile[TILE_TYPES.length];
+
+    static {
+        SHARED_TILES[TileType.PATH.ordinal()] = new Path(0, 0);
+        SHARED_TILES[TileType.DIRT.ordinal()] = new Dirt(0, 0);
+        SHARED_TILES[TileType.WALL.ordinal()] = new Wall(0, 0);
+        SHARED_TILES[TileType.TITANIUM_WALL.ordinal()] = new TitaniumWall(0, 0);
+        SHARED_TILES[TileType.MAGIC_WALL.ordinal()] = new MagicWall(0, 0);
+        SHARED_TILES[TileType.KEY.ordinal()] = new Key(0, 0, 0, KeyDoorColour.GREEN);
+        SHARED_TILES[TileType.DOOR.ordinal()] = new Door(0, 0, 0, KeyDoorColour.GREEN);
+        SHARED_TILES[TileType.EXIT.ordinal()] = new ExitTile(0, 0, 0);
+    }
+
+    private final byte[] types;
+    private final int[] occupiers;
+    private final int[] tileValues;
+    private final byte[] tileColours;
+    private Actor[] occupants;
+    private int[] occupantCellCount;
+    private int[] freeOccupantSlots;
+    private int freeOccupantSlotCount;
+    private int occupantSlotCount;
     private final int width;
     private final int height;
     private final Pathfinder pathfinder;
-    private ArrayList<Actor> addQueue;
-    private ArrayList<Actor> removeQueue;
+    private final DistanceField distanceField;
+    private final AmoebaGroups amoebaGroups;
+    private final ActorRegistry actors;
+    private final boolean[] isDirty;
+    private final int[] dirtyCells;
+    private int dirtyCount;
+    private ArrayList<Actor> scheduleQueue;
+    private final ArrayList<Actor> movedActors;
+    private long tickCount;
 
     private static final int EXPLOSION_DISPLAYS_FOR_N_TICKS = 2;
-    private Image small = new Image("smallboom.PNG");
-    private Image medium = new Image("mediumboom.PNG");
-    private Image big = new Image("bigboom.PNG");
     private int explosionTickCount;
-    private ArrayList<Pair<Integer, Integer>> explosionCoords;
+    private int[] explosionCells;
+    private final byte[] explosionMarks;
+    private int[] explosionCentres;
+    private byte[] explosionTypes;
+    private int explosionCount;
+    private final int[] explodingCells;
     private boolean levelShouldExit;
 
     /**
-     * A constructor for the grid class. This is not intended to be called by anyone other than LevelFactory.
+     * A constructor for the grid class. This is not intended to be called by anyone other than LevelTemplate.
      *
-     * @param tiles  The 2D ArrayList that makes up the grid.
-     * @param width  The length of the rows.
-     * @param height The length of the columns.
-     * @see LevelFactory
+     * @param width     The length of the rows.
+     * @param height    The length of the columns.
+     * @param types       The ordinal of the {@link TileType} of every cell, indexed by {@code y * width + x}.
+     * @param tileValues  The ID of every key and door, and the diamond threshold of every exit, indexed the same way.
+     *                    Ignored for every other cell.
+     * @param tileColours The ordinal of the {@link KeyDoorColour} of every key and door, indexed the same way.
+     *                    Ignored for every other cell. The grid takes ownership of all three arrays.
+     * @see LevelTemplate
      * @see Tile
      */
-    public Grid(final ArrayList<ArrayList<Tile>> tiles, final int width, final int height) {
+    public Grid(final int width, final int height, final byte[] types, final int[] tileValues,
+                final byte[] tileColours) {
         this.width = width;
         this.height = height;
-        this.tiles = tiles;
+        this.types = types;
+        this.tileValues = tileValues;
+        this.tileColours = tileColours;
+        occupiers = new int[width * height];
+        Arrays.fill(occupiers, NO_OCCUPIER);
+        occupants = new Actor[16];
+        occupantCellCount = new int[16];
+        freeOccupantSlots = new int[16];
+        freeOccupantSlotCount = 0;
+        occupantSlotCount = 0;
+        distanceField = new DistanceField();
+        amoebaGroups = new AmoebaGroups(width, height);
+        isDirty = new boolean[width * height];
+        dirtyCells = new int[width * height];
+        dirtyCount = 0;
+        explosionMarks = new byte[width * height];
+        explodingCells = new int[width * height];
+        explosionCentres = new int[16];
+        explosionTypes = new byte[16];
+        explosionCount = 0;
+
         pathfinder = new Pathfinder();
-        addQueue = new ArrayList<>();
-        explosionCoords = new ArrayList<>();
-        removeQueue = new ArrayList<>();
+        actors = new ActorRegistry();
+        explosionCells = NO_CELLS;
+        scheduleQueue = new ArrayList<>();
+        movedActors = new ArrayList<>();
+        tickCount = 0;
         explosionTickCount = 0;
         levelShouldExit = false;
     }
 
     /**
-     * A method to draw the grid and all of its tiles.
+     * A method for Level to call once per tick. This advances the grid's tick count and ages the most recent
+     * explosion; explosions are only reported by {@link #getExplosionCells()} for a few ticks after they go off.
+     */
+    public void nextTick() {
+        tickCount++;
+        explosionTickCount++;
+        movedActors.clear();
+    }
+
+    /**
+     * Gets the number of ticks the grid has been through.
      *
-     * @param gc The GraphicsContext of the Canvas the Grid should be drawn to.
-     * @see javafx.scene.canvas.Canvas
+     * @return The tick count.
      */
-    public void draw(final GraphicsContext gc) {
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                Rectangle rectangle = new Rectangle();
-                ///   gc.setFill(tiles.get(y).get(x).getImage());
-                //    gc.fillRect(rectangle.getX(), rectangle.getY(), rectangle.getWidth(), rectangle.getHeight());
-                gc.drawImage(tiles.get(y).get(x).getImage(), Level.DRAW_ENTITY_SIZE * (x+1), Level.DRAW_ENTITY_SIZE * (y+1), Level.DRAW_ENTITY_SIZE, Level.DRAW_ENTITY_SIZE);
-            }
-        }
+    public long getTickCount() {
+        return tickCount;
+    }
 
+    /**
+     * A method for renderers to find the actors that moved during the current tick, so that they can be drawn
+     * sliding from where they started the tick ({@link Actor#getMovedFromX()}, {@link Actor#getMovedFromY()}) to
+     * where they are now. The list must not be modified.
+     *
+     * @return The actors that have moved since the tick started, each listed once.
+     */
+    public List<Actor> getMovedActors() {
+        return movedActors;
+    }
 
-        if (explosionTickCount++ < EXPLOSION_DISPLAYS_FOR_N_TICKS && !explosionCoords.isEmpty()) {
-            explosionCoords.forEach(coords -> {
-                gc.drawImage(small, (double) ((coords.getKey() + 1) * Level.DRAW_ENTITY_SIZE),
-                        (double) ((coords.getValue() + 1) * Level.DRAW_ENTITY_SIZE), Level.DRAW_ENTITY_SIZE, Level.DRAW_ENTITY_SIZE);
-                Timeline timeline = new Timeline(
-                        new KeyFrame(Duration.seconds(0.1), event -> {
-                            gc.drawImage(medium, (double) ((coords.getKey() + 1) * Level.DRAW_ENTITY_SIZE),
-                                    (double) ((coords.getValue() + 1) * Level.DRAW_ENTITY_SIZE), Level.DRAW_ENTITY_SIZE, Level.DRAW_ENTITY_SIZE);
-                        }),
-                        new KeyFrame(Duration.seconds(0.1), event -> {
-                            gc.drawImage(big, (double) ((coords.getKey() + 1) * Level.DRAW_ENTITY_SIZE),
-                                    (double) ((coords.getValue() + 1) * Level.DRAW_ENTITY_SIZE), Level.DRAW_ENTITY_SIZE, Level.DRAW_ENTITY_SIZE);
-                        })
-                );
-                timeline.setCycleCount(1);
-                timeline.play();
-            });
+    /**
+     * A method to get the cells caught in the most recent tick's explosions, if they are still being displayed. The
+     * same array is returned for as long as those explosions are displayed, and a new one once others go off.
+     *
+     * @return The indices of the cells ({@code y * width + x}), or an empty array if there is nothing to display. The
+     * array must not be modified.
+     * @see #resolveExplosions()
+     */
+    public int[] getExplosionCells() {
+        if (explosionTickCount < EXPLOSION_DISPLAYS_FOR_N_TICKS) {
+            return explosionCells;
         }
+        return NO_CELLS;
     }
 
     /**
@@ -102,7 +174,232 @@ public class Grid {
      * @return The Tile at the specified coordinates.
      */
     public Tile getTile(int x, int y) {
-        return tiles.get(y).get(x);
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException(String.format("Tile (%d, %d) is out of bounds.", x, y));
+        }
+        final int cell = y * width + x;
+        final TileType type = TILE_TYPES[types[cell]];
+
+        final Tile tile = switch (type) {
+            case KEY -> new Key(x, y, tileValues[cell], COLOURS[tileColours[cell]]);
+            case DOOR -> new Door(x, y, tileValues[cell], COLOURS[tileColours[cell]]);
+            case EXIT -> new ExitTile(tileValues[cell], x, y);
+            case PATH -> new Path(x, y);
+            case DIRT -> new Dirt(x, y);
+            case WALL -> new Wall(x, y);
+            case TITANIUM_WALL -> new TitaniumWall(x, y);
+            case MAGIC_WALL -> new MagicWall(x, y);
+        };
+        tile.bind(this);
+        return tile;
+    }
+
+    /**
+     * Checks if an actor can walk on the tile at the specified coordinates without creating a tile view.
+     * Whether a tile can be walked on never depends on its data (a key's ID, say), so one shared tile of each type
+     * answers for every cell of that type.
+     *
+     * @param x     The x-coordinate of the tile.
+     * @param y     The y-coordinate of the tile.
+     * @param actor The actor that wants to walk on the tile.
+     * @return Whether the actor can walk on the tile.
+     * @see Tile#actorCanWalkOn(Actor)
+     */
+    public boolean actorCanWalkOn(int x, int y, Actor actor) {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException(String.format("Tile (%d, %d) is out of bounds.", x, y));
+        }
+        return SHARED_TILES[types[y * width + x]].actorCanWalkOn(actor);
+    }
+
+    /**
+     * Retrieves the type of the tile at the specified coordinates without creating a tile view.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return The type of the tile at the specified coordinates.
+     */
+    public TileType getTileType(int x, int y) {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException(String.format("Tile (%d, %d) is out of bounds.", x, y));
+        }
+        return TILE_TYPES[types[y * width + x]];
+    }
+
+    /**
+     * Retrieves the actor occupying the tile at the specified coordinates without creating a tile view.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return The occupier of the tile, or null if it is unoccupied.
+     */
+    public Actor getOccupier(int x, int y) {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException(String.format("Tile (%d, %d) is out of bounds.", x, y));
+        }
+        final int slot = occupiers[y * width + x];
+        return (slot == NO_OCCUPIER) ? null : occupants[slot];
+    }
+
+    /**
+     * Sets the actor occupying the tile at the specified coordinates. This is what {@link Tile#setOccupier(Actor)}
+     * delegates to.
+     *
+     * @param x        The x-coordinate of the tile.
+     * @param y        The y-coordinate of the tile.
+     * @param occupier The new occupier, or null to clear the tile.
+     */
+    void setOccupier(int x, int y, Actor occupier) {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException(String.format("Tile (%d, %d) is out of bounds.", x, y));
+        }
+        final int cell = y * width + x;
+        final int oldSlot = occupiers[cell];
+
+        if (oldSlot != NO_OCCUPIER && occupants[oldSlot] == occupier) {
+            return;
+        }
+        final Actor oldOccupier = (oldSlot == NO_OCCUPIER) ? null : occupants[oldSlot];
+        if (oldSlot != NO_OCCUPIER) {
+            releaseOccupantSlot(oldSlot);
+        }
+        occupiers[cell] = (occupier == null) ? NO_OCCUPIER : acquireOccupantSlot(occupier);
+        distanceField.occupierChanged(cell, oldOccupier, occupier);
+        amoebaGroups.occupierChanged(this, cell, oldOccupier, occupier);
+        markDirty(cell);
+        wakeAround(x, y);
+    }
+
+    /**
+     * Finds (or allocates) the index of an actor in the occupant table, and records that it occupies one more cell.
+     *
+     * @param actor The actor to look up.
+     * @return The index of the actor in the occupant table.
+     */
+    private int acquireOccupantSlot(final Actor actor) {
+        int slot = actor.getGridSlot();
+        if (slot == NO_OCCUPIER || slot >= occupantSlotCount || occupants[slot] != actor) {
+            if (freeOccupantSlotCount > 0) {
+                slot = freeOccupantSlots[--freeOccupantSlotCount];
+            } else {
+                if (occupantSlotCount == occupants.length) {
+                    final int newLength = occupants.length * 2;
+                    occupants = Arrays.copyOf(occupants, newLength);
+                    occupantCellCount = Arrays.copyOf(occupantCellCount, newLength);
+                    freeOccupantSlots = Arrays.copyOf(freeOccupantSlots, newLength);
+                }
+                slot = occupantSlotCount++;
+            }
+            occupants[slot] = actor;
+            occupantCellCount[slot] = 0;
+            actor.setGridSlot(slot);
+        }
+        occupantCellCount[slot]++;
+        return slot;
+    }
+
+    /**
+     * Records that an actor occupies one fewer cell, freeing its index in the occupant table if it occupies none.
+     *
+     * @param slot The index of the actor in the occupant table.
+     */
+    private void releaseOccupantSlot(final int slot) {
+        if (--occupantCellCount[slot] == 0) {
+            occupants[slot].setGridSlot(NO_OCCUPIER);
+            occupants[slot] = null;
+            freeOccupantSlots[freeOccupantSlotCount++] = slot;
+        }
+    }
+
+    /**
+     * Changes the type of a cell in place. Any extra tile data (e.g. a key ID) held for the cell is dropped.
+     *
+     * @param x    The x-coordinate of the tile.
+     * @param y    The y-coordinate of the tile.
+     * @param type The new type of the tile.
+     */
+    private void setTileType(int x, int y, TileType type) {
+        final int cell = y * width + x;
+        types[cell] = (byte) type.ordinal();
+        tileValues[cell] = 0;
+        tileColours[cell] = 0;
+        distanceField.tileChanged(cell);
+        amoebaGroups.tileChanged(this, cell);
+        markDirty(cell);
+        wakeAround(x, y);
+    }
+
+    /**
+     * Records that a cell looks different, so that it is drawn again next frame.
+     *
+     * @param cell The index of the cell.
+     */
+    private void markDirty(final int cell) {
+        if (!isDirty[cell]) {
+            isDirty[cell] = true;
+            dirtyCells[dirtyCount++] = cell;
+        }
+    }
+
+    /**
+     * A method for renderers to find out which cells have changed since they last asked, i.e. had their tile or
+     * occupier change, so that only those cells need to be drawn again. Moving an actor changes the cells it left and
+     * entered. The changes are forgotten once they have been handed over.
+     *
+     * @param action What to do with each changed cell, given as {@code y * width + x}.
+     */
+    public void drainDirtyCells(IntConsumer action) {
+        for (int i = 0; i < dirtyCount; i++) {
+            isDirty[dirtyCells[i]] = false;
+            action.accept(dirtyCells[i]);
+        }
+        dirtyCount = 0;
+    }
+
+    /**
+     * A method for resting actors (e.g. a boulder that can neither fall nor roll) to stop being updated. The actor
+     * will be woken up when a cell that could let it move again changes.
+     *
+     * @param actor The actor going to sleep.
+     * @see #pollActorsToSchedule()
+     */
+    public void sleep(Actor actor) {
+        actor.sleep(tickCount);
+    }
+
+    /**
+     * Wakes any sleeping actor whose behaviour depends on the given cell. A falling or rolling actor looks at the
+     * cell below it, the cells beside it and the cells diagonally below it, and the cell two below it when it is
+     * resting on a magic wall, so those are the actors woken.
+     *
+     * @param x The x-coordinate of the cell that changed.
+     * @param y The y-coordinate of the cell that changed.
+     */
+    private void wakeAround(int x, int y) {
+        wake(x, y);
+        wake(x, y - 1);
+        wake(x, y - 2);
+        wake(x - 1, y);
+        wake(x + 1, y);
+        wake(x - 1, y - 1);
+        wake(x + 1, y - 1);
+    }
+
+    /**
+     * Wakes the occupier of a cell, if it is asleep.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     */
+    private void wake(int x, int y) {
+        if (!inBounds(x, y)) {
+            return;
+        }
+        final int slot = occupiers[y * width + x];
+        if (slot != NO_OCCUPIER && occupants[slot].isAsleep()) {
+            occupants[slot].wake(tickCount);
+            scheduleQueue.add(occupants[slot]);
+        }
     }
 
     /**
@@ -115,48 +412,141 @@ public class Grid {
     }
 
     /**
-     * Places an explosion of size 3x3 at the specified coordinates, affecting nearby tiles.
-     * The explosion destroys any destructible tiles within its radius and kills any actors within the explosion range.
+     * Places an explosion of size 3x3 at the specified coordinates. The explosion goes off when the tick's
+     * explosions are resolved, at the end of the tick.
      *
      * @param center The coordinates of the explosion's center.
+     * @see #resolveExplosions()
      */
-
     public void placeExplosion(final Pair<Integer, Integer> center) {
-        ArrayList<Pair<Integer, Integer>> coords = getExplosionCoords(center);
-
-        coords.stream()
-                .filter(coord -> this.inBounds(coord.getKey(), coord.getValue()))
-                .map(coord -> this.getTile(coord.getKey(), coord.getValue()))
-                .filter(tile -> tile.getOccupier() != null)
-                .map(Tile::getOccupier)
-                .forEach(Actor::kill);
-
-        coords.forEach(coord -> {
-            if (this.inBounds(coord.getKey(), coord.getValue())) {
-                this.changeTile(coord.getKey(), coord.getValue(), TileType.PATH);
-            }
-        });
-
-        explosionCoords = coords;
-        explosionTickCount = 0;
+        placeExplosion(center, ExplosionType.PLAIN);
     }
 
-    private ArrayList<Pair<Integer,Integer>> getExplosionCoords(final Pair<Integer, Integer> center) {
-        final int x = center.getKey();
-        final int y = center.getValue();
+    /**
+     * Places an explosion of size 3x3 at the specified coordinates, which may leave something in the cells it
+     * destroys (diamonds for a butterfly, boulders for a firefly). The explosion goes off when the tick's explosions
+     * are resolved, at the end of the tick.
+     *
+     * @param center The coordinates of the explosion's center.
+     * @param type   What the explosion leaves in each cell it clears.
+     * @see #resolveExplosions()
+     */
+    public void placeExplosion(final Pair<Integer, Integer> center, final ExplosionType type) {
+        if (!inBounds(center.getKey(), center.getValue())) {
+            throw new IndexOutOfBoundsException("Explosion out of bounds.");
+        }
+        queueExplosion(center.getValue() * width + center.getKey(), type);
+    }
 
-        final int begin = x - EXPLOSION_SIZE / 2;
-        final int end = 1 + x + EXPLOSION_SIZE / 2;
+    /**
+     * Sets off every explosion placed this tick, all at once. Level calls this once per tick, after the actors have
+     * updated.
+     *
+     * The 3x3 areas of the explosions are marked on a map of the grid, so where they overlap each cell is only
+     * destroyed once. A butterfly or firefly caught in an explosion explodes as well, leaving diamonds or boulders
+     * respectively, and its explosion is marked in the same pass, so a whole chain reaction goes off in the tick it
+     * started. Then every marked cell is destroyed: its occupier is killed and it becomes path, and diamonds or
+     * boulders are left where an enemy's explosion reached. Where two enemies' explosions overlap, the one that went
+     * off first decides what is left.
+     *
+     * @return The indices of the cells caught in the explosions ({@code y * width + x}), which are also displayed
+     * for the next few ticks; an empty array if nothing exploded.
+     * @see #getExplosionCells()
+     */
+    public int[] resolveExplosions() {
+        if (explosionCount == 0) {
+            return NO_CELLS;
+        }
 
-        ArrayList<Pair<Integer, Integer>> coords = new ArrayList<>();
-        for (int explosionY = y - 1; explosionY <= y + 1; explosionY++) {
-            for (int explosionX = begin; explosionX < end; explosionX++) {
-                if (getTile(explosionX, explosionY).isDestroyable()) {
-                    coords.add(new Pair<>(explosionX, explosionY));
+        //Mark every cell that explodes. Chained explosions are added to the end of the queue as they are found.
+        int exploding = 0;
+        for (int i = 0; i < explosionCount; i++) {
+            final int centerX = explosionCentres[i] % width;
+            final int centerY = explosionCentres[i] / width;
+            final byte mark = explosionTypes[i];
+            for (int y = centerY - EXPLOSION_SIZE / 2; y <= centerY + EXPLOSION_SIZE / 2; y++) {
+                for (int x = centerX - EXPLOSION_SIZE / 2; x <= centerX + EXPLOSION_SIZE / 2; x++) {
+                    if (!inBounds(x, y) || !isDestroyable(x, y)) {
+                        continue;
+                    }
+                    final int cell = y * width + x;
+                    if (explosionMarks[cell] == NOT_EXPLODING) {
+                        explodingCells[exploding++] = cell;
+                        final Actor occupier = getOccupier(x, y);
+                        if (occupier != null && occupier.isAlive() && occupier.getX() == x && occupier.getY() == y) {
+                            if (occupier.getType() == ActorType.BUTTERFLY) {
+                                queueExplosion(cell, ExplosionType.DIAMONDS);
+                            } else if (occupier.getType() == ActorType.FIREFLY) {
+                                queueExplosion(cell, ExplosionType.BOULDERS);
+                            }
+                        }
+                    }
+                    if (explosionMarks[cell] <= EXPLODING) {
+                        explosionMarks[cell] = mark;
+                    }
                 }
             }
         }
-        return coords;
+
+        //Then destroy them.
+        for (int i = 0; i < exploding; i++) {
+            final int cell = explodingCells[i];
+            final int x = cell % width;
+            final int y = cell / width;
+            final Actor occupier = getOccupier(x, y);
+            if (occupier != null) {
+                occupier.kill();
+            }
+            setTileType(x, y, TileType.PATH);
+
+            final boolean leavesActor = explosionMarks[cell] == EXPLODING_TO_DIAMONDS
+                    || explosionMarks[cell] == EXPLODING_TO_BOULDERS;
+            if (leavesActor && occupier != null && occupier.getType() != ActorType.PLAYER) {
+                removeActor(x, y);
+            }
+            if (leavesActor && getOccupier(x, y) == null) {
+                addActor(x, y, (explosionMarks[cell] == EXPLODING_TO_DIAMONDS)
+                        ? new Diamond(x, y) : new Boulder(x, y));
+            }
+            explosionMarks[cell] = NOT_EXPLODING;
+        }
+
+        explosionCount = 0;
+        explosionCells = Arrays.copyOf(explodingCells, exploding);
+        explosionTickCount = 0;
+        return explosionCells;
+    }
+
+    /**
+     * Adds an explosion to the ones waiting to go off this tick.
+     *
+     * @param center The index of the cell at the explosion's center.
+     * @param type   What the explosion leaves behind.
+     */
+    private void queueExplosion(final int center, final ExplosionType type) {
+        if (explosionCount == explosionCentres.length) {
+            explosionCentres = Arrays.copyOf(explosionCentres, explosionCount * 2);
+            explosionTypes = Arrays.copyOf(explosionTypes, explosionCount * 2);
+        }
+        explosionCentres[explosionCount] = center;
+        explosionTypes[explosionCount] = switch (type) {
+            case PLAIN -> EXPLODING;
+            case DIAMONDS -> EXPLODING_TO_DIAMONDS;
+            case BOULDERS -> EXPLODING_TO_BOULDERS;
+        };
+        explosionCount++;
+    }
+
+    /**
+     * Checks if an explosion can destroy the tile at the specified coordinates, without creating a tile view.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return Whether the tile is destroyable.
+     * @see Tile#isDestroyable()
+     */
+    private boolean isDestroyable(final int x, final int y) {
+        return SHARED_TILES[types[y * width + x]].isDestroyable();
     }
 
     /**
@@ -196,11 +586,11 @@ public class Grid {
         if (!inBounds(x, y)) {
             return;
         }
-        if (tiles.get(y).get(x).getOccupier() == null) {
+        if (getOccupier(x, y) == null) {
             return;
         }
 
-        tiles.get(y).get(x).getOccupier().onInteract(interactor);
+        getOccupier(x, y).onInteract(interactor);
     }
 
     /**
@@ -214,6 +604,73 @@ public class Grid {
         return pathfinder.ShortestPath(A.getX(), A.getY(), B.getX(), B.getY(), this, A);
     }
 
+    /**
+     * A method for actors chasing another actor (i.e. frogs chasing the player) to find out how far a cell is from
+     * their target. Every chaser of the same type shares one {@link DistanceField}, so this is cheap no matter how
+     * many of them there are; to move towards the target, step to a free neighbouring cell with a lower distance.
+     *
+     * @param walker The actor doing the chasing. Actors of its type don't block the way.
+     * @param target The actor being chased.
+     * @param x      The x-coordinate of the cell.
+     * @param y      The y-coordinate of the cell.
+     * @return The number of steps from the cell to the target, or {@link DistanceField#UNREACHABLE}.
+     */
+    public int getDistanceTo(Actor walker, Actor target, int x, int y) {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException(String.format("Tile (%d, %d) is out of bounds.", x, y));
+        }
+        return distanceField.getDistance(this, walker, target, x, y);
+    }
+
+    /**
+     * A method for amoebas to find the group of amoebas they belong to, i.e. every amoeba connected to them through
+     * amoebas above, below, left or right of each other.
+     *
+     * @param x The x-coordinate of an amoeba.
+     * @param y The y-coordinate of an amoeba.
+     * @return The cells of the amoebas in the group, each as {@code y * width + x}; empty if there is no amoeba there.
+     * @see AmoebaGroups
+     */
+    public int[] getAmoebaGroup(int x, int y) {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException(String.format("Tile (%d, %d) is out of bounds.", x, y));
+        }
+        return amoebaGroups.getCells(this, y * width + x);
+    }
+
+    /**
+     * A method for amoebas to find the size of the group of amoebas they belong to, without listing its cells.
+     *
+     * @param x The x-coordinate of an amoeba.
+     * @param y The y-coordinate of an amoeba.
+     * @return The number of amoebas in the group, or 0 if there is no amoeba there.
+     * @see #getAmoebaGroup(int, int)
+     */
+    public int getAmoebaGroupSize(int x, int y) {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException(String.format("Tile (%d, %d) is out of bounds.", x, y));
+        }
+        return amoebaGroups.getSize(this, y * width + x);
+    }
+
+    /**
+     * A method for amoebas to find somewhere for their group to grow: a dirt or path cell with nothing on it, next to
+     * one of the group's amoebas. Each group keeps track of the cells around it as the grid changes, so this doesn't
+     * look at the whole group.
+     *
+     * @param x The x-coordinate of an amoeba.
+     * @param y The y-coordinate of an amoeba.
+     * @return The cell to grow into, as {@code y * width + x}, or {@link AmoebaGroups#NO_CELL} if the group is
+     *         enclosed or there is no amoeba there.
+     * @see AmoebaGroups
+     */
+    public int getAmoebaGrowthCell(int x, int y) {
+        if (!inBounds(x, y)) {
+            throw new IndexOutOfBoundsException(String.format("Tile (%d, %d) is out of bounds.", x, y));
+        }
+        return amoebaGroups.getGrowableCell(this, y * width + x);
+    }
+
     /**
      * A method to update the type of a tile.
      *
@@ -226,19 +683,12 @@ public class Grid {
             throw new IndexOutOfBoundsException("Invalid bounds.");
         }
 
-        Actor occupier = getTile(x, y).getOccupier();
-
-        Tile tile = null;
-
         switch (type) {
             default -> {
                 throw new IllegalArgumentException("Invalid type for now.");
             }
-            case PATH -> tile = new Path(x, y);
+            case PATH -> setTileType(x, y, TileType.PATH);
         }
-
-        tile.setOccupier(occupier);
-        tiles.get(y).set(x, tile);
     }
 
     /**
@@ -256,22 +706,25 @@ public class Grid {
             return false;
         }
         // extract all actors except player itself from tiles player cannot walk on boulder but player can walk on diamond to pick it.
-        if (!tiles.get(y).get(x).actorCanWalkOn(actor)) {
+        if (!actorCanWalkOn(x, y, actor)) {
             return false;
         }
-        Actor occupier = tiles.get(y).get(x).getOccupier();
+        Actor occupier = getOccupier(x, y);
         if (occupier != null && !occupier.playerCanWalkOn(actor)) {
             return false;
         }
-        tiles.get(actor.getY()).get(actor.getX()).setOccupier(null); //free old tile
+        if (actor.recordMove(tickCount)) {
+            movedActors.add(actor);
+        }
+        setOccupier(actor.getX(), actor.getY(), null); //free old tile
 
-        tiles.get(y).get(x).setOccupier(actor);
+        setOccupier(x, y, actor);
 
 
         actor.setX(x);
         actor.setY(y);
 
-        if (tiles.get(y).get(x).getType() == TileType.DIRT && actor.getType() == ActorType.PLAYER) {
+        if (getTileType(x, y) == TileType.DIRT && actor.getType() == ActorType.PLAYER) {
             this.changeTile(x, y, TileType.PATH);
         }
 
@@ -279,32 +732,7 @@ public class Grid {
     }
 
     /**
-     * A method to be called by an actor (by delegation through Grid) some time after they have received their path.
-     * To be used to check if it is still valid (i.e. does the actor need to get a new path?).
-     *
-     * @return boolean stating whether the path is still valid.
-     **/
-    public boolean pathStillValid(final Queue<Pair<Integer, Integer>> queue, final Actor actor, final Actor target) {
-
-        final ArrayList<Pair<Integer, Integer>> copy = new ArrayList<>(queue); //Copy as reference semantics mean we would invalidate the old queue.
-
-        final Pair<Integer, Integer> targetTile = copy.removeLast();
-
-        if (getTile(targetTile.getKey(), targetTile.getValue()).getOccupier() != target) {
-            return false;
-        }
-
-        //Checks if there exist any occupied tiles
-        return copy.stream()
-                .map(tilePosition -> getTile(tilePosition.getKey(), tilePosition.getValue()))
-                .filter(tile -> !tile.actorCanWalkOn(actor) || tile.hasOccupier())
-                .toList()
-                .isEmpty();
-    }
-
-
-    /**
-     * A method to be called by tiles and actors to spawn actors in game.
+     * A method to be called by tiles and actors to spawn actors in game. The actor is registered straight away.
      * It should be noted that the actor given will not be updated until the next tick that it should be updated on.
      *
      * @param x     The x-coordinate of the given tile.
@@ -315,19 +743,19 @@ public class Grid {
         if (!inBounds(x, y)) {
             throw new IndexOutOfBoundsException("Invalid coordinates.");
         }
-        Tile tile = tiles.get(y).get(x);
-        if (tile.hasOccupier()) {
+        if (getOccupier(x, y) != null) {
             throw new IllegalArgumentException("Tile not empty.");
         }
 
-        if (!tile.actorCanWalkOn(actor)) {
+        if (!actorCanWalkOn(x, y, actor)) {
             throw new IllegalArgumentException("Tile cannot sustain actor.");
         }
         actor.setX(x);
         actor.setY(y);
-        tile.setOccupier(actor);
+        setOccupier(x, y, actor);
 
-        addQueue.add(actor);
+        actors.add(actor);
+        scheduleQueue.add(actor);
     }
 
     /**
@@ -340,14 +768,14 @@ public class Grid {
         if (!inBounds(x, y)) {
             throw new IndexOutOfBoundsException("Invalid coordinates.");
         }
-        Tile tile1 = new Path(x, y);
-        ArrayList<Tile> arrayList = tiles.get(y);
-        arrayList.set(x, tile1);
+        setTileType(x, y, TileType.PATH);
+        setOccupier(x, y, null);
     }
 
     /**
      * A method to be called to remove an actor from a given tile. This method should not be called if the goal is to
-     * kill the actor, instead call kill() on that actor. If there is no actor present, this method is a no-op.
+     * kill the actor, instead call kill() on that actor. The actor is unregistered straight away.
+     * If there is no actor present, this method is a no-op.
      *
      * @param x The x-coordinate of the Actor.
      * @param y The y-coordinate of the Actor.
@@ -358,40 +786,35 @@ public class Grid {
         if (!inBounds(x, y)) {
             throw new IllegalArgumentException("skibidi toilet");
         }
-        Tile tile = getTile(x, y);
-        if (tile.hasOccupier()) {
-            removeQueue.add(tile.getOccupier());
+        final Actor occupier = getOccupier(x, y);
+        if (occupier != null) {
+            actors.remove(occupier);
         }
-        tile.setOccupier(null);
+        setOccupier(x, y, null);
     }
 
 
     /**
-     * This is a method for Level to call to add the Actors requested to be spawned to the game. It is incorrect to
-     * call this if you are not Level.
+     * Gets every actor in the game, including the player.
      *
-     * @return The ArrayList of actors to be added to the game.
-     * @see Actor
-     * @see Level
+     * @return The registry of actors.
+     * @see ActorRegistry
      */
-    public ArrayList<Actor> pollNewActors() {
-        ArrayList<Actor> out = new ArrayList<>(addQueue);
-        addQueue.clear();
-
-        return out;
+    public ActorRegistry getActors() {
+        return actors;
     }
 
     /**
-     * A method for Level to call to query all the actors that have been requested to be removed.
-     * It is invalid behaviour to call this if you are not Level.
+     * A method for Level to call to query all the actors that have been spawned or woken up since it last asked,
+     * so that it can start updating them. It is invalid behaviour to call this if you are not Level.
      *
-     * @return The ArrayList of actors to be removed from the game.
-     * @see Actor
-     * @see Level
+     * @return The ArrayList of actors that should be updated from the next tick on.
+     * @see #addActor(int, int, Actor)
+     * @see #sleep(Actor)
      */
-    public ArrayList<Actor> pollRemovedActors() {
-        ArrayList<Actor> out = new ArrayList<>(removeQueue);
-        removeQueue.clear();
+    public ArrayList<Actor> pollActorsToSchedule() {
+        ArrayList<Actor> out = new ArrayList<>(scheduleQueue);
+        scheduleQueue.clear();
 
         return out;
     }
@@ -405,9 +828,9 @@ public class Grid {
         StringBuilder builder = new StringBuilder();
 
         builder.append(width).append(" ").append(height).append("\n");
-        for (ArrayList<Tile> row : tiles) {
-            for (Tile tile : row) {
-                builder.append(tile.toText());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                builder.append(getTile(x, y).toText());
                 builder.append(',');
             }
             builder.append('\n');
@@ -0,0 +1,49 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.Optional;
+
+/**
+ * Runs a level without any UI. The simulation classes do not depend on JavaFX, so this can be run on machines with no
+ * display (e.g. CI) to soak-test levels, or used as a starting point for bots and solvers.
+ * The level file may be in either format. Usage: {@code java HeadlessRunner <level file> [ticks]}.
+ *
+ * @author Sam
+ * @see Level
+ */
+public class HeadlessRunner {
+    private static final int DEFAULT_TICKS = 10000;
+
+    /**
+     * Loads the given level and updates it until it exits or the tick limit is reached, then reports the tick rate.
+     *
+     * @param args The path of the level file, optionally followed by the maximum number of ticks to run.
+     * @throws IOException    If the level file cannot be read.
+     * @throws ParseException If the level file is invalid.
+     */
+    public static void main(String[] args) throws IOException, ParseException {
+        if (args.length < 1) {
+            System.out.println("Usage: java HeadlessRunner <level file> [ticks]");
+            return;
+        }
+
+        final byte[] data = Files.readAllBytes(Paths.get(args[0]));
+        final int maxTicks = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+
+        final Level level = LevelFactory.createFromBytes(data);
+
+        final long start = System.nanoTime();
+        int ticks = 0;
+        Optional<ExitReason> exitReason = Optional.empty();
+        while (ticks < maxTicks && exitReason.isEmpty()) {
+            level.update();
+            exitReason = level.shouldExit();
+            ticks++;
+        }
+        final double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Ran %d ticks in %.3fs (%.0f ticks/s). Exit reason: %s%n", ticks, seconds,
+                ticks / seconds, exitReason.map(Enum::name).orElse("none"));
+    }
+}
@@ -1,20 +1,19 @@
-import javafx.scene.input.KeyEvent;
-
-import java.security.Key;
 import java.util.Optional;
 
 /**
  * A class to store input events until they are allowed to be used, following the game's functional spec.
  * This class provides mechanisms for querying and receiving input events for the player.
+ * Inputs are stored as a {@link Direction} so that the simulation does not depend on the UI toolkit; translating
+ * key presses into directions is the job of the UI layer.
  *
  * @author Sam
  * @see Game
- * @see KeyEvent
+ * @see Direction
  */
 public class InputBuffer {
     private final int tickrate;
     private int tickAccumulator;
-    private KeyEvent event;
+    private Direction input;
 
     /**
      * Constructs an InputBuffer with a specified tickrate.
@@ -23,7 +22,7 @@ public class InputBuffer {
      */
     InputBuffer(int tickrate) {
         this.tickrate = tickrate;
-        event = null;
+        input = null;
         tickAccumulator = 0;
     }
 
@@ -31,31 +30,30 @@ public class InputBuffer {
      * Called on each game tick to check if an input event is ready to be read.
      * It checks if enough ticks have passed to allow reading the event, and if so, returns the event.
      *
-     * @return An Optional containing the input event if it is ready to be processed; otherwise, an empty Optional.
+     * @return An Optional containing the input direction if it is ready to be processed; otherwise, an empty Optional.
      */
-    Optional<KeyEvent> tryRead() {
+    Optional<Direction> tryRead() {
         tickAccumulator++;
         if (tickAccumulator >= tickrate) {
             tickAccumulator = 0;
-            if (event == null) {
+            if (input == null) {
                 return Optional.empty();
             }
 
-            KeyEvent temp = event;
-            event = null;
+            Direction temp = input;
+            input = null;
             return Optional.of(temp);
         }
         return Optional.empty();
     }
 
     /**
-     * Receives a key event, storing it until it is allowed to be read based on the tickrate.
-     * This method is called when a KeyEvent is triggered by the player (or other input source).
+     * Receives an input, storing it until it is allowed to be read based on the tickrate.
+     * This method is called when the player (or other input source, such as a bot) wants to move.
      *
-     * @param newEvent The key event that is being received and stored.
+     * @param newInput The direction that is being received and stored.
      */
-    void receiveEvent(KeyEvent newEvent) {
-        event = newEvent;
-        newEvent.consume();
+    void receiveInput(Direction newInput) {
+        input = newInput;
     }
 }
@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a Key tile in the game, which can be picked up by the player or other actors.
  * Inherits from the Tile class and provides functionality specific to a Key item, such as tracking whether it
@@ -9,10 +7,6 @@ import javafx.scene.image.Image;
  */
 public class Key extends Tile {
     private boolean isPickedUp;
-    private static final Image RED_KEY = new Image("KeyRed.png");
-    private static final Image GREEN_KEY = new Image("KeyGreen.png");
-    private static final Image BLUE_KEY = new Image("KeyBlue.png");
-    private static final Image YELLOW_KEY = new Image("KeyYellow.png");
     private final int keyID;
     private final KeyDoorColour colour;
 
@@ -40,6 +34,15 @@ public class Key extends Tile {
 
     }
 
+    /**
+     * Retrieves the colour of this Key, used by the renderer to pick its image.
+     *
+     * @return The colour of the Key.
+     */
+    public KeyDoorColour getColour() {
+        return colour;
+    }
+
     /**
      * Checks if the Key has been picked up.
      *
@@ -60,21 +63,6 @@ public class Key extends Tile {
 
     }
 
-    /**
-     * Returns the image representing the Key tile.
-     *
-     * @return The image associated with the Key.
-     */
-    @Override
-    public Image getImage() {
-        return switch (colour) {
-            case GREEN -> GREEN_KEY;
-            case RED -> RED_KEY;
-            case YELLOW -> YELLOW_KEY;
-            case BLUE -> BLUE_KEY;
-        };
-    }
-
     /**
      * Determines whether an actor can walk on this Key tile. For a Key, the answer is always true.
      *
@@ -1,8 +1,3 @@
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.input.KeyCode;
-import javafx.scene.input.KeyEvent;
-import javafx.util.Pair;
-
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -12,14 +7,16 @@ import java.util.Queue;
 
 /**
  * This class represents the game level, including the player, actors, and the grid. It manages game state updates,
- * player input, level completion, and drawing of the game scene.
+ * player input and level completion. It has no dependency on JavaFX, so levels can be simulated headlessly; drawing
+ * is handled separately by {@link LevelRenderer}.
  *
  * @author Sam
  */
 public class Level {
     private Player player; //probably best to address the Player as it's own thing.
     //this is a dummy null value until we actually have the player
-    private ArrayList<Actor> npcs;
+    //The actors that are awake; sleeping actors are left out until the grid wakes them
+    private ArrayList<Actor> active;
     private InputBuffer buf;
     private Grid grid;
 
@@ -46,9 +43,11 @@ public class Level {
     public Level(Player player, Grid grid, ArrayList<Actor> actors, float amoebaRate, int amoebaMax, int levelTimer, int diamondThreshold) {
         this.player = player;
         grid.getTile(player.getX(), player.getY()).setOccupier(player);
-        this.npcs = actors;
-        this.npcs.add(player);
         this.grid = grid;
+        actors.forEach(actor -> grid.getActors().add(actor));
+        grid.getActors().add(player); //Does nothing if the player was already in the list of actors.
+        this.active = new ArrayList<>();
+        grid.getActors().forEach(this::schedule);
         buf = new InputBuffer(2);
         this.amoebaRate = amoebaRate;
         this.amoebaMax = amoebaMax;
@@ -59,12 +58,12 @@ public class Level {
     }
 
     /**
-     * Receives a key event from the player and processes it through the input buffer.
+     * Receives an input from the player and processes it through the input buffer.
      *
-     * @param event The KeyEvent triggered by the player
+     * @param input The direction the player wants to move in
      */
-    public void receiveEvent(KeyEvent event) {
-        buf.receiveEvent(event);
+    public void receiveInput(Direction input) {
+        buf.receiveInput(input);
     }
 
     /**
@@ -76,6 +75,24 @@ public class Level {
         return levelTimer;
     }
 
+    /**
+     * Gets the rate at which amoebas spread in this level.
+     *
+     * @return The amoeba rate
+     */
+    public float getAmoebaRate() {
+        return amoebaRate;
+    }
+
+    /**
+     * Gets the maximum size of an amoeba group in this level.
+     *
+     * @return The maximum amoeba group size
+     */
+    public int getAmoebaMax() {
+        return amoebaMax;
+    }
+
     private enum State {
         Updating,
         PlayerDied,
@@ -91,40 +108,60 @@ public class Level {
      * @throws ParseException If a parsing error occurs
      */
     public void update() throws IOException, ParseException {
+        grid.nextTick();
 
         if (state == State.Updating) {
             updateTimer();
 
-            Optional<KeyEvent> playerInput = buf.tryRead();
+            Optional<Direction> playerInput = buf.tryRead();
             if (!playerInput.isEmpty()) {
-                KeyEvent event = playerInput.get();
-                this.player.takeInput(event);
+                Direction input = playerInput.get();
+                this.player.takeInput(input);
             }
 
-            for (Actor actor : npcs) {
+            for (Actor actor : active) {
                 if (actor.shouldUpdate()) {
                     actor.update(grid);
                 }
             }
 
-            //Unoccupy any tiles with dead NPCs in them if they haven't been removed already.
-            npcs.stream().filter(actor -> !actor.isAlive()
-                            && grid.getTile(actor.getX(), actor.getY()).getOccupier() == actor)
-                    .map(actor -> grid.getTile(actor.getX(), actor.getY()))
-                    .forEach(tile -> tile.setOccupier(null));
+            //Every explosion placed this tick goes off together.
+            grid.resolveExplosions();
 
-            npcs.removeIf(actor -> !actor.isAlive());
+            //Drop dead NPCs, unoccupying their tiles if they haven't been removed already.
+            grid.getActors().compact(actor -> {
+                if (grid.getOccupier(actor.getX(), actor.getY()) == actor) {
+                    grid.setOccupier(actor.getX(), actor.getY(), null);
+                }
+            });
 
-            //Avoids iterator invalidation
-            grid.pollNewActors().forEach(actor -> npcs.add(actor));
+            active.removeIf(actor -> {
+                if (!actor.isAlive() || actor.isAsleep() || !grid.getActors().contains(actor)) {
+                    actor.setScheduled(false);
+                    return true;
+                }
+                return false;
+            });
 
-            ArrayList<Actor> toRemove = grid.pollRemovedActors();
-            npcs.removeIf(actor -> toRemove.contains(actor)); //The time complexity here is evil.
+            //Avoids iterator invalidation
+            grid.pollActorsToSchedule().forEach(this::schedule);
         } else if (state == State.PlayerDied) {
             ticksSinceDeath++;
         }
     }
 
+    /**
+     * Adds an actor to the set of actors updated each tick, unless it is already in it.
+     *
+     * @param actor The actor to schedule.
+     */
+    private void schedule(Actor actor) {
+        if (!actor.isScheduled() && actor.isAlive() && !actor.isAsleep() && grid.getActors().contains(actor)) {
+            actor.setScheduled(true);
+            active.add(actor);
+        }
+    }
+
     /**
      * Updates the level timer based on the tick count.
      */
@@ -195,33 +232,39 @@ public class Level {
                 .append(levelTimer).append("\n").append(LEVEL_DIAMOND_COUNT).append("\nGrid\n")
                 .append(grid.toText()).append("\nPlayer\n").append(player.toText()).append("Actor\n");
 
-        npcs.stream().filter(actor -> actor != player).forEach(actor -> builder.append(actor.toText()).append(","));
+        for (Actor actor : grid.getActors()) {
+            if (actor != player) {
+                builder.append(actor.toText()).append(",");
+            }
+        }
 
         return builder.toString();
     }
 
     /**
-     * Draws the current level, including the grid and all actors (NPCs and player), to the specified GraphicsContext.
+     * Gets the grid of this level.
      *
-     * @param gc The GraphicsContext to draw to
+     * @return The grid the level is played on
      */
-    public void draw(GraphicsContext gc) {
-        grid.draw(gc);
-
-        npcs.forEach(actor -> actor.draw(gc));
-
-        if (player.isAlive()) {
-            player.draw(gc);
-        }
+    public Grid getGrid() {
+        return grid;
+    }
 
+    /**
+     * Gets the player of this level.
+     *
+     * @return The player
+     */
+    public Player getPlayer() {
+        return player;
     }
 
     /**
-     * Binds the camera to the player, ensuring the camera follows the player's movements.
+     * Gets every actor in the level, including the player.
      *
-     * @param camera The camera to bind to the player
+     * @return The registry of actors currently in the level
      */
-    public void bindCamera(Camera camera) {
-        camera.setTarget(player);
+    public ActorRegistry getActors() {
+        return grid.getActors();
     }
 }
@@ -1,17 +1,70 @@
-import java.lang.reflect.Array;
-import java.sql.SQLOutput;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.util.*;
 
 /**
- * A factory class for creating levels, either randomly or from our level file format.
+ * A factory class for creating levels, either randomly or from our level file formats.
  *
  * @author Sam
  * @see Level
  */
 public class LevelFactory {
     /**
-     * A method to create a level from our format.
+     * The colours a key or door can have, keyed by the letter that stands for them in our format.
+     */
+    private static final KeyDoorColour[] COLOURS_BY_LETTER = new KeyDoorColour[128];
+    private static final String COLOUR_LETTERS = "R, B, G, Y";
+
+    static {
+        COLOURS_BY_LETTER['R'] = KeyDoorColour.RED;
+        COLOURS_BY_LETTER['G'] = KeyDoorColour.GREEN;
+        COLOURS_BY_LETTER['B'] = KeyDoorColour.BLUE;
+        COLOURS_BY_LETTER['Y'] = KeyDoorColour.YELLOW;
+    }
+
+    /**
+     * A method to create a level from a file in either of our formats, telling them apart by the binary format's
+     * magic number.
+     *
+     * @param data The contents of the file.
+     * @return The Level created from the data given.
+     * @throws ParseException If the data is not a valid level in either format.
+     * @see BinaryLevelFormat
+     */
+    public static Level createFromBytes(final byte[] data) throws ParseException {
+        return createFromBytes(data, 0);
+    }
+
+    /**
+     * A method to create a level from part of a file in either of our formats, e.g. a save game after its header.
+     *
+     * @param data   The contents of the file.
+     * @param offset The index in the data the level starts at.
+     * @return The Level created from the data given.
+     * @throws ParseException If the data is not a valid level in either format.
+     */
+    public static Level createFromBytes(final byte[] data, final int offset) throws ParseException {
+        return createTemplateFromBytes(data, offset).instantiate();
+    }
+
+    /**
+     * A method to read a level template from part of a file in either of our formats. Unlike creating a level, this
+     * changes no global state, so it can be called on any thread.
+     *
+     * @param data   The contents of the file.
+     * @param offset The index in the data the level starts at.
+     * @return The template read from the data given.
+     * @throws ParseException If the data is not a valid level in either format.
+     */
+    public static LevelTemplate createTemplateFromBytes(final byte[] data, final int offset) throws ParseException {
+        if (BinaryLevelFormat.isBinary(data, offset)) {
+            return BinaryLevelFormat.readTemplate(data, offset);
+        }
+        return createTemplateFromText(new String(data, offset, data.length - offset, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A method to create a level from our text format.
      *
      * @param format The Level in its String representation.
      * @return The Level created from the String given.
@@ -19,358 +72,299 @@ public class LevelFactory {
      *                        denoting what the issue was and where.
      */
     public static Level createFromText(final String format) throws ParseException {
-        Scanner scanner = new Scanner(format);
+        return createTemplateFromText(format).instantiate();
+    }
+
+    /**
+     * A method to read a level template from our text format. The text is read in one pass by a {@link LevelLexer}.
+     * Unlike creating a level, this changes no global state, so it can be called on any thread.
+     *
+     * @param format The Level in its String representation.
+     * @return The template read from the String given.
+     * @throws ParseException If the String is invalid and doesn't meet our specification, an exception is thrown
+     *                        denoting what the issue was and where.
+     */
+    public static LevelTemplate createTemplateFromText(final String format) throws ParseException {
+        final LevelLexer lexer = new LevelLexer(format);
 
-        if (!scanner.hasNextLine()) {
+        if (lexer.isAtEnd()) {
             throw new ParseException("Level file was empty", 0);
         }
 
-        final String first = scanner.nextLine();
-
-        if (!first.equals("Level")) {
+        if (!lexer.nextLineEquals("Level")) {
             throw new ParseException("Level file did not start with 'Level' header", 1);
         }
 
-        final String levelData = parseUntil("Grid", scanner);
+        lexer.beginSection("Grid");
 
-        Scanner levelScanner = new Scanner(levelData);
-
-        if (!levelScanner.hasNextFloat()) {
+        if (!lexer.hasNextFloat()) {
             throw new ParseException("Expected an amoeba rate (float). Was not given one.", 0);
         }
-        final float amoebaRate = levelScanner.nextFloat();
+        final float amoebaRate = lexer.nextFloat();
 
-        if (!levelScanner.hasNextInt()) {
+        if (!lexer.hasNextInt()) {
             throw new ParseException("Expected an maximum amoeba size (int). Was not given one.", 0);
         }
-        final int amoebaMax = levelScanner.nextInt();
-
-        Amoeba.setAmoebaRate(amoebaRate);
-        Amoeba.setMaxGroupSize(amoebaMax);
+        final int amoebaMax = lexer.nextInt();
 
-        if (!levelScanner.hasNextInt()) {
+        if (!lexer.hasNextInt()) {
             throw new ParseException("Expected an level timer threshold (int). Was not given one.", 0);
         }
-        final int levelTimer = levelScanner.nextInt();
+        final int levelTimer = lexer.nextInt();
 
-        if (!levelScanner.hasNextInt()) {
+        if (!lexer.hasNextInt()) {
             throw new ParseException("Expected an diamond threshold (int). Was not given one.", 0);
         }
-        final int diamondThreshold = levelScanner.nextInt();
-
-        final String gridSection = parseUntil("Player", scanner);
-        final ArrayList<ArrayList<Tile>> tiles = parseGrid(gridSection);
-
-        final Grid grid = new Grid(tiles, tiles.getFirst().size(), tiles.size());
-
+        final int diamondThreshold = lexer.nextInt();
+        lexer.endSection();
 
-        final String playerSection = parseUntil("Actor", scanner);
+        lexer.beginSection("Player");
+        final LevelTemplate.Builder builder = parseGrid(lexer);
+        lexer.endSection();
+        builder.setAmoeba(amoebaRate, amoebaMax).setLevelTimer(levelTimer).setDiamondThreshold(diamondThreshold);
 
-        Scanner playerScanner = new Scanner(playerSection);
+        lexer.beginSection("Actor");
 
-        if (!playerScanner.hasNextInt()) {
+        if (!lexer.hasNextInt()) {
             throw new ParseException("Expected an x-coordinate for the Player.", 0);
         }
 
-        int x = playerScanner.nextInt();
+        int x = lexer.nextInt();
 
-        if (!playerScanner.hasNextInt()) {
+        if (!lexer.hasNextInt()) {
             throw new ParseException("Expected n y-coordinate for the Player.", 0);
         }
 
-        int y = playerScanner.nextInt();
+        int y = lexer.nextInt();
 
-        if (!playerScanner.hasNextInt()) {
+        if (!lexer.hasNextInt()) {
             throw new ParseException("Expected a diamond count for the Player.", 0);
         }
 
-        int diamondCount = playerScanner.nextInt();
+        int diamondCount = lexer.nextInt();
 
-        if (!playerScanner.hasNext()) {
+        if (!lexer.next()) {
             throw new ParseException("Expected a beginning brace for set of keys picked up by player.", 0);
         }
-        playerScanner.next();
 
         HashSet<Integer> collectedKeys = new HashSet<>();
-        while (playerScanner.hasNextInt()) {
-            collectedKeys.add(playerScanner.nextInt());
+        while (lexer.hasNextInt()) {
+            collectedKeys.add(lexer.nextInt());
         }
 
-        if (!playerScanner.hasNext()) {
+        if (!lexer.next()) {
             throw new ParseException("Expected a closing brace for set of keys picked up by player.", 0);
         }
-        playerScanner.next();
+        lexer.endSection();
 
-        //Deal with empty grid case etc
-        Player player = new Player(x, y, grid, collectedKeys); //the player you play as in game
+        builder.setPlayer(x, y, collectedKeys); //the player you play as in game
 
-        StringBuilder actorBuilder = new StringBuilder(); //Actor is just the rest of the file
-        while (scanner.hasNextLine()) {
-            actorBuilder.append(scanner.nextLine()).append("\n");
-        }
-
-        final String actorSection = actorBuilder.toString();
-        ArrayList<Actor> actors = parseActors(actorSection, grid, player);
+        lexer.beginLastSection(); //Actor is just the rest of the file
+        parseActors(lexer, builder);
 
-        return new Level(player, grid, actors, amoebaRate, amoebaMax, levelTimer, diamondThreshold);
+        return builder.build();
     }
 
     /**
-     * Parses the input string until the specified endpoint is found.
+     * Parses the grid section and starts building the level from it.
      *
-     * @param endpoint The endpoint string to look for in the input.
-     * @param scanner The scanner to read the input.
-     * @return The content between the current position and the endpoint.
-     * @throws ParseException If the endpoint is not found, an exception is thrown.
-     */
-    private static String parseUntil(final String endpoint, Scanner scanner) throws ParseException {
-        StringBuilder builder = new StringBuilder();
-
-        int count = 0;
-
-        while (scanner.hasNextLine()) {
-            final String line = scanner.nextLine();
-            if (line.equals(endpoint)) {
-                return builder.toString();
-            }
-            builder.append(line).append("\n");
-            count++;
-        }
-        throw new ParseException(String.format("Tried to parse until hitting %s, scanner ran out of lines after %d iterations.", endpoint, count), count);
-    }
-
-    /**
-     * Parses the grid data from the input string and creates a grid.
-     *
-     * @param input The input string containing grid data.
-     * @return A 2D ArrayList representing the grid of tiles.
+     * @param lexer The lexer, at the start of the grid section.
+     * @return A builder holding every tile of the grid.
      * @throws ParseException If the grid format is invalid, an exception is thrown.
      */
-    private static ArrayList<ArrayList<Tile>> parseGrid(String input) throws ParseException {
-
-        //Gross
-        final Map<String, KeyDoorColour> colourMap = new HashMap<>();
-        colourMap.put("R", KeyDoorColour.RED);
-        colourMap.put("G", KeyDoorColour.GREEN);
-        colourMap.put("B", KeyDoorColour.BLUE);
-        colourMap.put("Y", KeyDoorColour.YELLOW);
-
-        StringBuilder validColours = new StringBuilder();
-        colourMap.keySet().forEach(c -> validColours.append(c).append(", "));
-        final String colourString = validColours.toString().substring(0, validColours.length() - 2);
-
-
-        Scanner s = new Scanner(input);
-        if (!s.hasNextInt()) {
+    private static LevelTemplate.Builder parseGrid(final LevelLexer lexer) throws ParseException {
+        if (!lexer.hasNextInt()) {
             throw new ParseException("Expected a width for grid, was not given one.", 0);
         }
-        final int width = s.nextInt();
-        if (!s.hasNextInt()) {
+        final int width = lexer.nextInt();
+        if (!lexer.hasNextInt()) {
             throw new ParseException("Expected a height for grid, was not given one.", 0);
         }
-        final int height = s.nextInt();
-        ArrayList<ArrayList<Tile>> tiles = new ArrayList<>();
-        s.useDelimiter(",|\n| ");
-        s.nextLine();
+        final int height = lexer.nextInt();
+        if (width <= 0 || height <= 0) {
+            throw new ParseException(String.format("Expected a grid of at least one tile, was given %d by %d.",
+                    width, height), 0);
+        }
+        final LevelTemplate.Builder builder = new LevelTemplate.Builder(width, height);
+        lexer.skipLine();
         for (int y = 0; y < height; y++) {
-            ArrayList<Tile> t = new ArrayList<>();
             for (int x = 0; x < width; x++) {
-                final String type = s.next();
-
-                switch (type) {
-                    case "D" -> t.add(new Dirt(x, y));
-                    case "W" -> t.add(new Wall(x, y));
-                    case "P" -> t.add(new Path(x, y));
-                    case "M" -> t.add(new MagicWall(x, y));
-                    case "E" -> {
-                        if (!s.hasNextInt()) {
-                            throw new ParseException(String.format("When creating exit tile, expected an int for diamond threshold." +
-                                    "Was not given one at row %d, column %d", y, x), 0);
-                        }
-                        final int diamondThreshold = s.nextInt();
-                        t.add(new ExitTile(diamondThreshold, x, y));
-                    }
-                    case "T" -> t.add(new TitaniumWall(x, y));
-                    case "K" -> {
-                        if (!s.hasNextInt()) {
-                            throw new ParseException(String.format("When creating a key, expected an int for keyID." +
-                                    "Was not given one at row %d, column %d", y, x), 0);
-                        }
-                        final int keyID = s.nextInt();
-
-                        if (!s.hasNext()) {
-                            throw new ParseException(String.format("When creating key, expected a color in {%s}. Was not given one at row %d, column %d", colourString, y, x), 0);
-                        }
-
-                        final String colourText = s.next();
-
-                        if (!colourMap.containsKey(colourText)) {
-                            throw new ParseException(String.format("When creating key, expected a color in {%s}. Was given %s at row %d, column %d", colourString, colourText, y, x), 0);
-                        }
-
-                        final KeyDoorColour colour = colourMap.get(colourText);
-
-
-                        t.add(new Key(x, y, keyID, colour));
-                    }
-                    case "Do" -> {
-                        if (!s.hasNextInt()) {
-                            throw new ParseException(String.format("When creating locked door, expected an int doorID." +
-                                    "Was not given one at row %d, column %d", y, x), 0);
-                        }
-                        final int doorID = s.nextInt();
+                if (!lexer.next()) {
+                    throw new ParseException(String.format("Expected a tile at row %d, col %d. Was not given one.",
+                            y, x), width);
+                }
 
-                        if (!s.hasNext()) {
-                            throw new ParseException(String.format("When creating locked door, expected a color in {%s}. Was not given one at row %d, column %d", colourString, y, x), 0);
+                if (lexer.tokenLength() == 1) {
+                    switch (lexer.tokenChar(0)) {
+                        case 'D' -> builder.setTile(x, y, TileType.DIRT);
+                        case 'W' -> builder.setTile(x, y, TileType.WALL);
+                        case 'P' -> builder.setTile(x, y, TileType.PATH);
+                        case 'M' -> builder.setTile(x, y, TileType.MAGIC_WALL);
+                        case 'T' -> builder.setTile(x, y, TileType.TITANIUM_WALL);
+                        case 'E' -> {
+                            if (!lexer.hasNextInt()) {
+                                throw new ParseException(String.format("When creating exit tile, expected an int for diamond threshold." +
+                                        "Was not given one at row %d, column %d", y, x), 0);
+                            }
+                            final int diamondThreshold = lexer.nextInt();
+                            builder.setExit(x, y, diamondThreshold);
                         }
-
-                        final String colourText = s.next();
-
-                        if (!colourMap.containsKey(colourText)) {
-                            throw new ParseException(String.format("When creating locked door, expected a color in {%s}. Was given %s at row %d, column %d", colourString, colourText, y, x), 0);
+                        case 'K' -> {
+                            if (!lexer.hasNextInt()) {
+                                throw new ParseException(String.format("When creating a key, expected an int for keyID." +
+                                        "Was not given one at row %d, column %d", y, x), 0);
+                            }
+                            final int keyID = lexer.nextInt();
+                            builder.setKey(x, y, keyID, parseColour(lexer, "key", x, y));
                         }
-
-                        final KeyDoorColour colour = colourMap.get(colourText);
-
-                        t.add(new Door(x, y, doorID, colour));
+                        default -> throw unknownTile(lexer, width, x, y);
                     }
-                    default -> {
-                        System.out.println("Unknown tile type: " + type);
-                        throw new ParseException(String.format("Unknown tile type: %s at row %d, col %d.\n",
-                                type, y, x), width);
+                } else if (lexer.tokenEquals("Do")) {
+                    if (!lexer.hasNextInt()) {
+                        throw new ParseException(String.format("When creating locked door, expected an int doorID." +
+                                "Was not given one at row %d, column %d", y, x), 0);
                     }
+                    final int doorID = lexer.nextInt();
+                    builder.setDoor(x, y, doorID, parseColour(lexer, "locked door", x, y));
+                } else {
+                    throw unknownTile(lexer, width, x, y);
                 }
             }
 
-            if (s.hasNextLine()) {
-                s.nextLine();
-            }
-            tiles.add(t);
+            lexer.skipLine();
         }
-        return tiles;
+        return builder;
     }
 
+    /**
+     * Parses the colour of a key or door.
+     *
+     * @param lexer The lexer, just before the colour.
+     * @param what  What is being created, for error messages.
+     * @param x     The column of the key or door.
+     * @param y     The row of the key or door.
+     * @return The colour.
+     * @throws ParseException If there is no colour, or it is not one of ours.
+     */
+    private static KeyDoorColour parseColour(final LevelLexer lexer, final String what, final int x, final int y)
+            throws ParseException {
+        if (!lexer.next()) {
+            throw new ParseException(String.format("When creating %s, expected a color in {%s}. Was not given one at row %d, column %d", what, COLOUR_LETTERS, y, x), 0);
+        }
+
+        final char letter = lexer.tokenChar(0);
+        if (lexer.tokenLength() != 1 || letter >= COLOURS_BY_LETTER.length || COLOURS_BY_LETTER[letter] == null) {
+            throw new ParseException(String.format("When creating %s, expected a color in {%s}. Was given %s at row %d, column %d", what, COLOUR_LETTERS, lexer.tokenText(), y, x), 0);
+        }
+        return COLOURS_BY_LETTER[letter];
+    }
 
     /**
-     * Creates a random map and returns it as a level in the file format.
-     * This method is still under maintenance and not fully functional.
+     * Builds the error for a tile type that isn't in our format.
+     *
+     * @param lexer The lexer, with the unknown tile as its current token.
+     * @param width The width of the grid.
+     * @param x     The column of the tile.
+     * @param y     The row of the tile.
+     * @return The exception to throw.
+     */
+    private static ParseException unknownTile(final LevelLexer lexer, final int width, final int x, final int y) {
+        return new ParseException(String.format("Unknown tile type: %s at row %d, col %d.\n",
+                lexer.tokenText(), y, x), width);
+    }
+
+
+    /**
+     * Creates a random map and returns it as a level.
+     * The map is built straight from the generator, without going through the level file format.
      *
      * @param canvasWidth The width of the canvas for the map.
      * @param canvasHeight The height of the canvas for the map.
      * @return A randomly generated Level object based on the map data.
-     * @throws ParseException If the random map generation fails, an exception is thrown.
+     * @see MapGenerator#createTemplate()
      */
-    public static Level createRandomMap(int canvasWidth, int canvasHeight) throws ParseException {
-        MapGenerator randMapGen = new MapGenerator(canvasWidth, canvasHeight);
-
-        //this one holds the file formatted string
-        String randMap = randMapGen.createMap();
-
-        //placeholder return----------------------------------------------------------------------------
-        return createFromText(randMap);
+    public static Level createRandomMap(int canvasWidth, int canvasHeight) {
+        return new MapGenerator(canvasWidth, canvasHeight).createTemplate().instantiate();
     }
 
     /**
-     * Parses the actors data from the input string and creates a list of actors.
+     * Parses the actor section and places the actors.
      *
-     * @param data The input string containing actors data.
-     * @param grid The grid where the actors will be placed.
-     * @param player The player object to be added to the list of actors.
-     * @return A list of Actor objects created from the data.
+     * @param lexer   The lexer, at the start of the actor section.
+     * @param builder The builder of the level, which the player has already been placed in.
      * @throws ParseException If the actors data is invalid, an exception is thrown.
      */
-    private static ArrayList<Actor> parseActors(final String data, Grid grid, Actor player) throws ParseException {
-        ArrayList<Actor> actors = new ArrayList<>();
-        Scanner s = new Scanner(data);
-        actors.add(player);
-        grid.getTile(player.getX(), player.getY()).setOccupier(player);
-        s.useDelimiter(",");
-
-        HashSet<String> valid = new HashSet<>();
-        valid.add("Bu");
-        valid.add("B");
-        valid.add("F");
-        valid.add("A");
-        valid.add("Di");
-        valid.add("Fi");
-
-
+    private static void parseActors(final LevelLexer lexer, final LevelTemplate.Builder builder)
+            throws ParseException {
         int actorCount = 0; //used for debugging parse errors.
-        while (s.hasNext()) {
-            final String next = s.next();
-            if (!next.matches("(\n)+")) { //should read
-                Scanner thisLine = new Scanner(next);
-                thisLine.useDelimiter(" | ,|\n");
-
-                if (!thisLine.hasNext()) {
-                    throw new ParseException(String.format("Actor with index %d did not have a type", actorCount), actorCount);
-                }
-
-                final String actorType = thisLine.next();
-                if (!valid.contains(actorType)) {
-                    throw new ParseException(String.format("Actor with index %d had type %s which is not in valid set.", actorCount, actorType), actorCount);
-                }
+        while (lexer.next()) {
+            final boolean isBoulder = lexer.tokenEquals("B");
+            final boolean isDiamond = lexer.tokenEquals("Di");
+            final boolean isAmoeba = lexer.tokenEquals("A");
+            final boolean isFrog = lexer.tokenEquals("F");
+            final boolean isButterfly = lexer.tokenEquals("Bu");
+            final boolean isFirefly = lexer.tokenEquals("Fi");
+            if (!(isBoulder || isDiamond || isAmoeba || isFrog || isButterfly || isFirefly)) {
+                throw new ParseException(String.format("Actor with index %d had type %s which is not in valid set.", actorCount, lexer.tokenText()), actorCount);
+            }
+            final String actorType = lexer.tokenText();
 
-                if (!thisLine.hasNextInt()) {
-                    throw new ParseException(String.format("Actor with index %d and type %s did not have an X coordinate (you may have forgotten to add a comma after their x-coordinate?)", actorCount, actorType), actorCount);
-                }
+            if (!lexer.hasNextInt()) {
+                throw new ParseException(String.format("Actor with index %d and type %s did not have an X coordinate (you may have forgotten to add a comma after their x-coordinate?)", actorCount, actorType), actorCount);
+            }
 
-                final int x = thisLine.nextInt();
+            final int x = lexer.nextInt();
 
-                if (!thisLine.hasNextInt()) {
-                    throw new ParseException(String.format("Actor with index %d and type %s did not have an Y coordinate (you may have forgotten to add a comma after their y-coordinate?)", actorCount, actorType), actorCount);
-                }
+            if (!lexer.hasNextInt()) {
+                throw new ParseException(String.format("Actor with index %d and type %s did not have an Y coordinate (you may have forgotten to add a comma after their y-coordinate?)", actorCount, actorType), actorCount);
+            }
 
-                final int y = thisLine.nextInt();
-
-
-                Actor actor = null;
-
-                //PLAN: Factor the base stuff (x, y) out to an actor parse each subclass calls when scanning
-                //This is getting bloated and I think subclasses should parse their data (makes it less centralised
-                //anyway).
-                if (actorType.equals("B")) { //will need to sub-scan for X Y etc
-                    actor = new Boulder(x, y);
-                } else if (actorType.equals("Di")) {
-                    actor = new Diamond(x, y);
-                } else if (actorType.equals("A")) {
-                    actor = new Amoeba(x, y);
-                } else if (actorType.equals("F")) {
-                    actor = new Frog(player, x, y); //Frog needs a reference to the Player
-                } else if (actorType.equals("Bu")) {
-                    final String direction = thisLine.next();
-                    boolean isLeft = false;
-                    if (direction.equals("L")) {
-                        isLeft = true;
-                    } else if (direction.equals("R")) {
-                        isLeft = false;
-                    } else {
-                        throw new ParseException(String.format("Expected L|R for butterfly direction, was given %s. Actor index: ", direction, actorType), actorCount);
-                    }
-                    actor = new Butterfly(isLeft, x, y, player); //this is probably not how we are doing it, jst testing forwarding
-                } else if (actorType.equals("Fi")) {
-                    final String direction = thisLine.next();
-                    boolean isLeft = false;
-                    if (direction.equals("L")) {
-                        isLeft = true;
-                    } else if (direction.equals("R")) {
-                        isLeft = false;
-                    } else {
-                        throw new ParseException(String.format("Expected L|R for firefly direction, was given %s. Actor index: ", direction, actorType), actorCount);
-                    }
-                    actor = new Firefly(isLeft, x, y, player);
-                } else {
-                    throw new ParseException(String.format("Failed to parse actor with ActorType %s. Actor index: %d", actorType, actorCount), actorCount);
-                }
-                actors.add(actor);
-                if (grid.getTile(x, y).getOccupier() != null) {
-                    throw new ParseException(String.format("Actor with index %d tried to occupy a tile already occupied."
-                            , actorCount), actorCount);
-                }
-                grid.getTile(x, y).setOccupier(actor);
-                actorCount++;
+            final int y = lexer.nextInt();
+
+            final ActorType type;
+            boolean isLeft = false;
+            if (isBoulder) {
+                type = ActorType.BOULDER;
+            } else if (isDiamond) {
+                type = ActorType.DIAMOND;
+            } else if (isAmoeba) {
+                type = ActorType.AMOEBA;
+            } else if (isFrog) {
+                type = ActorType.FROG;
+            } else if (isButterfly) {
+                type = ActorType.BUTTERFLY;
+                isLeft = parseIsLeft(lexer, "butterfly", actorCount);
+            } else {
+                type = ActorType.FIREFLY;
+                isLeft = parseIsLeft(lexer, "firefly", actorCount);
+            }
+            if (builder.isOccupied(x, y)) {
+                throw new ParseException(String.format("Actor with index %d tried to occupy a tile already occupied."
+                        , actorCount), actorCount);
             }
+            builder.addActor(type, x, y, isLeft);
+            actorCount++;
+        }
+    }
+
+    /**
+     * Parses the direction a butterfly or firefly starts out following a wall in.
+     *
+     * @param lexer      The lexer, just before the direction.
+     * @param what       The kind of actor, for error messages.
+     * @param actorCount The index of the actor, for error messages.
+     * @return Whether the actor follows the wall on its left.
+     * @throws ParseException If the direction is not L or R.
+     */
+    private static boolean parseIsLeft(final LevelLexer lexer, final String what, final int actorCount)
+            throws ParseException {
+        final boolean hasDirection = lexer.next();
+        if (hasDirection && lexer.tokenEquals("L")) {
+            return true;
+        } else if (hasDirection && lexer.tokenEquals("R")) {
+            return false;
         }
-        return actors;
+        throw new ParseException(String.format("Expected L|R for %s direction, was given %s. Actor index: %d", what,
+                hasDirection ? lexer.tokenText() : "nothing", actorCount), actorCount);
     }
 }
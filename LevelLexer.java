@@ -0,0 +1,324 @@
+import java.text.ParseException;
+
+/**
+ * Splits a level in our text format into tokens, reading straight from the characters of the text. A level is a
+ * series of sections, each ending at a line that names the next section ("Grid", "Player", "Actor"); the lexer reads
+ * one section at a time and will not read past its end. Within a section, tokens are separated by spaces, commas or
+ * line breaks.
+ *
+ * The current token is only ever described by where it starts and ends in the text, so reading a level allocates no
+ * strings except for error messages.
+ *
+ * @author Sam
+ * @see LevelFactory
+ */
+final class LevelLexer {
+    private final char[] text;
+    private int position;
+    private int sectionEnd;
+    private int nextSection;
+    private int tokenStart;
+    private int tokenEnd;
+
+    /**
+     * Constructs a lexer at the start of a level's text.
+     *
+     * @param format The level in its String representation.
+     */
+    LevelLexer(final String format) {
+        text = format.toCharArray();
+        position = 0;
+        sectionEnd = text.length;
+        nextSection = text.length;
+    }
+
+    /**
+     * Checks if there is anything left in the text.
+     *
+     * @return Whether the end of the text has been reached.
+     */
+    boolean isAtEnd() {
+        return position >= text.length;
+    }
+
+    /**
+     * Reads a whole line and checks it is as expected.
+     *
+     * @param expected The line that should come next.
+     * @return Whether the line matched. The line is read either way.
+     */
+    boolean nextLineEquals(final String expected) {
+        final int start = position;
+        final int end = lineEnd(start);
+        position = skipLineBreak(end);
+        return matches(start, trimReturn(start, end), expected);
+    }
+
+    /**
+     * Starts reading a section, which runs from here until the line naming the next section. Tokens are read from the
+     * section until {@link #endSection()} moves on past that line.
+     *
+     * @param endpoint The line the section ends at.
+     * @throws ParseException If the text runs out before the endpoint is found.
+     */
+    void beginSection(final String endpoint) throws ParseException {
+        int count = 0;
+        int lineStart = position;
+        while (lineStart < text.length) {
+            final int end = lineEnd(lineStart);
+            if (matches(lineStart, trimReturn(lineStart, end), endpoint)) {
+                sectionEnd = lineStart;
+                nextSection = skipLineBreak(end);
+                return;
+            }
+            lineStart = skipLineBreak(end);
+            count++;
+        }
+        throw new ParseException(String.format("Tried to parse until hitting %s, scanner ran out of lines after %d iterations.", endpoint, count), count);
+    }
+
+    /**
+     * Starts reading the last section, which runs to the end of the text.
+     */
+    void beginLastSection() {
+        sectionEnd = text.length;
+        nextSection = text.length;
+    }
+
+    /**
+     * Finishes the current section, skipping anything left in it and the line that ends it.
+     */
+    void endSection() {
+        position = nextSection;
+        sectionEnd = text.length;
+    }
+
+    /**
+     * Skips the rest of the current line, including the line break.
+     */
+    void skipLine() {
+        position = Math.min(skipLineBreak(lineEnd(position)), sectionEnd);
+    }
+
+    /**
+     * Checks if there is another token in the section.
+     *
+     * @return Whether there is another token.
+     */
+    boolean hasNext() {
+        skipSeparators();
+        return position < sectionEnd;
+    }
+
+    /**
+     * Moves on to the next token in the section.
+     *
+     * @return Whether there was another token.
+     */
+    boolean next() {
+        if (!hasNext()) {
+            return false;
+        }
+        tokenStart = position;
+        while (position < sectionEnd && !isSeparator(text[position])) {
+            position++;
+        }
+        tokenEnd = position;
+        return true;
+    }
+
+    /**
+     * Checks if the next token in the section is an int, without moving on to it.
+     *
+     * @return Whether the next token is an int.
+     */
+    boolean hasNextInt() {
+        if (!hasNext()) {
+            return false;
+        }
+        int i = position;
+        final boolean isNegative = text[i] == '-';
+        if (text[i] == '-' || text[i] == '+') {
+            i++;
+        }
+        final int digits = i;
+        final long limit = isNegative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        while (i < sectionEnd && text[i] >= '0' && text[i] <= '9') {
+            value = value * 10 + (text[i] - '0');
+            if (value > limit) {
+                return false; //Too big for an int.
+            }
+            i++;
+        }
+        return i > digits && (i == sectionEnd || isSeparator(text[i]));
+    }
+
+    /**
+     * Reads the next token as an int. Check it is one with {@link #hasNextInt()} first.
+     *
+     * @return The int.
+     */
+    int nextInt() {
+        next();
+        int i = tokenStart;
+        final boolean isNegative = text[i] == '-';
+        if (text[i] == '-' || text[i] == '+') {
+            i++;
+        }
+        int value = 0;
+        for (; i < tokenEnd; i++) {
+            value = value * 10 + (text[i] - '0');
+        }
+        return isNegative ? -value : value;
+    }
+
+    /**
+     * Checks if the next token in the section is a float, without moving on to it.
+     *
+     * @return Whether the next token is a float.
+     */
+    boolean hasNextFloat() {
+        if (!hasNext()) {
+            return false;
+        }
+        int i = position;
+        if (text[i] == '-' || text[i] == '+') {
+            i++;
+        }
+        int digits = 0;
+        boolean seenPoint = false;
+        for (; i < sectionEnd && !isSeparator(text[i]); i++) {
+            if (text[i] == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (text[i] >= '0' && text[i] <= '9') {
+                digits++;
+            } else {
+                return false;
+            }
+        }
+        return digits > 0;
+    }
+
+    /**
+     * Reads the next token as a float. Check it is one with {@link #hasNextFloat()} first.
+     *
+     * @return The float.
+     */
+    float nextFloat() {
+        next();
+        return Float.parseFloat(new String(text, tokenStart, tokenEnd - tokenStart));
+    }
+
+    /**
+     * Checks if the current token is a given word.
+     *
+     * @param word The word.
+     * @return Whether the token is exactly the word.
+     */
+    boolean tokenEquals(final String word) {
+        return matches(tokenStart, tokenEnd, word);
+    }
+
+    /**
+     * Gets the length of the current token.
+     *
+     * @return The number of characters in the token.
+     */
+    int tokenLength() {
+        return tokenEnd - tokenStart;
+    }
+
+    /**
+     * Gets a character of the current token.
+     *
+     * @param index The index of the character in the token.
+     * @return The character.
+     */
+    char tokenChar(final int index) {
+        return text[tokenStart + index];
+    }
+
+    /**
+     * Gets the current token as a String, e.g. for an error message.
+     *
+     * @return The token.
+     */
+    String tokenText() {
+        return new String(text, tokenStart, tokenEnd - tokenStart);
+    }
+
+    /**
+     * Skips spaces, commas and line breaks.
+     */
+    private void skipSeparators() {
+        while (position < sectionEnd && isSeparator(text[position])) {
+            position++;
+        }
+    }
+
+    /**
+     * Checks if a character separates tokens.
+     *
+     * @param c The character.
+     * @return Whether it is a space, comma or line break.
+     */
+    private static boolean isSeparator(final char c) {
+        return c == ' ' || c == ',' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    /**
+     * Finds the end of the line starting at or containing a position.
+     *
+     * @param from The position.
+     * @return The index of the line's line feed, or the end of the text.
+     */
+    private int lineEnd(final int from) {
+        int i = from;
+        while (i < text.length && text[i] != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Steps past the line feed at the end of a line, if there is one.
+     *
+     * @param lineEnd The end of the line.
+     * @return The start of the next line.
+     */
+    private int skipLineBreak(final int lineEnd) {
+        return (lineEnd < text.length) ? lineEnd + 1 : lineEnd;
+    }
+
+    /**
+     * Leaves the carriage return off the end of a line written with Windows line breaks.
+     *
+     * @param start The start of the line.
+     * @param end   The end of the line.
+     * @return The end of the line, before any carriage return.
+     */
+    private int trimReturn(final int start, final int end) {
+        return (end > start && text[end - 1] == '\r') ? end - 1 : end;
+    }
+
+    /**
+     * Checks if part of the text is exactly a given string.
+     *
+     * @param start The start of the part.
+     * @param end   The end of the part.
+     * @param word  The string.
+     * @return Whether they match.
+     */
+    private boolean matches(final int start, final int end, final String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (text[start + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
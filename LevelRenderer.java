@@ -0,0 +1,392 @@
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * The JavaFX side of a level. This class draws the {@link RenderSnapshot}s of a {@link Level} to a
+ * {@link GraphicsContext}, using the sprites of a {@link SpriteAtlas}. Keeping this out of the simulation classes
+ * means a Level can be updated without the JavaFX toolkit being present, and drawing from snapshots means it can be
+ * updated on another thread while it is drawn.
+ *
+ * Most of a level looks the same from one tick to the next, so rather than painting the whole level every frame the
+ * renderer leaves the canvas as it is and only paints over the cells that the snapshot says have changed. Cells
+ * the {@link Camera} can't see are never drawn, so the cost of drawing depends on the size of the screen, not the
+ * level.
+ *
+ * When everything does need drawing (e.g. the camera has moved), the terrain is not drawn tile by tile. The grid is
+ * split into chunks of 16x16 cells, and each chunk's tiles are drawn once into an image that is kept until one of its
+ * tiles changes, so a full redraw is a handful of chunk images with the actors drawn on top.
+ *
+ * Explosions are animated by {@link ExplosionEffects}, which the renderer advances every frame: each cell caught in
+ * an explosion shows the frames of the animation on top of the cell and is drawn again once the animation ends.
+ *
+ * @author Sam
+ * @see Level
+ * @see RenderSnapshot
+ */
+public class LevelRenderer {
+    private static SpriteAtlas atlas;
+
+    private static final long EXPLOSION_FRAME_NANOS = 100_000_000L;
+    private static final int CHUNK_SIZE = 16;
+    private static final int CHUNK_PIXELS = CHUNK_SIZE * Level.DRAW_ENTITY_SIZE;
+    private final Canvas chunkCanvas;
+    private final SnapshotParameters chunkSnapshotParameters;
+    private WritableImage[] chunks;
+    private boolean[] isChunkStale;
+    private int[] chunkSprites;
+    private int chunkColumns;
+    private RenderSnapshot drawnSnapshot;
+    private boolean shouldRedrawAll;
+    private int[] shownExplosion;
+    private final ExplosionEffects explosionEffects;
+    private int[] slidingCells;
+    private int slidingCellCount;
+
+    /**
+     * Constructs a renderer. The first renderer also loads all of the images for tiles and actors into the
+     * {@link SpriteAtlas} that every renderer shares.
+     */
+    public LevelRenderer() {
+        if (atlas == null) {
+            atlas = new SpriteAtlas();
+        }
+
+        shouldRedrawAll = true;
+        shownExplosion = new int[0];
+        explosionEffects = new ExplosionEffects(EXPLOSION_FRAME_NANOS);
+        slidingCells = new int[16];
+        slidingCellCount = 0;
+
+        chunkCanvas = new Canvas(CHUNK_PIXELS, CHUNK_PIXELS);
+        chunkSnapshotParameters = new SnapshotParameters();
+        chunkSnapshotParameters.setFill(Color.TRANSPARENT);
+    }
+
+    /**
+     * Draws a snapshot of a level to the specified GraphicsContext. Only cells that the camera can see are drawn. The
+     * first time a level is drawn, or after {@link #redrawAll()}, every visible cell is drawn; after that only the
+     * visible cells that changed since the last snapshot drawn (plus any explosion) are drawn again, on top of what
+     * is already on the canvas. If snapshots were skipped, it isn't known what changed, so everything is drawn.
+     *
+     * This can be called many times per snapshot. Actors that moved during the tick are drawn part of the way from
+     * where they started the tick to where they ended it, so that they slide between cells rather than jumping, and
+     * explosion animations are moved on to the frame they should be showing now.
+     *
+     * @param snapshot The snapshot to draw
+     * @param gc       The GraphicsContext to draw to
+     * @param camera   The camera the level is being viewed through.
+     * @param progress How far it is from the snapshot's tick to the next one, from 0 to 1.
+     * @param now      The time of the frame, in nanoseconds.
+     */
+    public void draw(final RenderSnapshot snapshot, final GraphicsContext gc, final Camera camera,
+                     final double progress, final long now) {
+        final boolean isNewSnapshot = snapshot != drawnSnapshot;
+        if (isNewSnapshot) {
+            applyChanges(snapshot, gc, camera);
+        }
+
+        if (shouldRedrawAll) {
+            shouldRedrawAll = false;
+            drawAll(snapshot, gc, camera);
+        } else {
+            //Rub out the sliding actors where they were drawn last frame.
+            for (int i = 0; i < slidingCellCount; i++) {
+                drawCell(snapshot, slidingCells[i], gc);
+            }
+        }
+
+        if (isNewSnapshot) {
+            startExplosion(snapshot, now);
+        }
+        drawSlidingActors(snapshot, gc, progress);
+        drawExplosionEffects(snapshot, gc, now);
+        drawnSnapshot = snapshot;
+    }
+
+    /**
+     * Makes the next {@link #draw(RenderSnapshot, GraphicsContext, Camera, double, long)} draw every visible cell, e.g.
+     * because the camera has moved and what is on the canvas is no longer where it should be.
+     */
+    public void redrawAll() {
+        shouldRedrawAll = true;
+    }
+
+    /**
+     * Catches up with a snapshot that hasn't been drawn yet: marks the chunks whose tiles have changed as stale and,
+     * unless everything is going to be drawn anyway, draws the changed cells.
+     *
+     * @param snapshot The new snapshot.
+     * @param gc       The GraphicsContext to draw to.
+     * @param camera   The camera the level is being viewed through.
+     */
+    private void applyChanges(final RenderSnapshot snapshot, final GraphicsContext gc, final Camera camera) {
+        //The first snapshot of a level has no changed cells, even if the last level drawn was the same size.
+        final int[] changed = snapshot.getChangedCells();
+        final boolean isSameLevel = drawnSnapshot != null && changed != null
+                && drawnSnapshot.getWidth() == snapshot.getWidth()
+                && drawnSnapshot.getHeight() == snapshot.getHeight();
+        if (!isSameLevel) {
+            shownExplosion = new int[0];
+            explosionEffects.clear();
+            slidingCellCount = 0;
+            resetChunks(snapshot);
+        }
+
+        if (!isSameLevel || snapshot.getTick() != drawnSnapshot.getTick() + 1) {
+            for (int cell = 0; cell < chunkSprites.length; cell++) {
+                checkChunk(snapshot, cell);
+            }
+            shouldRedrawAll = true;
+            return;
+        }
+
+        for (int cell : changed) {
+            checkChunk(snapshot, cell);
+            if (!shouldRedrawAll && camera.isVisible(cell % snapshot.getWidth(), cell / snapshot.getWidth())) {
+                drawCell(snapshot, cell, gc);
+            }
+        }
+    }
+
+    /**
+     * Marks a cell's chunk as stale if the cell's tile is not the one the chunk was drawn with. Tiles are compared by
+     * sprite, so that a key or door changing colour counts too.
+     *
+     * @param snapshot The snapshot.
+     * @param cell     The index of the cell.
+     */
+    private void checkChunk(final RenderSnapshot snapshot, final int cell) {
+        if (chunkSprites[cell] != getSprite(snapshot, cell)) {
+            isChunkStale[getChunk(cell % snapshot.getWidth(), cell / snapshot.getWidth())] = true;
+        }
+    }
+
+    /**
+     * Draws every visible cell: the chunk images of the terrain, then the standing actors on top.
+     *
+     * @param snapshot The snapshot to draw.
+     * @param gc       The GraphicsContext to draw to.
+     * @param camera   The camera the level is being viewed through.
+     */
+    private void drawAll(final RenderSnapshot snapshot, final GraphicsContext gc, final Camera camera) {
+        clear(gc);
+        final int firstRow = Math.max(camera.getFirstVisibleRow(), 0);
+        final int firstColumn = Math.max(camera.getFirstVisibleColumn(), 0);
+        final int lastRow = Math.min(camera.getLastVisibleRow(), snapshot.getHeight() - 1);
+        final int lastColumn = Math.min(camera.getLastVisibleColumn(), snapshot.getWidth() - 1);
+
+        for (int chunkY = firstRow / CHUNK_SIZE; chunkY <= lastRow / CHUNK_SIZE; chunkY++) {
+            for (int chunkX = firstColumn / CHUNK_SIZE; chunkX <= lastColumn / CHUNK_SIZE; chunkX++) {
+                gc.drawImage(getChunkImage(snapshot, chunkX, chunkY),
+                        Level.DRAW_ENTITY_SIZE * (chunkX * CHUNK_SIZE + 1),
+                        Level.DRAW_ENTITY_SIZE * (chunkY * CHUNK_SIZE + 1));
+            }
+        }
+        for (int y = firstRow; y <= lastRow; y++) {
+            for (int x = firstColumn; x <= lastColumn; x++) {
+                drawOccupier(snapshot, y * snapshot.getWidth() + x, gc);
+            }
+        }
+    }
+
+    /**
+     * Clears the whole canvas, whatever the camera's translation, and fills the screen's worth at the origin with
+     * black.
+     *
+     * @param gc The GraphicsContext to clear.
+     */
+    private void clear(final GraphicsContext gc) {
+        gc.save();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, gc.getCanvas().getWidth(), gc.getCanvas().getHeight());
+        gc.restore();
+        gc.setFill(Color.BLACK);
+        gc.fillRect(0, 0, Game.WIDTH, Game.HEIGHT);
+    }
+
+    /**
+     * Draws one cell: its tile and, if an actor is standing in it, the actor.
+     *
+     * @param snapshot The snapshot the cell is in.
+     * @param cell     The index of the cell.
+     * @param gc       The GraphicsContext to draw to.
+     */
+    private void drawCell(final RenderSnapshot snapshot, final int cell, final GraphicsContext gc) {
+        atlas.draw(gc, getSprite(snapshot, cell), Level.DRAW_ENTITY_SIZE * (cell % snapshot.getWidth() + 1),
+                Level.DRAW_ENTITY_SIZE * (cell / snapshot.getWidth() + 1));
+        drawOccupier(snapshot, cell, gc);
+    }
+
+    /**
+     * Draws the actor standing in a cell, if there is one.
+     *
+     * @param snapshot The snapshot the cell is in.
+     * @param cell     The index of the cell.
+     * @param gc       The GraphicsContext to draw to.
+     */
+    private void drawOccupier(final RenderSnapshot snapshot, final int cell, final GraphicsContext gc) {
+        final byte actorType = snapshot.getActorType(cell);
+        if (actorType != RenderSnapshot.NO_ACTOR) {
+            drawActor(RenderSnapshot.toActorType(actorType), gc, cell % snapshot.getWidth(),
+                    cell / snapshot.getWidth());
+        }
+    }
+
+    /**
+     * Draws the actors that moved in the snapshot's tick part of the way along their move, after drawing the cells
+     * they are moving between. The cells are remembered so that the actors can be rubbed out next frame.
+     *
+     * @param snapshot The snapshot the actors are in.
+     * @param gc       The GraphicsContext to draw to.
+     * @param progress How far along their moves to draw the actors, from 0 to 1.
+     */
+    private void drawSlidingActors(final RenderSnapshot snapshot, final GraphicsContext gc, final double progress) {
+        final int movers = snapshot.getMoverCount();
+        if (slidingCells.length < movers * 2) {
+            slidingCells = new int[movers * 2];
+        }
+        slidingCellCount = 0;
+        for (int i = 0; i < movers; i++) {
+            slidingCells[slidingCellCount++] = snapshot.getMoverFromCell(i);
+            slidingCells[slidingCellCount++] = snapshot.getMoverCell(i);
+        }
+
+        for (int i = 0; i < slidingCellCount; i++) {
+            drawCell(snapshot, slidingCells[i], gc);
+        }
+        final int width = snapshot.getWidth();
+        for (int i = 0; i < movers; i++) {
+            final int fromX = snapshot.getMoverFromCell(i) % width;
+            final int fromY = snapshot.getMoverFromCell(i) / width;
+            drawActor(snapshot.getMoverType(i), gc, fromX + (snapshot.getMoverCell(i) % width - fromX) * progress,
+                    fromY + (snapshot.getMoverCell(i) / width - fromY) * progress);
+        }
+    }
+
+    /**
+     * Throws away the chunks of the previous level and makes room for those of a new one. Chunks are drawn when
+     * they are first needed.
+     *
+     * @param snapshot A snapshot of the new level.
+     */
+    private void resetChunks(final RenderSnapshot snapshot) {
+        chunkColumns = (snapshot.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final int chunkRows = (snapshot.getHeight() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunks = new WritableImage[chunkColumns * chunkRows];
+        isChunkStale = new boolean[chunks.length];
+        chunkSprites = new int[snapshot.getWidth() * snapshot.getHeight()];
+    }
+
+    /**
+     * Finds the chunk a cell is in.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The index of the chunk.
+     */
+    private int getChunk(final int x, final int y) {
+        return (y / CHUNK_SIZE) * chunkColumns + x / CHUNK_SIZE;
+    }
+
+    /**
+     * Gets the image of a chunk's tiles, drawing it first if it hasn't been drawn or a tile in it has changed.
+     *
+     * @param snapshot The snapshot to draw the chunk from.
+     * @param chunkX   The column of the chunk.
+     * @param chunkY   The row of the chunk.
+     * @return The image of the chunk, with its top left cell at the image's origin.
+     */
+    private WritableImage getChunkImage(final RenderSnapshot snapshot, final int chunkX, final int chunkY) {
+        final int chunk = chunkY * chunkColumns + chunkX;
+        if (chunks[chunk] != null && !isChunkStale[chunk]) {
+            return chunks[chunk];
+        }
+
+        final GraphicsContext chunkGc = chunkCanvas.getGraphicsContext2D();
+        chunkGc.clearRect(0, 0, CHUNK_PIXELS, CHUNK_PIXELS);
+        final int lastY = Math.min((chunkY + 1) * CHUNK_SIZE, snapshot.getHeight());
+        final int lastX = Math.min((chunkX + 1) * CHUNK_SIZE, snapshot.getWidth());
+        for (int y = chunkY * CHUNK_SIZE; y < lastY; y++) {
+            for (int x = chunkX * CHUNK_SIZE; x < lastX; x++) {
+                final int cell = y * snapshot.getWidth() + x;
+                chunkSprites[cell] = getSprite(snapshot, cell);
+                atlas.draw(chunkGc, chunkSprites[cell], Level.DRAW_ENTITY_SIZE * (x - chunkX * CHUNK_SIZE),
+                        Level.DRAW_ENTITY_SIZE * (y - chunkY * CHUNK_SIZE));
+            }
+        }
+
+        chunks[chunk] = chunkCanvas.snapshot(chunkSnapshotParameters, chunks[chunk]);
+        isChunkStale[chunk] = false;
+        return chunks[chunk];
+    }
+
+    /**
+     * Starts the animation of an explosion the first time a snapshot shows it. Snapshots showing the same explosion
+     * share its array of cells, so it is only started once however many ticks it is shown for.
+     *
+     * @param snapshot The snapshot to start the explosion of.
+     * @param now      The time of the frame, in nanoseconds.
+     */
+    private void startExplosion(final RenderSnapshot snapshot, final long now) {
+        final int[] explosion = snapshot.getExplosionCells();
+        if (explosion != shownExplosion) {
+            for (int cell : explosion) {
+                explosionEffects.start(cell, now);
+            }
+        }
+        shownExplosion = explosion;
+    }
+
+    /**
+     * Advances the explosion animations and draws them: the current frame of each on top of its cell, and the cell
+     * alone where an animation has just ended, to cover up its last frame.
+     *
+     * @param snapshot The snapshot being drawn.
+     * @param gc       The GraphicsContext to draw to.
+     * @param now      The time of the frame, in nanoseconds.
+     */
+    private void drawExplosionEffects(final RenderSnapshot snapshot, final GraphicsContext gc, final long now) {
+        explosionEffects.advance(now);
+        for (int i = 0; i < explosionEffects.getFinishedCount(); i++) {
+            drawCell(snapshot, explosionEffects.getFinishedCell(i), gc);
+        }
+        for (int i = 0; i < explosionEffects.getCount(); i++) {
+            final int cell = explosionEffects.getCell(i);
+            drawCell(snapshot, cell, gc);
+            atlas.draw(gc, atlas.getExplosionSprite(explosionEffects.getFrame(i)),
+                    (cell % snapshot.getWidth() + 1) * Level.DRAW_ENTITY_SIZE,
+                    (cell / snapshot.getWidth() + 1) * Level.DRAW_ENTITY_SIZE);
+        }
+    }
+
+    /**
+     * Renders an actor on a graphics context.
+     *
+     * @param type The type of actor to draw.
+     * @param gc   The graphics context for rendering.
+     * @param x    The x-coordinate of the cell to draw the actor in; it may be between two cells.
+     * @param y    The y-coordinate of the cell to draw the actor in; it may be between two cells.
+     */
+    private void drawActor(final ActorType type, final GraphicsContext gc, final double x, final double y) {
+        atlas.draw(gc, atlas.getActorSprite(type), (x + 1) * Level.DRAW_ENTITY_SIZE,
+                (y + 1) * Level.DRAW_ENTITY_SIZE);
+    }
+
+    /**
+     * Gets the sprite representing a tile. Keys and doors are drawn according to their colour.
+     *
+     * @param snapshot The snapshot the tile is in.
+     * @param cell     The index of the cell the tile is in.
+     * @return The sprite of the tile.
+     */
+    private int getSprite(final RenderSnapshot snapshot, final int cell) {
+        return switch (snapshot.getTileType(cell)) {
+            case KEY -> atlas.getKeySprite(snapshot.getColour(cell));
+            case DOOR -> atlas.getDoorSprite(snapshot.getColour(cell));
+            default -> atlas.getTileSprite(snapshot.getTileType(cell));
+        };
+    }
+}
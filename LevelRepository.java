@@ -0,0 +1,128 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The numbered level files, each read once and kept as a {@link LevelTemplate}. The files can be read on a background
+ * thread as soon as the game starts, so that by the time a level is picked it only has to be instantiated, which is
+ * cheap; playing a level again (e.g. after dying) never reads its file again.
+ *
+ * A level that is asked for before the background thread has got to it is read straight away on the calling thread,
+ * and one that is being read in the background is waited for, so asking for a level never waits on any other level.
+ *
+ * @author Sam
+ * @see LevelTemplate
+ */
+public class LevelRepository {
+    /**
+     * The path of the level files, given the level ID.
+     */
+    public static final String LEVEL_FILE_FORMAT = "level%d.txt";
+
+    private final String fileFormat;
+    private final ConcurrentHashMap<Integer, FutureTask<LevelTemplate>> templates;
+    private final ExecutorService loader;
+
+    /**
+     * Constructs a repository of the level files in the working directory. Nothing is read until asked for.
+     */
+    public LevelRepository() {
+        this(LEVEL_FILE_FORMAT);
+    }
+
+    /**
+     * Constructs a repository of level files. Nothing is read until asked for.
+     *
+     * @param fileFormat The path of the level files, as a format string given the level ID.
+     */
+    public LevelRepository(final String fileFormat) {
+        this.fileFormat = fileFormat;
+        this.templates = new ConcurrentHashMap<>();
+        this.loader = Executors.newSingleThreadExecutor(task -> {
+            final Thread thread = new Thread(task, "Level preload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts reading every level file in the background, from level 1 up to the first ID with no file. This returns
+     * straight away.
+     */
+    public void preloadAll() {
+        for (int levelID = 1; Files.exists(Paths.get(String.format(fileFormat, levelID))); levelID++) {
+            preload(levelID);
+        }
+    }
+
+    /**
+     * Starts reading a level file in the background, unless it has already been read. This returns straight away.
+     *
+     * @param levelID The ID of the level.
+     */
+    public void preload(final int levelID) {
+        loader.execute(task(levelID)); //Does nothing if the task has already run.
+    }
+
+    /**
+     * Gets the template of a level, reading its file first if that hasn't been done yet.
+     *
+     * @param levelID The ID of the level.
+     * @return The template.
+     * @throws IOException    If the level file cannot be read.
+     * @throws ParseException If the level file is invalid.
+     */
+    public LevelTemplate getTemplate(final int levelID) throws IOException, ParseException {
+        final FutureTask<LevelTemplate> task = task(levelID);
+        task.run(); //Reads the file now unless it is being, or has been, read in the background.
+        try {
+            return task.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IOException(String.format("Interrupted while reading level %d.", levelID), exception);
+        } catch (ExecutionException exception) {
+            templates.remove(levelID, task); //Read the file again next time, in case it has been fixed.
+            final Throwable cause = exception.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else if (cause instanceof ParseException parseException) {
+                throw parseException;
+            } else if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Creates a fresh copy of a level, ready to play.
+     *
+     * @param levelID The ID of the level.
+     * @return The level.
+     * @throws IOException    If the level file cannot be read.
+     * @throws ParseException If the level file is invalid.
+     * @see LevelTemplate#instantiate()
+     */
+    public Level createLevel(final int levelID) throws IOException, ParseException {
+        return getTemplate(levelID).instantiate();
+    }
+
+    /**
+     * Gets the task that reads a level file, creating it if there isn't one.
+     *
+     * @param levelID The ID of the level.
+     * @return The task.
+     */
+    private FutureTask<LevelTemplate> task(final int levelID) {
+        return templates.computeIfAbsent(levelID, id -> new FutureTask<>(() -> {
+            final byte[] data = Files.readAllBytes(Paths.get(String.format(fileFormat, id)));
+            return LevelFactory.createTemplateFromBytes(data, 0);
+        }));
+    }
+}
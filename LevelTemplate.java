@@ -0,0 +1,482 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The starting state of a level, as described by a level file, kept apart from any running {@link Level}. A template
+ * holds nothing but primitive arrays and is never changed once built, so it can be parsed on one thread, cached, and
+ * turned into any number of fresh levels on another: {@link #instantiate()} copies the tile types and creates the
+ * tiles with extra data and the actors, without any parsing.
+ *
+ * Templates are built with a {@link Builder}, which is what both level formats are read into.
+ *
+ * @author Sam
+ * @see LevelFactory
+ * @see LevelRepository
+ */
+public final class LevelTemplate {
+    private static final TileType[] TILE_TYPES = TileType.values();
+    private static final ActorType[] ACTOR_TYPES = ActorType.values();
+    private static final KeyDoorColour[] COLOURS = KeyDoorColour.values();
+
+    private final float amoebaRate;
+    private final int amoebaMax;
+    private final int levelTimer;
+    private final int diamondThreshold;
+    private final int width;
+    private final int height;
+    private final byte[] tileTypes;
+    private final int[] dataCells;
+    private final int[] dataValues;
+    private final byte[] dataColours;
+    private final int playerCell;
+    private final int[] playerKeys;
+    private final byte[] actorTypes;
+    private final int[] actorCells;
+    private final boolean[] actorIsLeft;
+
+    /**
+     * Constructs a template from a finished builder, copying out everything it needs.
+     *
+     * @param builder The builder.
+     */
+    private LevelTemplate(final Builder builder) {
+        amoebaRate = builder.amoebaRate;
+        amoebaMax = builder.amoebaMax;
+        levelTimer = builder.levelTimer;
+        diamondThreshold = builder.diamondThreshold;
+        width = builder.width;
+        height = builder.height;
+        tileTypes = builder.tileTypes.clone();
+
+        int dataCount = 0;
+        for (byte type : tileTypes) {
+            if (hasData(type)) {
+                dataCount++;
+            }
+        }
+        dataCells = new int[dataCount];
+        dataValues = new int[dataCount];
+        dataColours = new byte[dataCount];
+        int data = 0;
+        for (int cell = 0; cell < tileTypes.length; cell++) {
+            if (hasData(tileTypes[cell])) {
+                dataCells[data] = cell;
+                dataValues[data] = builder.tileValues[cell];
+                dataColours[data] = builder.tileColours[cell];
+                data++;
+            }
+        }
+
+        playerCell = builder.playerCell;
+        playerKeys = builder.playerKeys.stream().mapToInt(Integer::intValue).toArray();
+        actorTypes = Arrays.copyOf(builder.actorTypes, builder.actorCount);
+        actorCells = Arrays.copyOf(builder.actorCells, builder.actorCount);
+        actorIsLeft = Arrays.copyOf(builder.actorIsLeft, builder.actorCount);
+    }
+
+    /**
+     * Creates a fresh level in this template's starting state. The amoeba settings are global, so they are applied
+     * here rather than when the template is built; this should be called on the thread that is about to run the level.
+     *
+     * @return The level.
+     */
+    public Level instantiate() {
+        Amoeba.setAmoebaRate(amoebaRate);
+        Amoeba.setMaxGroupSize(amoebaMax);
+
+        final int[] tileValues = new int[tileTypes.length];
+        final byte[] tileColours = new byte[tileTypes.length];
+        for (int i = 0; i < dataCells.length; i++) {
+            tileValues[dataCells[i]] = dataValues[i];
+            tileColours[dataCells[i]] = dataColours[i];
+        }
+        final Grid grid = new Grid(width, height, tileTypes.clone(), tileValues, tileColours);
+
+        final HashSet<Integer> collectedKeys = new HashSet<>();
+        for (int key : playerKeys) {
+            collectedKeys.add(key);
+        }
+        final Player player = new Player(playerCell % width, playerCell / width, grid, collectedKeys);
+
+        final ArrayList<Actor> actors = new ArrayList<>(actorCells.length + 1);
+        actors.add(player);
+        grid.setOccupier(player.getX(), player.getY(), player);
+        for (int i = 0; i < actorCells.length; i++) {
+            final int x = actorCells[i] % width;
+            final int y = actorCells[i] / width;
+            final Actor actor = switch (ACTOR_TYPES[actorTypes[i]]) {
+                case BOULDER -> new Boulder(x, y);
+                case DIAMOND -> new Diamond(x, y);
+                case AMOEBA -> new Amoeba(x, y);
+                case FROG -> new Frog(player, x, y); //Frog needs a reference to the Player
+                case BUTTERFLY -> new Butterfly(actorIsLeft[i], x, y, player);
+                default -> new Firefly(actorIsLeft[i], x, y, player);
+            };
+            actors.add(actor);
+            grid.setOccupier(x, y, actor);
+        }
+
+        return new Level(player, grid, actors, amoebaRate, amoebaMax, levelTimer, diamondThreshold);
+    }
+
+    /**
+     * Writes the template in our text format, as {@link Level#toText()} would write a fresh level made from it.
+     * Unlike instantiating the template, this changes no global state, so it can be called on any thread.
+     *
+     * @return The level in its String representation.
+     */
+    public String toText() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Level\n").append(amoebaRate).append("\n").append(amoebaMax).append("\n")
+                .append(levelTimer).append("\n").append(diamondThreshold).append("\nGrid\n");
+
+        builder.append(width).append(" ").append(height).append("\n");
+        int data = 0;
+        for (int cell = 0; cell < tileTypes.length; cell++) {
+            switch (TILE_TYPES[tileTypes[cell]]) {
+                case PATH -> builder.append("P");
+                case DIRT -> builder.append("D");
+                case WALL -> builder.append("W");
+                case TITANIUM_WALL -> builder.append("T");
+                case MAGIC_WALL -> builder.append("M");
+                case EXIT -> builder.append("E ").append(dataValues[data++]);
+                case KEY -> builder.append("K ").append(dataValues[data]).append(" ")
+                        .append(colourLetter(dataColours[data++]));
+                case DOOR -> builder.append("Do ").append(dataValues[data]).append(" ")
+                        .append(colourLetter(dataColours[data++]));
+            }
+            if (cell < tileTypes.length - 1) {
+                builder.append((cell % width == width - 1) ? ",\n" : ",");
+            }
+        }
+
+        builder.append("\nPlayer\n").append(playerCell % width).append(" ").append(playerCell / width)
+                .append(" 0 { ");
+        for (int key : playerKeys) {
+            builder.append(key).append(" ");
+        }
+        builder.append("}\nActor\n");
+
+        for (int i = 0; i < actorCells.length; i++) {
+            final ActorType type = ACTOR_TYPES[actorTypes[i]];
+            builder.append(switch (type) {
+                case BOULDER -> "B";
+                case DIAMOND -> "Di";
+                case AMOEBA -> "A";
+                case FROG -> "F";
+                case BUTTERFLY -> "Bu";
+                default -> "Fi";
+            }).append(" ").append(actorCells[i] % width).append(" ").append(actorCells[i] / width);
+            if (type == ActorType.BUTTERFLY || type == ActorType.FIREFLY) {
+                builder.append(actorIsLeft[i] ? " L" : " R");
+            }
+            builder.append(",");
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Gets the width of the level.
+     *
+     * @return The width, in cells.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the level.
+     *
+     * @return The height, in cells.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the letter that stands for a key or door colour in our text format.
+     *
+     * @param colour The ordinal of the colour.
+     * @return The letter.
+     */
+    private static String colourLetter(final byte colour) {
+        return switch (COLOURS[colour]) {
+            case GREEN -> "G";
+            case RED -> "R";
+            case YELLOW -> "Y";
+            case BLUE -> "B";
+        };
+    }
+
+    /**
+     * Checks if a tile type carries extra data of its own.
+     *
+     * @param type The ordinal of the tile type.
+     * @return Whether it is a key, door or exit.
+     */
+    private static boolean hasData(final byte type) {
+        return type == TileType.EXIT.ordinal() || type == TileType.KEY.ordinal() || type == TileType.DOOR.ordinal();
+    }
+
+    /**
+     * Builds a {@link LevelTemplate} one tile and actor at a time, e.g. while reading a level file or generating a
+     * map. Every tile starts out as a wall.
+     */
+    public static final class Builder {
+        private final int width;
+        private final int height;
+        private final byte[] tileTypes;
+        private final int[] tileValues;
+        private final byte[] tileColours;
+        private final boolean[] isOccupied;
+        private float amoebaRate;
+        private int amoebaMax;
+        private int levelTimer;
+        private int diamondThreshold;
+        private int playerCell;
+        private HashSet<Integer> playerKeys;
+        private byte[] actorTypes;
+        private int[] actorCells;
+        private boolean[] actorIsLeft;
+        private int actorCount;
+
+        /**
+         * Constructs a builder for a level of a given size.
+         *
+         * @param width  The width of the level, in cells.
+         * @param height The height of the level, in cells.
+         */
+        public Builder(final int width, final int height) {
+            if (width <= 0 || height <= 0) {
+                throw new IllegalArgumentException(String.format("A level can't be %d by %d.", width, height));
+            }
+            this.width = width;
+            this.height = height;
+            tileTypes = new byte[width * height];
+            Arrays.fill(tileTypes, (byte) TileType.WALL.ordinal());
+            tileValues = new int[width * height];
+            tileColours = new byte[width * height];
+            isOccupied = new boolean[width * height];
+            amoebaRate = 1;
+            playerCell = -1;
+            playerKeys = new HashSet<>();
+            actorTypes = new byte[16];
+            actorCells = new int[16];
+            actorIsLeft = new boolean[16];
+            actorCount = 0;
+        }
+
+        /**
+         * Sets how amoebas behave in the level.
+         *
+         * @param rate The rate at which amoebas spread.
+         * @param max  The maximum size of an amoeba group.
+         * @return This builder.
+         */
+        public Builder setAmoeba(final float rate, final int max) {
+            amoebaRate = rate;
+            amoebaMax = max;
+            return this;
+        }
+
+        /**
+         * Sets how long the level lasts.
+         *
+         * @param levelTimer The level timer.
+         * @return This builder.
+         */
+        public Builder setLevelTimer(final int levelTimer) {
+            this.levelTimer = levelTimer;
+            return this;
+        }
+
+        /**
+         * Sets how many diamonds the player needs to collect.
+         *
+         * @param diamondThreshold The diamond threshold.
+         * @return This builder.
+         */
+        public Builder setDiamondThreshold(final int diamondThreshold) {
+            this.diamondThreshold = diamondThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the tile in a cell to one that carries no extra data.
+         *
+         * @param x    The column of the cell.
+         * @param y    The row of the cell.
+         * @param type The type of the tile. Use {@link #setExit}, {@link #setKey} or {@link #setDoor} for exits, keys
+         *             and doors.
+         * @return This builder.
+         */
+        public Builder setTile(final int x, final int y, final TileType type) {
+            if (hasData((byte) type.ordinal())) {
+                throw new IllegalArgumentException(String.format("A %s tile needs extra data.", type));
+            }
+            tileTypes[cell(x, y)] = (byte) type.ordinal();
+            return this;
+        }
+
+        /**
+         * Sets the tile in a cell to an exit.
+         *
+         * @param x                The column of the cell.
+         * @param y                The row of the cell.
+         * @param diamondThreshold The number of diamonds needed to use the exit.
+         * @return This builder.
+         */
+        public Builder setExit(final int x, final int y, final int diamondThreshold) {
+            final int cell = cell(x, y);
+            tileTypes[cell] = (byte) TileType.EXIT.ordinal();
+            tileValues[cell] = diamondThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the tile in a cell to a key.
+         *
+         * @param x      The column of the cell.
+         * @param y      The row of the cell.
+         * @param keyID  The ID of the key.
+         * @param colour The colour of the key.
+         * @return This builder.
+         */
+        public Builder setKey(final int x, final int y, final int keyID, final KeyDoorColour colour) {
+            final int cell = cell(x, y);
+            tileTypes[cell] = (byte) TileType.KEY.ordinal();
+            tileValues[cell] = keyID;
+            tileColours[cell] = (byte) colour.ordinal();
+            return this;
+        }
+
+        /**
+         * Sets the tile in a cell to a locked door.
+         *
+         * @param x      The column of the cell.
+         * @param y      The row of the cell.
+         * @param doorID The ID of the door.
+         * @param colour The colour of the door.
+         * @return This builder.
+         */
+        public Builder setDoor(final int x, final int y, final int doorID, final KeyDoorColour colour) {
+            final int cell = cell(x, y);
+            tileTypes[cell] = (byte) TileType.DOOR.ordinal();
+            tileValues[cell] = doorID;
+            tileColours[cell] = (byte) colour.ordinal();
+            return this;
+        }
+
+        /**
+         * Places the player.
+         *
+         * @param x             The column the player starts in.
+         * @param y             The row the player starts in.
+         * @param collectedKeys The IDs of the keys the player starts with.
+         * @return This builder.
+         */
+        public Builder setPlayer(final int x, final int y, final Set<Integer> collectedKeys) {
+            final int cell = cell(x, y);
+            if (playerCell != -1) {
+                isOccupied[playerCell] = false;
+            }
+            playerCell = cell;
+            isOccupied[cell] = true;
+            playerKeys = new HashSet<>(collectedKeys);
+            return this;
+        }
+
+        /**
+         * Places an actor other than the player, or a butterfly or firefly that follows the wall on its right.
+         *
+         * @param type The type of actor.
+         * @param x    The column the actor starts in.
+         * @param y    The row the actor starts in.
+         * @return This builder.
+         */
+        public Builder addActor(final ActorType type, final int x, final int y) {
+            return addActor(type, x, y, false);
+        }
+
+        /**
+         * Places an actor other than the player. Actors are added to the level in the order they are placed.
+         *
+         * @param type   The type of actor.
+         * @param x      The column the actor starts in.
+         * @param y      The row the actor starts in.
+         * @param isLeft Whether a butterfly or firefly follows the wall on its left. Ignored for other actors.
+         * @return This builder.
+         */
+        public Builder addActor(final ActorType type, final int x, final int y, final boolean isLeft) {
+            if (type == ActorType.PLAYER) {
+                throw new IllegalArgumentException("The player is placed with setPlayer.");
+            }
+            final int cell = cell(x, y);
+            if (isOccupied[cell]) {
+                throw new IllegalArgumentException(String.format("Tile (%d, %d) is already occupied.", x, y));
+            }
+            if (actorCount == actorCells.length) {
+                actorTypes = Arrays.copyOf(actorTypes, actorCount * 2);
+                actorCells = Arrays.copyOf(actorCells, actorCount * 2);
+                actorIsLeft = Arrays.copyOf(actorIsLeft, actorCount * 2);
+            }
+            actorTypes[actorCount] = (byte) type.ordinal();
+            actorCells[actorCount] = cell;
+            actorIsLeft[actorCount] = isLeft;
+            actorCount++;
+            isOccupied[cell] = true;
+            return this;
+        }
+
+        /**
+         * Checks if the player or an actor has been placed in a cell.
+         *
+         * @param x The column of the cell.
+         * @param y The row of the cell.
+         * @return Whether the cell is occupied.
+         */
+        public boolean isOccupied(final int x, final int y) {
+            return isOccupied[cell(x, y)];
+        }
+
+        /**
+         * Gets the type of the tile in a cell so far.
+         *
+         * @param x The column of the cell.
+         * @param y The row of the cell.
+         * @return The type of the tile.
+         */
+        public TileType getTileType(final int x, final int y) {
+            return TILE_TYPES[tileTypes[cell(x, y)]];
+        }
+
+        /**
+         * Builds the template. The builder can carry on being used afterwards without affecting the template.
+         *
+         * @return The template.
+         */
+        public LevelTemplate build() {
+            if (playerCell == -1) {
+                throw new IllegalStateException("A level needs a player.");
+            }
+            return new LevelTemplate(this);
+        }
+
+        /**
+         * Finds the index of a cell, checking it is in the level.
+         *
+         * @param x The column of the cell.
+         * @param y The row of the cell.
+         * @return The index of the cell.
+         */
+        private int cell(final int x, final int y) {
+            if (x < 0 || x >= width || y < 0 || y >= height) {
+                throw new IndexOutOfBoundsException(String.format("Tile (%d, %d) is out of bounds.", x, y));
+            }
+            return y * width + x;
+        }
+    }
+}
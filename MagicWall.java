@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a Magic Wall tile in the game. The Magic Wall has special behavior that interacts with certain types of actors
  * (such as Boulder and Diamond). It allows for the transformation of these actors when they are positioned above the Magic Wall.
@@ -9,7 +7,6 @@ import javafx.scene.image.Image;
 public class MagicWall extends Tile {
 
 
-    private static final Image IMAGE = new Image("MagicWall.jpg");
 
     /**
      * Constructor to create a MagicWall tile at a specific position.
@@ -21,16 +18,6 @@ public class MagicWall extends Tile {
         super(true, x, y, TileType.MAGIC_WALL);
     }
 
-    /**
-     * Returns the image associated with the MagicWall.
-     *
-     * @return The image of the MagicWall.
-     */
-    @Override
-    public Image getImage() {
-        return IMAGE;
-    }
-
     /**
      * Updates the state of the Magic Wall tile. It checks the actor above the Magic Wall and transforms it
      * (either from Boulder to Diamond or from Diamond to Boulder) if it is one of the specified types.
@@ -1,5 +1,9 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Generates a map for the game which fits the required specifications.
@@ -7,15 +11,15 @@ import java.util.List;
  * @author Adrian
  */
 public class MapGenerator {
-    //Width and Height
-    private static int columns;
-    private static int rows;
+    //Width and Height, per generator so that maps can be generated on several threads
+    private final int columns;
+    private final int rows;
 
     //main grid
     private float[][] field;
 
     //cave identification grid
-    private final float[][] caveMap;
+    private final int[][] caveMap;
     private int caveCount;
     private final List<int[]> caveOrigin;
 
@@ -38,7 +42,7 @@ public class MapGenerator {
     private static final int KEY_AND_DOOR_COUNT = 1;
     private static final int FIREFLY_COUNT = 12;
     private static final int EXIT_COUNT = 1;
-    private static final String[] DOOR_COLOUR = {"R"};
+    private static final KeyDoorColour[] DOOR_COLOUR = {KeyDoorColour.RED};
     private static final int COLOUR_INDEX = 0;
 
 
@@ -58,12 +62,16 @@ public class MapGenerator {
     private static final float FLY_SPAWNING_CHANCE = 0.5f;
     private static final float STONE_SPAWNING_CHANCE = 0.45f;
 
-    //encoding
-    private static final boolean RUN_LENGTH_ENCODE = false;
+    //level settings
+    private static final float AMOEBA_RATE = 1.0f;
+    private static final int AMOEBA_MAX = 30;
+    private static final int COMPLETION_TIME = 230;
+    private static final int DIAMOND_THRESHOLD = 12;
 
     //blurring values
     private static final int BLUR_ITERATIONS = 10;
     private static final int BLUR_CELLS_AMOUNT = 5;
+    private static final int BLUR_BAND_CELLS = 1 << 15;
 
     /**
      * Constructor for the MapGenerator class that initializes...
@@ -77,176 +85,104 @@ public class MapGenerator {
         columns = canvasHeight / tileSize;
         rows = canvasWidth / tileSize;
         field = new float[columns][rows];
-        caveMap = new float[columns][rows];
+        caveMap = new int[columns][rows];
         caveCount = 0;
         caveOrigin = new ArrayList<>();
     }
 
     /**
-     * Generates a map in the level file format as a string.
-     * This method processes the map and encodes it in a...
-     * ...specific format for further use.
+     * Generates a map as a level template, placing every tile and actor...
+     * ...straight into the template rather than going through the level file format.
      *
-     * @return the map in string format
+     * @return the map as a level template
      */
-    public String createMap() {
+    public LevelTemplate createTemplate() {
         //calls the process to run all the steps in
         //creating a randomly generated map
 
         mapProcess();
 
-        //pre grid and actor format stuff
-        String gameSectionInfo = "Level\n";
-        gameSectionInfo += "1.0\n"; //amoeba rate
-        gameSectionInfo += "30\n"; //AMOEBA MAX
-        gameSectionInfo += "230\n"; //completionTime
-        gameSectionInfo += "12\n"; //diamond threshold
-
-
+        LevelTemplate.Builder builder = new LevelTemplate.Builder(rows, columns)
+                .setAmoeba(AMOEBA_RATE, AMOEBA_MAX)
+                .setLevelTimer(COMPLETION_TIME)
+                .setDiamondThreshold(DIAMOND_THRESHOLD);
 
-        //this is the string building stuff
-        String stringTileHeader = "Grid\n";
-        StringBuilder stringTileGrid = new StringBuilder();
-        StringBuilder stringPlayerHeader = new StringBuilder("Player\n");
-        StringBuilder stringActorGrid = new StringBuilder("Actor\n");
-        stringTileHeader += rows
-                + " " + columns + "\n";
-
-        //file format rules
+        //file format rules, j is the x-coordinate and i the y-coordinate
         for (int i = 0; i < columns; i++) {
             for (int j = 0; j < rows; j++) {
+                final float value = field[i][j];
                 //Grid Part
-                if (field[i][j] < STONE_THRESHOLD) {
-                    stringTileGrid.append("W"); //Wall
-                } else if (field[i][j] >= STONE_THRESHOLD
-                        && field[i][j] < DIRT_THRESHOLD) {
-                    stringTileGrid.append("D"); //Dirt
-                } else if (field[i][j] >= DIRT_THRESHOLD
-                        && field[i][j] < FLOOR_THRESHOLD) {
-                    stringTileGrid.append("P"); //Path
-                } else if (field[i][j] == TITANIUM_WALL) {
-                    stringTileGrid.append("T"); //Titanium Wall
-                } else if (field[i][j] == MAGIC_WALL_ID) {
-                    stringTileGrid.append("M"); // Magic wall
-                } else if (field[i][j] >= KEY_DOOR_THRESHOLD
-                        && field[i][j] % 1 == KEY_CALC_VAL) { //if key
-                    stringTileGrid.append("K" + " ").append((int) field[i][j])
-                            .append(" ").append(DOOR_COLOUR[COLOUR_INDEX]);
-                } else if (field[i][j] >= KEY_DOOR_THRESHOLD
-                        && field[i][j] % 1 == DOOR_CALC_VAL) { //if key
-                    stringTileGrid.append("Do" + " ").append((int) (field[i][j]
-                            - DOOR_CALC_VAL)).append(" ")
-                            .append(DOOR_COLOUR[COLOUR_INDEX]);
-
-                }else if (field[i][j] == EXIT_ID) {
-                    stringTileGrid.append("E 0");
-                    //players part
-                } else if (field[i][j] == PLAYER_ID) {
-                    stringPlayerHeader.append(j).append(" ")
-                            .append(i).append(" 0 { 0 }\n");
-                    stringTileGrid.append("P");
-                    //Actors part
-                } else if (field[i][j] == DIAMOND_ID) {
-                    stringActorGrid.append("Di" + " ")
-                            .append(j).append(" ").append(i).append(",");
-                    //Diamond
-                    stringTileGrid.append("P");
-                } else if (field[i][j] == BOULDER_ID) {
-                    stringActorGrid.append("B" + " ")
-                            .append(j).append(" ")
-                            .append(i).append(","); //Boulder
-                    stringTileGrid.append("P");
-                } else if (field[i][j] == BUTTERFLY_ID) {
-                    stringActorGrid.append("Bu" + " ")
-                            .append(j).append(" ").append(i).append(" ")
-                            .append(Math.random()
-                                    > FLY_SPAWNING_CHANCE ? "L" : "R")
-                            .append(","); //Butterfly
-                    stringTileGrid.append("P");
-                } else if (field[i][j] == FIREFLY_ID) {
-                    stringActorGrid.append("Fi" + " ").append(j).append(" ")
-                            .append(i).append(" ")
-                            .append(Math.random()
-                                    > FLY_SPAWNING_CHANCE ? "L" : "R")
-                            .append(","); //FIREFLY
-                    stringTileGrid.append("P");
-                } else if (field[i][j] == AMOEBA_ID) {
-                    stringActorGrid.append("A" + " ").append(j)
-                            .append(" ").append(i).append(","); //Amoeba
-                    stringTileGrid.append("P");
-                } else if (field[i][j] == FROG_ID) {
-                    stringActorGrid.append("F" + " ").append(j)
-                            .append(" ").append(i).append(","); //Frog
-                    stringTileGrid.append("P");
+                if (value < STONE_THRESHOLD) {
+                    builder.setTile(j, i, TileType.WALL); //Wall
+                } else if (value < DIRT_THRESHOLD) {
+                    builder.setTile(j, i, TileType.DIRT); //Dirt
+                } else if (value < FLOOR_THRESHOLD) {
+                    builder.setTile(j, i, TileType.PATH); //Path
+                } else if (value == TITANIUM_WALL) {
+                    builder.setTile(j, i, TileType.TITANIUM_WALL);
+                } else if (value == MAGIC_WALL_ID) {
+                    builder.setTile(j, i, TileType.MAGIC_WALL);
+                } else if (value >= KEY_DOOR_THRESHOLD
+                        && value % 1 == KEY_CALC_VAL) { //if key
+                    builder.setKey(j, i, (int) value,
+                            DOOR_COLOUR[COLOUR_INDEX]);
+                } else if (value >= KEY_DOOR_THRESHOLD
+                        && value % 1 == DOOR_CALC_VAL) { //if door
+                    builder.setDoor(j, i, (int) (value - DOOR_CALC_VAL),
+                            DOOR_COLOUR[COLOUR_INDEX]);
+                } else if (value == EXIT_ID) {
+                    builder.setExit(j, i, 0);
                 } else {
-                    stringTileGrid.append("P");
+                    //everything else stands on a path
+                    builder.setTile(j, i, TileType.PATH);
+                    placeActor(builder, value, j, i);
                 }
-
-                stringTileGrid.append(",");
             }
-            stringTileGrid.append("\n");
         }
 
-        if (RUN_LENGTH_ENCODE) {
-            stringTileGrid = new StringBuilder(stringTileHeader
-                    + runLengthEncode(stringTileGrid.toString()));
-        }
-
-        //final format is a concatenation of all the
-        //...different sections of the level file format
-        String finalFormat = gameSectionInfo + stringTileHeader
-                + stringTileGrid + stringPlayerHeader + stringActorGrid;
-
-        return finalFormat;
+        return builder.build();
     }
 
     /**
-     * Performs run-length encoding on the grid for optimization.
+     * Generates a map in the level file format as a string.
+     * This is an optional side output of {@link #createTemplate()},...
+     * ...e.g. for saving a generated map to a file.
      *
-     * @param stringGrid the string representation of the grid
-     * @return the run-length encoded grid string
+     * @return the map in string format
      */
-    private String runLengthEncode(final String stringGrid) {
-
-        //the overall grid as a string
-        StringBuilder finalGrid = new StringBuilder();
-
-        //runs through every line of the grid
-        for (String line : stringGrid.split("\n")) {
-
-            //removes any commas added so far
-            //basically added so I can turn runLength encode on and off
-            String[] tiles = line.split(",");
-
-            int count = 1;
-            String currentTile = tiles[0];
-            StringBuilder curLine = new StringBuilder();
-
-            for (int i = 1; i < tiles.length; i++) {
-
-                //if its seen the same value again
-                if (tiles[i].equals(currentTile)) {
-                    count++;
-
-                    //otherwise it appends to the line
-                    //how many times it saw the currentValue
-                } else {
-                    curLine.append(count).append(" ")
-                            .append(currentTile).append(",");
-                    currentTile = tiles[i];
-                    count = 1;
-                }
-
-            }
-            curLine.append(count).append(" ").append(currentTile).append(",");
-            finalGrid.append(curLine).append("\n");
+    public String createMap() {
+        return createTemplate().toText();
+    }
 
+    /**
+     * Places the player or actor that a cell's value stands for, if any.
+     *
+     * @param builder the template being built
+     * @param value the value of the cell in the field
+     * @param x the x-coordinate of the cell
+     * @param y the y-coordinate of the cell
+     */
+    private void placeActor(final LevelTemplate.Builder builder,
+                            final float value, final int x, final int y) {
+        if (value == PLAYER_ID) {
+            builder.setPlayer(x, y, Set.of(0));
+        } else if (value == DIAMOND_ID) {
+            builder.addActor(ActorType.DIAMOND, x, y);
+        } else if (value == BOULDER_ID) {
+            builder.addActor(ActorType.BOULDER, x, y);
+        } else if (value == BUTTERFLY_ID) {
+            builder.addActor(ActorType.BUTTERFLY, x, y,
+                    Math.random() > FLY_SPAWNING_CHANCE);
+        } else if (value == FIREFLY_ID) {
+            builder.addActor(ActorType.FIREFLY, x, y,
+                    Math.random() > FLY_SPAWNING_CHANCE);
+        } else if (value == AMOEBA_ID) {
+            builder.addActor(ActorType.AMOEBA, x, y);
+        } else if (value == FROG_ID) {
+            builder.addActor(ActorType.FROG, x, y);
         }
-        //System.out.println(finalGrid);
-        return finalGrid.toString();
     }
 
-
     /**
      * Runs all the steps necessary to generate...
      * ...a random map and return it as a 2D array
@@ -292,46 +228,35 @@ public class MapGenerator {
     /**
      * Applies a blurring algorithm to smooth...
      * ...out jagged map edges and create caves.
+     * Each pass reads one flat buffer and writes the other, so nothing...
+     * ...is allocated per pass, and big maps are blurred in bands...
+     * ...of rows across the common fork/join pool.
      *
-     * @param grid the grid to be blurred
+     * @param grid the grid to be blurred, which is blurred in place
      * @return the blurred grid
      */
     private float[][] blur(final float[][] grid) {
-        float[][] localGrid = grid;
-        float left;
-        float up;
+        //the grid as one array, row after row
+        float[] source = new float[columns * rows];
+        for (int i = 0; i < columns; i++) {
+            System.arraycopy(grid[i], 0, source, i * rows, rows);
+        }
+        float[] target = new float[columns * rows];
 
         //for every cell in the grid, average its gird value from 4 around it
         //this is the blurring process
         for (int h = 0; h < BLUR_ITERATIONS; h++) {
-            float[][] newGrid = new float[columns][rows];
-            for (int i = 1; i < columns; i++) {
-                for (int j = 1; j < rows; j++) {
-
-                    //gathering blocks around the cell being checked
-                    //taking borders into account
-                    if (i - 1 < 1) {
-                        left = localGrid[columns - 1][j];
-                    } else {
-                        left = localGrid[i - 1][j];
-                    }
-                    float right = localGrid[(i + 1) % columns][j];
-                    if (j - 1 < 1) {
-                        up = localGrid[i][rows - 1];
-                    } else {
-                        up = localGrid[i][j - 1];
-                    }
-                    float down = localGrid[i][(j + 1) % rows];
-                    float middle = localGrid[i][j];
+            blurPass(source, target);
+            //finally swapping the buffers, so the next pass...
+            //...reads the values in each cell just written
+            float[] swap = source;
+            source = target;
+            target = swap;
+        }
 
-                    //creating a new value for the current cell
-                    float average = (left + right + up + down + middle)
-                            / BLUR_CELLS_AMOUNT;
-                    newGrid[i][j] = average;
-                }
-            }
-            //finally updating the gird with the values in each cell
-            localGrid = newGrid;
+        float[][] localGrid = grid;
+        for (int i = 0; i < columns; i++) {
+            System.arraycopy(source, i * rows, localGrid[i], 0, rows);
         }
 
         //adding a stone border around the map
@@ -346,10 +271,34 @@ public class MapGenerator {
         return localGrid;
     }
 
+    /**
+     * Runs one pass of the blur.
+     *
+     * @param source the grid before the pass, row after row
+     * @param target the grid to write the pass into, row after row
+     */
+    private void blurPass(final float[] source, final float[] target) {
+        //the first row and column are never blurred, they are left at 0
+        Arrays.fill(target, 0, rows, 0);
+        for (int i = 1; i < columns; i++) {
+            target[i * rows] = 0;
+        }
+
+        BlurBand band = new BlurBand(source, target, columns, rows,
+                1, columns);
+        if ((long) columns * rows <= BLUR_BAND_CELLS) {
+            //not worth handing to other threads
+            band.blurRows();
+        } else {
+            ForkJoinPool.commonPool().invoke(band);
+        }
+    }
+
     /**
      * Identifies all the caves in the grid and assigns them unique IDs.
      */
     private void identifyCaves() {
+        CaveFill caveFill = new CaveFill(field, caveMap, STONE_THRESHOLD);
         for (int i = 0; i < columns; i++) {
             for (int j = 0; j < rows; j++) {
 
@@ -362,7 +311,7 @@ public class MapGenerator {
                     //updates amount of caves
                     caveCount++;
                     //flood fill
-                    addToGroup(i, j, caveCount);
+                    caveFill.fill(i, j, caveCount);
                     //keeping track of the origin cell
                     //that started the flood fill
                     caveOrigin.add(new int[]{i, j});
@@ -371,28 +320,6 @@ public class MapGenerator {
         }
     }
 
-    /**
-     * Recursively adds cells to a cave group by performing a flood fill.
-     *
-     * @param x the x-coordinate of the starting cell
-     * @param y the y-coordinate of the starting cell
-     * @param caveID the unique ID of the cave
-     */
-    private void addToGroup(final int x, final int y, final int caveID) {
-
-        //if the cell is being checked is stone
-        //OR its already seen this cell before
-        if (field[x][y] < STONE_THRESHOLD || caveMap[x][y] != 0) {
-            return;
-        }
-
-        caveMap[x][y] = caveID;
-        addToGroup(x + 1, y, caveID);
-        addToGroup(x - 1, y, caveID);
-        addToGroup(x, y + 1, caveID);
-        addToGroup(x, y - 1, caveID);
-    }
-
     /**
      * Connects the caves by carving tunnels...
      * ...between the origin points of each cave.
@@ -428,4 +355,80 @@ public class MapGenerator {
             localStartY += (endY > localStartY) ? 1 : -1;
         }
     }
+
+    /**
+     * A band of rows of one blur pass, split in half...
+     * ...until each band is small enough to blur on its own.
+     */
+    private static final class BlurBand extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final float[] source;
+        private final float[] target;
+        private final int columns;
+        private final int rows;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructs a band of a blur pass.
+         *
+         * @param source the grid before the pass, row after row
+         * @param target the grid to write the pass into, row after row
+         * @param columns the number of rows in the grid
+         * @param rows the length of each row in the grid
+         * @param from the first row of the band, inclusive
+         * @param to the last row of the band, exclusive
+         */
+        private BlurBand(final float[] source, final float[] target,
+                         final int columns, final int rows,
+                         final int from, final int to) {
+            this.source = source;
+            this.target = target;
+            this.columns = columns;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Blurs the band, splitting it first if it is too big.
+         */
+        @Override
+        protected void compute() {
+            if (to - from < 2 || (long) (to - from) * rows <= BLUR_BAND_CELLS) {
+                blurRows();
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BlurBand(source, target, columns, rows,
+                                from, middle),
+                        new BlurBand(source, target, columns, rows,
+                                middle, to));
+            }
+        }
+
+        /**
+         * Blurs every row of the band on this thread.
+         */
+        private void blurRows() {
+            for (int i = from; i < to; i++) {
+                //gathering rows around the row being checked
+                //taking borders into account
+                final int row = i * rows;
+                final int leftRow = (i - 1 < 1 ? columns - 1 : i - 1) * rows;
+                final int rightRow = ((i + 1) % columns) * rows;
+                for (int j = 1; j < rows; j++) {
+                    float left = source[leftRow + j];
+                    float right = source[rightRow + j];
+                    float up = source[row + (j - 1 < 1 ? rows - 1 : j - 1)];
+                    float down = source[row + (j + 1 < rows ? j + 1 : 0)];
+                    float middle = source[row + j];
+
+                    //creating a new value for the current cell
+                    target[row + j] = (left + right + up + down + middle)
+                            / BLUR_CELLS_AMOUNT;
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,80 @@
+import java.util.Objects;
+
+/**
+ * A simple immutable pair of values, used for grid coordinates throughout the simulation.
+ * This stands in for {@code javafx.util.Pair} so the game logic can run without the JavaFX toolkit.
+ *
+ * @param <K> The type of the first value (the x-coordinate for grid positions).
+ * @param <V> The type of the second value (the y-coordinate for grid positions).
+ * @author Sam
+ */
+public class Pair<K, V> {
+    private final K key;
+    private final V value;
+
+    /**
+     * Constructs a new pair.
+     *
+     * @param key   The first value.
+     * @param value The second value.
+     */
+    public Pair(final K key, final V value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * Gets the first value of the pair.
+     *
+     * @return The first value.
+     */
+    public K getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the second value of the pair.
+     *
+     * @return The second value.
+     */
+    public V getValue() {
+        return value;
+    }
+
+    /**
+     * Two pairs are equal if both of their values are equal.
+     *
+     * @param other The object to compare against.
+     * @return Whether the pairs hold equal values.
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Pair<?, ?> pair)) {
+            return false;
+        }
+        return Objects.equals(key, pair.key) && Objects.equals(value, pair.value);
+    }
+
+    /**
+     * A hash code consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code of this pair.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, value);
+    }
+
+    /**
+     * Returns a string representation of the pair.
+     *
+     * @return The pair in the form key=value.
+     */
+    @Override
+    public String toString() {
+        return key + "=" + value;
+    }
+}
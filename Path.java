@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a Path tile in a grid-based game. Inherits from the {@link Tile} class.
  * This class provides functionality specific to Path tiles, such as image representation
@@ -9,7 +7,6 @@ import javafx.scene.image.Image;
  */
 public class Path extends Tile {
 
-    private static final Image IMAGE = new Image("path.png");
 
     /**
      * Constructs a new Path tile at the specified coordinates.
@@ -21,16 +18,6 @@ public class Path extends Tile {
         super(true, x, y, TileType.PATH);
     }
 
-    /**
-     * Returns the image associated with this Path tile.
-     *
-     * @return The image for the Path tile.
-     */
-    @Override
-    public Image getImage() {
-        return IMAGE;
-    }
-
     /**
      * Determines whether the given actor can walk on this Path tile.
      * In this case, all actors are allowed to walk on a Path tile.
@@ -1,64 +1,52 @@
-import javafx.util.Pair;
-
-import java.util.*;
-import java.lang.Math;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
 
 /**
- * Represents a node in a graph used for pathfinding algorithms such as A*.
- * Each node corresponds to a position in a grid and contains information about
- * its edges, costs, and position.
+ * A class that implements the A* pathfinding algorithm. It calculates the shortest path
+ * from a starting point to an endpoint in a grid, considering walkable tiles and obstacles.
  *
- * @author Sam
- */
-class Node {
-    public ArrayList<Pair<Integer, Integer>> edges;
-    public float cost;
-    public float estimatedCost;
-    public Node previous;
-    public Pair<Integer, Integer> position;
-}
-
-/**
- * A comparator for comparing two {@link Node} objects based on their estimated cost.
- * This comparator is used in pathfinding algorithms like A* to prioritize nodes with
- * the lowest estimated cost (i.e., the sum of the cost to reach the node and the heuristic estimate to the goal).
+ * Cells are identified by their index in the grid ({@code y * width + x}) and all search state lives in flat arrays
+ * that are kept between searches, so once the arrays have grown to the size of the grid a search allocates nothing.
+ * Rather than clearing the arrays before each search, every cell is stamped with the number of the search that last
+ * touched it and anything with an old stamp is treated as unvisited. The open set is a binary heap of cell indices
+ * that tracks where each cell sits in it, so a cell's priority can be lowered in place.
+ *
+ * Moves are between orthogonally adjacent cells and all cost 1, so the Manhattan distance is used as the heuristic.
  *
  * @author Sam
  */
-class NodeComparator implements Comparator<Node> {
+public class Pathfinder {
+    private static final int NOT_IN_HEAP = -1;
+    private static final int CLOSED = -2;
+    private static final int NO_CELL = -1;
+
+    private int[] cost;
+    private int[] estimatedCost;
+    private int[] previous;
+    private int[] heapIndex;
+    private int[] searchStamp;
+    private int[] heap;
+    private int heapSize;
+    private int search;
+
+    private int[] path;
+    private int pathLength;
+
     /**
-     * Compares two nodes based on their estimated total cost.
-     * The comparison is done by first checking the estimated cost of the nodes.
-     * This is used by the A* algorithm to prioritize nodes with the lowest estimated cost.
-     *
-     * @param left  the first node to be compared.
-     * @param right the second node to be compared.
-     * @return a negative integer if the estimated cost of the left node is less than that of the right node,
-     *         zero if they are equal, or a positive integer if the estimated cost of the left node is greater.
+     * Constructs a pathfinder. Its buffers are sized on the first search.
      */
-    @Override
-    public int compare(Node left, Node right) {
-        if (left.estimatedCost < right.estimatedCost) {
-            return -1;
-        } else if (left.estimatedCost == right.estimatedCost) {
-            return 0;
-        } else {
-            return 1;
-        }
-        //Magic numbers but specified in the interface's docs.
+    public Pathfinder() {
+        cost = new int[0];
+        estimatedCost = new int[0];
+        previous = new int[0];
+        heapIndex = new int[0];
+        searchStamp = new int[0];
+        heap = new int[0];
+        path = new int[0];
+        search = 0;
     }
-}
 
-/**
- * A class that implements the A* pathfinding algorithm. It calculates the shortest path
- * from a starting point to an endpoint in a grid, considering walkable tiles and obstacles.
- *
- * The algorithm uses a heuristic function (Euclidean distance) to estimate the cost to the goal
- * and combines it with the actual cost of traveling to a node (BFS cost).
- *
- * @author Sam
- */
-public class Pathfinder {
     /**
      * Finds the shortest path from a starting point to an endpoint using A* pathfinding algorithm.
      *
@@ -69,138 +57,287 @@ public class Pathfinder {
      * @param grid The grid representation of the environment.
      * @param requester The Actor who is requesting the path.
      * @return A queue containing the sequence of coordinates representing the shortest path from start to end.
+     * @see #findPath(int, int, int, int, Grid, Actor)
      */
     Queue<Pair<Integer, Integer>> ShortestPath(int startX, int startY, int endX, int endY, Grid grid, Actor requester) {
+        final int length = findPath(startX, startY, endX, endY, grid, requester);
+
+        final LinkedList<Pair<Integer, Integer>> out = new LinkedList<>();
+        for (int i = 0; i < length; i++) {
+            out.add(new Pair<>(path[i] % grid.getWidth(), path[i] / grid.getWidth()));
+        }
+        return out;
+    }
+
+    /**
+     * Finds the shortest path from a starting point to an endpoint without allocating. The path can be read back with
+     * {@link #getPathCell(int)} until the next search. It begins with the starting cell and ends with the endpoint.
+     * A cell is only walkable if the requester can walk on its tile and it has no occupier, except the endpoint,
+     * which will usually be occupied by whatever the requester is after.
+     *
+     * @param startX The x-coordinate of the starting point.
+     * @param startY The y-coordinate of the starting point.
+     * @param endX The x-coordinate of the endpoint.
+     * @param endY The y-coordinate of the endpoint.
+     * @param grid The grid representation of the environment.
+     * @param requester The Actor who is requesting the path.
+     * @return The number of cells in the path, or 0 if there is no path.
+     */
+    int findPath(int startX, int startY, int endX, int endY, Grid grid, Actor requester) {
+        final int width = grid.getWidth();
+        ensureCapacity(width * grid.getHeight());
+        nextSearch();
 
-        Pair<Integer, Integer> startCoord = new Pair<>(startX, startY);
-        Pair<Integer, Integer> endCoord = new Pair<>(endX, endY);
+        final int start = startY * width + startX;
+        final int end = endY * width + endX;
 
-        HashMap<Pair<Integer, Integer>, Node> graph = convertToGraphRepresentation(requester, grid, endCoord);
+        touch(start);
+        cost[start] = 0;
+        estimatedCost[start] = manhattanHeuristic(startX, startY, endX, endY);
+        push(start);
 
-        graph.get(startCoord).cost = 0;
-        graph.get(startCoord).estimatedCost = 0;
+        //Citation: https://en.wikipedia.org/wiki/A*_search_algorithm
+        while (heapSize > 0) {
+            final int front = pop();
+            if (front == end) {
+                break;
+            }
 
+            final int x = front % width;
+            final int y = front / width;
+            relax(front, x + 1, y, end, endX, endY, grid, requester);
+            relax(front, x - 1, y, end, endX, endY, grid, requester);
+            relax(front, x, y + 1, end, endX, endY, grid, requester);
+            relax(front, x, y - 1, end, endX, endY, grid, requester);
+        }
 
-        return pathfind(graph, startCoord, endCoord);
+        return backtrack(end);
     }
 
     /**
-     * Performs the A* pathfinding algorithm to find the shortest path between a start and end node.
+     * Gets a cell of the path found by the most recent search.
      *
-     * @param graph The graph representation of the environment.
-     * @param start The starting point in the graph.
-     * @param end The endpoint in the graph.
-     * @return A queue containing the sequence of coordinates representing the shortest path from start to end.
+     * @param index The position in the path, from 0 (the starting cell) to the path length - 1 (the endpoint).
+     * @return The index of the cell, i.e. {@code y * width + x}.
      */
-    private Queue<Pair<Integer, Integer>> pathfind(final HashMap<Pair<Integer, Integer>, Node> graph, Pair<Integer, Integer> start, Pair<Integer, Integer> end) {
-        NodeComparator comparator = new NodeComparator();
-        PriorityQueue<Node> queue = new PriorityQueue<>(comparator);
-
-        for (Node node : graph.values()) {
-            queue.offer(node);
+    int getPathCell(int index) {
+        if (index < 0 || index >= pathLength) {
+            throw new IndexOutOfBoundsException("Path index " + index + " out of bounds.");
         }
+        return path[index];
+    }
 
-        //Citation: https://en.wikipedia.org/wiki/A*_search_algorithm
-        while (!queue.isEmpty()) {
-            Node front = queue.poll();
+    /**
+     * Tries to reach a neighbouring cell through the cell at the front of the open set.
+     *
+     * @param front The cell being expanded.
+     * @param x The x-coordinate of the neighbour.
+     * @param y The y-coordinate of the neighbour.
+     * @param end The index of the endpoint.
+     * @param endX The x-coordinate of the endpoint.
+     * @param endY The y-coordinate of the endpoint.
+     * @param grid The grid being searched.
+     * @param requester The Actor who is requesting the path.
+     */
+    private void relax(int front, int x, int y, int end, int endX, int endY, Grid grid, Actor requester) {
+        if (x < 0 || y < 0 || x >= grid.getWidth() || y >= grid.getHeight()) {
+            return;
+        }
 
-            for (Pair<Integer, Integer> neighbour : front.edges) {
-                Node node = graph.get(neighbour);
+        final int neighbour = y * grid.getWidth() + x;
 
-                final boolean shorterPath = front.cost + 1 < node.cost + 1;
+        //Only walk onto free tiles OR (special case) the final destination, which won't be free cuz the player is on it.
+        if (neighbour != end
+                && (!grid.actorCanWalkOn(x, y, requester) || grid.getOccupier(x, y) != null)) {
+            return;
+        }
 
+        touch(neighbour);
+        if (heapIndex[neighbour] == CLOSED) {
+            return;
+        }
 
-                if (shorterPath) {
-                    node.cost = front.cost + 1;
-                    node.estimatedCost = node.cost + euclideanHeuristic(node.position, end);
-                    node.previous = front;
+        final int newCost = cost[front] + 1;
+        if (newCost < cost[neighbour]) {
+            cost[neighbour] = newCost;
+            estimatedCost[neighbour] = newCost + manhattanHeuristic(x, y, endX, endY);
+            previous[neighbour] = front;
 
-                    if (queue.contains(node)) {
-                        queue.remove(node);
-                        queue.add(node); //Priority queue doesn't update upon priority change, work-around.
-                    }
-                }
+            if (heapIndex[neighbour] == NOT_IN_HEAP) {
+                push(neighbour);
+            } else {
+                siftUp(heapIndex[neighbour]);
             }
-
         }
-
-        return backtrack(start, end, graph);
     }
 
     /**
-     * Backtracks from the end node to the start node to construct the path taken.
+     * Backtracks from the end cell to the start cell, storing the path taken in order.
      *
-     * @param startNode The starting coordinate.
-     * @param endNode The ending coordinate.
-     * @param graph The graph representing the environment.
-     * @return A queue containing the path from start to end, in order.
+     * @param end The index of the ending cell.
+     * @return The number of cells in the path, or 0 if the end was never reached.
      */
-    private Queue<Pair<Integer, Integer>> backtrack(Pair<Integer, Integer> startNode, Pair<Integer, Integer> endNode, final HashMap<Pair<Integer, Integer>, Node> graph) {
-        //Citation: https://en.wikipedia.org/wiki/A*_search_algorithm
-        LinkedList<Pair<Integer, Integer>> linkedList = new LinkedList<>();
-        Node currentNode = graph.get(endNode);
-        if (currentNode.estimatedCost == Float.POSITIVE_INFINITY) {
-            return linkedList; //No path, avoids deadlock below.
+    private int backtrack(int end) {
+        pathLength = 0;
+        if (searchStamp[end] != search || cost[end] == Integer.MAX_VALUE) {
+            return 0; //No path.
         }
-        while (currentNode != null && currentNode.position != startNode) {
-            linkedList.add(currentNode.position);
-            currentNode = currentNode.previous;
+
+        pathLength = cost[end] + 1;
+        int cell = end;
+        for (int i = pathLength - 1; i >= 0; i--) {
+            path[i] = cell;
+            cell = previous[cell];
         }
-        return linkedList.reversed();
+        return pathLength;
     }
 
     /**
-     * Converts the grid into a graph representation, excluding any non-walkable tiles or tiles
-     * where the Actor cannot walk (e.g., tiles occupied by enemies or obstacles).
+     * Grows the buffers so that they can hold a grid with the given number of cells.
      *
-     * @param requester The Actor requesting the path.
-     * @param grid The grid to convert to a graph.
-     * @param endCoord The coordinates of the destination tile.
-     * @return A map of coordinates to their respective Node objects.
+     * @param cells The number of cells in the grid.
      */
-    private HashMap<Pair<Integer, Integer>, Node> convertToGraphRepresentation(Actor requester, Grid grid, Pair<Integer, Integer> endCoord) {
-        HashMap<Pair<Integer, Integer>, Node> graph = new HashMap<>();
-
-
-        final Actor target = grid.getTile(endCoord.getKey(), endCoord.getValue()).getOccupier();
+    private void ensureCapacity(int cells) {
+        if (cost.length >= cells) {
+            return;
+        }
+        cost = new int[cells];
+        estimatedCost = new int[cells];
+        previous = new int[cells];
+        heapIndex = new int[cells];
+        searchStamp = new int[cells];
+        heap = new int[cells];
+        path = new int[cells];
+    }
 
+    /**
+     * Starts a new search, making every cell unvisited.
+     */
+    private void nextSearch() {
+        heapSize = 0;
+        search++;
+        if (search == Integer.MAX_VALUE) { //Stamps would repeat, so start them again from scratch.
+            Arrays.fill(searchStamp, 0);
+            search = 1;
+        }
+    }
 
-        for (int y = 0; y < grid.getHeight(); y++) {
-            for (int x = 0; x < grid.getWidth(); x++) {
+    /**
+     * Resets a cell's search state if this search has not visited it yet.
+     *
+     * @param cell The index of the cell.
+     */
+    private void touch(int cell) {
+        if (searchStamp[cell] != search) {
+            searchStamp[cell] = search;
+            cost[cell] = Integer.MAX_VALUE;
+            estimatedCost[cell] = Integer.MAX_VALUE;
+            previous[cell] = NO_CELL;
+            heapIndex[cell] = NOT_IN_HEAP;
+        }
+    }
 
-                Pair<Integer, Integer> coord = new Pair<>(x, y);
-                Node node = new Node();
+    /**
+     * Adds a cell to the open set.
+     *
+     * @param cell The index of the cell.
+     */
+    private void push(int cell) {
+        heap[heapSize] = cell;
+        heapIndex[cell] = heapSize;
+        siftUp(heapSize++);
+    }
 
-                node.edges = new ArrayList<>();
-                node.cost = Float.POSITIVE_INFINITY;
-                node.estimatedCost = Float.POSITIVE_INFINITY;
-                node.previous = null;
-                node.position = coord;
+    /**
+     * Removes the cell with the lowest estimated cost from the open set and closes it.
+     *
+     * @return The index of the cell.
+     */
+    private int pop() {
+        final int top = heap[0];
+        heapIndex[top] = CLOSED;
 
-                //Add edges
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
 
-                grid.getAdjacentTiles(grid.getTile(coord.getKey(), coord.getValue()))
-                        .stream()
-                        //Take only edges where either they are walkable OR (special case) they are the final destination
-                        //final destination won't be walkable cuz the player is on it.
-                        .filter((tile) -> (tile.getX() == endCoord.getKey() && tile.getY() == endCoord.getValue())
-                                || (tile.actorCanWalkOn(requester) && !tile.hasOccupier()))
-                        .forEach(tile -> node.edges.add(new Pair<>(tile.getX(), tile.getY())));
+    /**
+     * Moves the heap entry at the given position up until its parent is no more expensive.
+     *
+     * @param position The position in the heap.
+     */
+    private void siftUp(int position) {
+        final int cell = heap[position];
+        while (position > 0) {
+            final int parent = (position - 1) / 2;
+            if (!cheaper(cell, heap[parent])) {
+                break;
+            }
+            heap[position] = heap[parent];
+            heapIndex[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = cell;
+        heapIndex[cell] = position;
+    }
 
-                graph.put(coord, node);
+    /**
+     * Moves the heap entry at the given position down until neither child is cheaper.
+     *
+     * @param position The position in the heap.
+     */
+    private void siftDown(int position) {
+        final int cell = heap[position];
+        while (true) {
+            int child = position * 2 + 1;
+            if (child >= heapSize) {
+                break;
             }
+            if (child + 1 < heapSize && cheaper(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!cheaper(heap[child], cell)) {
+                break;
+            }
+            heap[position] = heap[child];
+            heapIndex[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = cell;
+        heapIndex[cell] = position;
+    }
+
+    /**
+     * Compares two cells in the open set. Ties on estimated cost go to the cell furthest from the start, which is
+     * likely closer to the goal, so open areas with many equally short paths aren't explored cell by cell.
+     *
+     * @param left The index of the first cell.
+     * @param right The index of the second cell.
+     * @return Whether the first cell should be expanded before the second.
+     */
+    private boolean cheaper(int left, int right) {
+        if (estimatedCost[left] != estimatedCost[right]) {
+            return estimatedCost[left] < estimatedCost[right];
         }
-        return graph;
+        return cost[left] > cost[right];
     }
 
     /**
-     * Calculates the Euclidean distance between two coordinates as a heuristic for A* pathfinding.
+     * Calculates the Manhattan distance between two coordinates as a heuristic for A* pathfinding. With unit cost
+     * moves in four directions this never overestimates, so the path found is still the shortest.
      *
-     * @param node The current node's position.
-     * @param target The target node's position.
-     * @return The Euclidean distance between the node and the target.
+     * @param x The x-coordinate of the current cell.
+     * @param y The y-coordinate of the current cell.
+     * @param targetX The x-coordinate of the target.
+     * @param targetY The y-coordinate of the target.
+     * @return The Manhattan distance between the cell and the target.
      */
-    private float euclideanHeuristic(Pair<Integer, Integer> node, Pair<Integer, Integer> target) {
-        return (float) Math.sqrt(Math.pow(target.getKey() - node.getKey(), 2) + Math.pow(target.getValue() - node.getValue(), 2)); //Minor issues with ints
+    private int manhattanHeuristic(int x, int y, int targetX, int targetY) {
+        return Math.abs(targetX - x) + Math.abs(targetY - y);
     }
 }
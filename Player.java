@@ -1,8 +1,3 @@
-import javafx.scene.image.Image;
-import javafx.scene.input.KeyCode;
-import javafx.scene.input.KeyEvent;
-import javafx.util.Pair;
-
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -16,9 +11,8 @@ import java.util.HashSet;
  * @author Jess
  */
 public class Player extends Actor {
-    private static final Image PLAYER_ICON = new Image("NewLilGuy.png");
     private Grid grid;
-    private KeyEvent event;
+    private Direction input;
     private HashSet<Integer> collectedKeys; //keys for doors
     private int diamondCount;
 
@@ -34,7 +28,7 @@ public class Player extends Actor {
         super(2, x, y, ActorType.PLAYER);
         this.grid = grid;
         this.collectedKeys = collectedKeys;
-        event = null;
+        input = null;
         diamondCount = 0;
     }
 
@@ -96,16 +90,6 @@ public class Player extends Actor {
         return String.format("%d %d %d { %s}\n", getX(), getY(), diamondCount, builder.toString());
     }
 
-    /**
-     * Returns the image associated with the player.
-     *
-     * @return the {@link Image} representing the player.
-     */
-    @Override
-    protected Image getImage() {
-        return PLAYER_ICON;
-    }
-
     /**
      * Checks whether the player can walk on another actor.
      *
@@ -126,23 +110,23 @@ public class Player extends Actor {
      * @throws ParseException if a parsing error occurs during the update.
      */
     public void update(Grid grid) throws IOException, ParseException {
-        if (event == null) {
+        if (input == null) {
             return;
         }
 
         //tryMove() updates your x and y if its successful (it's javadocced now).
-        switch (event.getCode()) {
-            case LEFT:
+        switch (input) {
+            case WEST:
                 handleLeftMove(grid);
                 break;
-            case RIGHT:
+            case EAST:
                 handleRightMove(grid);
                 break;
-            case UP:
+            case NORTH:
                 checkActorInteraction(grid, getX(), getY() - 1);
                 grid.tryMove(this, getX(), getY() - 1);
                 break;
-            case DOWN:
+            case SOUTH:
                 checkActorInteraction(grid, getX(), getY() + 1);
                 grid.tryMove(this, getX(), getY() + 1);
                 break;
@@ -150,7 +134,7 @@ public class Player extends Actor {
                 return;
         }
 
-        event = null; //once we've dealt with event, reset it
+        input = null; //once we've dealt with the input, reset it
     }
 
     /**
@@ -214,7 +198,7 @@ public class Player extends Actor {
      */
     private void handleLeftMove(Grid grid) throws IOException, ParseException {
         if (getX() - 1 >= 0) {
-            Actor leftActor = grid.getTile(getX() - 1, getY()).getOccupier();
+            Actor leftActor = grid.getOccupier(getX() - 1, getY());
             if (leftActor != null && leftActor.getType() == ActorType.BOULDER) {
                 Boulder boulder = (Boulder) leftActor;
                 if (boulder.canBePushedLeft(grid)) {
@@ -235,7 +219,7 @@ public class Player extends Actor {
      */
     private void handleRightMove(Grid grid) throws IOException, ParseException {
         if (getX() + 1 < grid.getWidth()) {
-            Actor rightActor = grid.getTile(getX() + 1, getY()).getOccupier();
+            Actor rightActor = grid.getOccupier(getX() + 1, getY());
             if (rightActor != null && rightActor.getType() == ActorType.BOULDER) {
                 Boulder boulder = (Boulder) rightActor;
                 if (boulder.canBePushedRight(grid)) {
@@ -248,20 +232,20 @@ public class Player extends Actor {
     }
 
     /**
-     * Captures and stores the player's input event for processing.
+     * Captures and stores the player's input direction for processing.
      *
-     * @param event the {@link KeyEvent} to capture.
+     * @param input the {@link Direction} the player wants to move in.
      */
-    public void takeInput(final KeyEvent event) {
-        this.event = event;
+    public void takeInput(final Direction input) {
+        this.input = input;
     }
 
     /**
      * Checks if the player is currently on a tile with a key and collects it.
      */
     public void lookForKeys() {
-        if (grid.getTile(getX(), getY()).getType() == TileType.KEY && grid.getTile(getX(), getY()) instanceof Key) {
-            Key key = (Key) grid.getTile(getX(), getY()); //Not a copy, a reference to original addressed as subclass
+        if (grid.getTileType(getX(), getY()) == TileType.KEY && grid.getTile(getX(), getY()) instanceof Key) {
+            Key key = (Key) grid.getTile(getX(), getY()); //A view of the key's cell, not the cell itself
             collectedKeys.add(key.getKeyID());
         }   //still need to replace key with dirt in grid
     }
@@ -0,0 +1,382 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Everything a renderer needs to draw one tick of a level, copied out of the {@link Level} so that it can be drawn
+ * on one thread while the level is being updated on another. A snapshot is never changed once it has been captured,
+ * so it can be handed between threads without locking.
+ *
+ * Each snapshot is captured from the one before: the cells are copied across and only those the {@link Grid} says
+ * have changed are read again, and the snapshot lists which cells differ from the one before so that a renderer
+ * that has drawn the previous snapshot knows what to draw over.
+ *
+ * @author Sam
+ * @see SimulationRunner
+ * @see LevelRenderer
+ */
+public final class RenderSnapshot {
+    /**
+     * The actor type of a cell with no actor standing in it.
+     */
+    public static final byte NO_ACTOR = -1;
+    private static final TileType[] TILE_TYPES = TileType.values();
+    private static final ActorType[] ACTOR_TYPES = ActorType.values();
+    private static final KeyDoorColour[] COLOURS = KeyDoorColour.values();
+
+    private final long tick;
+    private final long capturedAt;
+    private final int width;
+    private final int height;
+    private final byte[] tileTypes;
+    private final byte[] tileColours;
+    private final byte[] actorTypes;
+    private final int[] changedCells;
+    private final byte[] moverTypes;
+    private final int[] moverFromCells;
+    private final int[] moverCells;
+    private final int[] explosionCells;
+    private final int playerX;
+    private final int playerY;
+    private final String uiText;
+    private final ExitReason exitReason;
+
+    /**
+     * Constructs a snapshot from its parts. Use {@link #capture(Level, RenderSnapshot, long)}.
+     */
+    private RenderSnapshot(final long tick, final long capturedAt, final int width, final int height,
+                           final byte[] tileTypes, final byte[] tileColours, final byte[] actorTypes,
+                           final int[] changedCells, final byte[] moverTypes, final int[] moverFromCells,
+                           final int[] moverCells, final int[] explosionCells, final int playerX, final int playerY,
+                           final String uiText, final ExitReason exitReason) {
+        this.tick = tick;
+        this.capturedAt = capturedAt;
+        this.width = width;
+        this.height = height;
+        this.tileTypes = tileTypes;
+        this.tileColours = tileColours;
+        this.actorTypes = actorTypes;
+        this.changedCells = changedCells;
+        this.moverTypes = moverTypes;
+        this.moverFromCells = moverFromCells;
+        this.moverCells = moverCells;
+        this.explosionCells = explosionCells;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.uiText = uiText;
+        this.exitReason = exitReason;
+    }
+
+    /**
+     * Captures the current state of a level. This must be called on the thread that updates the level, between
+     * updates, and it consumes the grid's dirty cells.
+     *
+     * @param level      The level.
+     * @param previous   The snapshot captured after the previous tick, or null if this is the first.
+     * @param capturedAt The time of the capture, from {@link System#nanoTime()}.
+     * @return The snapshot.
+     */
+    public static RenderSnapshot capture(final Level level, final RenderSnapshot previous, final long capturedAt) {
+        final Grid grid = level.getGrid();
+        final int width = grid.getWidth();
+        final int cells = width * grid.getHeight();
+        final boolean isFirst = previous == null || previous.width != width || previous.height != grid.getHeight();
+
+        final byte[] tileTypes;
+        final byte[] tileColours;
+        final byte[] actorTypes;
+        final CellList changed = new CellList();
+        if (isFirst) {
+            tileTypes = new byte[cells];
+            tileColours = new byte[cells];
+            actorTypes = new byte[cells];
+            for (int cell = 0; cell < cells; cell++) {
+                readCell(grid, cell, tileTypes, tileColours, actorTypes);
+            }
+            grid.drainDirtyCells(cell -> { }); //Already read.
+        } else {
+            tileTypes = previous.tileTypes.clone();
+            tileColours = previous.tileColours.clone();
+            actorTypes = previous.actorTypes.clone();
+            grid.drainDirtyCells(changed::add);
+            //Actors that were sliding last tick are standing still now, unless they moved again.
+            for (int i = 0; i < previous.moverCells.length; i++) {
+                changed.add(previous.moverFromCells[i]);
+                changed.add(previous.moverCells[i]);
+            }
+            //A player that has just died disappears without its cell changing.
+            if (!level.getPlayer().isAlive()) {
+                changed.add(level.getPlayer().getY() * width + level.getPlayer().getX());
+            }
+        }
+
+        final List<Actor> moved = grid.getMovedActors();
+        final byte[] moverTypes = new byte[moved.size()];
+        final int[] moverFromCells = new int[moved.size()];
+        final int[] moverCells = new int[moved.size()];
+        int movers = 0;
+        for (Actor actor : moved) {
+            final int cell = actor.getY() * width + actor.getX();
+            final int fromCell = actor.getMovedFromY() * width + actor.getMovedFromX();
+            if (grid.getOccupier(actor.getX(), actor.getY()) == actor && isVisible(actor)) {
+                moverTypes[movers] = (byte) actor.getType().ordinal();
+                moverFromCells[movers] = fromCell;
+                moverCells[movers] = cell;
+                movers++;
+            }
+            if (!isFirst) {
+                changed.add(fromCell);
+                changed.add(cell);
+            }
+        }
+
+        for (int i = 0; i < changed.count; i++) {
+            readCell(grid, changed.cells[i], tileTypes, tileColours, actorTypes);
+        }
+
+        //The grid hands out the same array for as long as an explosion is displayed, and never changes it.
+        final int[] explosionCells = grid.getExplosionCells();
+
+        return new RenderSnapshot(grid.getTickCount(), capturedAt, width, grid.getHeight(), tileTypes, tileColours,
+                actorTypes, isFirst ? null : Arrays.copyOf(changed.cells, changed.count),
+                Arrays.copyOf(moverTypes, movers), Arrays.copyOf(moverFromCells, movers),
+                Arrays.copyOf(moverCells, movers), explosionCells,
+                level.getPlayer().getX(), level.getPlayer().getY(), level.getUIText(),
+                level.shouldExit().orElse(null));
+    }
+
+    /**
+     * Gets the tick of the level the snapshot was captured after.
+     *
+     * @return The grid's tick count at the time of the capture.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the time the snapshot was captured.
+     *
+     * @return The time, from {@link System#nanoTime()}.
+     */
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    /**
+     * Gets the width of the level.
+     *
+     * @return The width, in cells.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the level.
+     *
+     * @return The height, in cells.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the type of the tile in a cell.
+     *
+     * @param cell The index of the cell, i.e. {@code y * width + x}.
+     * @return The type of the tile.
+     */
+    public TileType getTileType(final int cell) {
+        return TILE_TYPES[tileTypes[cell]];
+    }
+
+    /**
+     * Gets the colour of the key or door in a cell.
+     *
+     * @param cell The index of the cell, which must hold a key or door.
+     * @return The colour.
+     */
+    public KeyDoorColour getColour(final int cell) {
+        return COLOURS[tileColours[cell]];
+    }
+
+    /**
+     * Gets the type of the actor standing still in a cell. Actors that moved in the tick are left out, as they are
+     * drawn sliding between cells instead (see {@link #getMoverCount()}), as is a dead player.
+     *
+     * @param cell The index of the cell.
+     * @return The ordinal of the actor's {@link ActorType}, or {@link #NO_ACTOR}.
+     */
+    public byte getActorType(final int cell) {
+        return actorTypes[cell];
+    }
+
+    /**
+     * Gets the type of an actor from the value returned by {@link #getActorType(int)}.
+     *
+     * @param actorType The ordinal of the actor type, not {@link #NO_ACTOR}.
+     * @return The actor type.
+     */
+    public static ActorType toActorType(final byte actorType) {
+        return ACTOR_TYPES[actorType];
+    }
+
+    /**
+     * Gets the cells whose tile or standing actor may differ from the previous snapshot, including the cells that
+     * actors moved between in either tick.
+     *
+     * @return The indices of the cells, possibly with repeats, or null if this is the first snapshot of the level
+     * and everything has changed. The array must not be modified.
+     */
+    public int[] getChangedCells() {
+        return changedCells;
+    }
+
+    /**
+     * Gets the number of actors that moved during the tick.
+     *
+     * @return The number of movers.
+     */
+    public int getMoverCount() {
+        return moverCells.length;
+    }
+
+    /**
+     * Gets the type of an actor that moved during the tick.
+     *
+     * @param mover The index of the mover.
+     * @return The actor type.
+     */
+    public ActorType getMoverType(final int mover) {
+        return ACTOR_TYPES[moverTypes[mover]];
+    }
+
+    /**
+     * Gets the cell an actor that moved during the tick started the tick in.
+     *
+     * @param mover The index of the mover.
+     * @return The index of the cell.
+     */
+    public int getMoverFromCell(final int mover) {
+        return moverFromCells[mover];
+    }
+
+    /**
+     * Gets the cell an actor that moved during the tick ended the tick in.
+     *
+     * @param mover The index of the mover.
+     * @return The index of the cell.
+     */
+    public int getMoverCell(final int mover) {
+        return moverCells[mover];
+    }
+
+    /**
+     * Gets the cells of the explosion being displayed. Snapshots showing the same explosion share the same array, so
+     * a renderer can tell a new explosion from an old one by comparing arrays.
+     *
+     * @return The indices of the cells, or an empty array if there is no explosion. The array must not be modified.
+     */
+    public int[] getExplosionCells() {
+        return explosionCells;
+    }
+
+    /**
+     * Gets the x-coordinate of the player.
+     *
+     * @return The x-coordinate.
+     */
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * Gets the y-coordinate of the player.
+     *
+     * @return The y-coordinate.
+     */
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * Gets the text to display in the UI (diamonds collected, time left).
+     *
+     * @return The text.
+     * @see Level#getUIText()
+     */
+    public String getUIText() {
+        return uiText;
+    }
+
+    /**
+     * Gets why the level should exit, if it should.
+     *
+     * @return The exit reason, or an empty optional if the level is still being played.
+     * @see Level#shouldExit()
+     */
+    public Optional<ExitReason> getExitReason() {
+        return Optional.ofNullable(exitReason);
+    }
+
+    /**
+     * Reads the tile and standing actor of a cell from the grid.
+     *
+     * @param grid        The grid.
+     * @param cell        The index of the cell.
+     * @param tileTypes   The tile types to write to.
+     * @param tileColours The key and door colours to write to.
+     * @param actorTypes  The actor types to write to.
+     */
+    private static void readCell(final Grid grid, final int cell, final byte[] tileTypes, final byte[] tileColours,
+                                 final byte[] actorTypes) {
+        final int x = cell % grid.getWidth();
+        final int y = cell / grid.getWidth();
+        final TileType type = grid.getTileType(x, y);
+        tileTypes[cell] = (byte) type.ordinal();
+        tileColours[cell] = switch (type) {
+            case KEY -> (byte) ((Key) grid.getTile(x, y)).getColour().ordinal();
+            case DOOR -> (byte) ((Door) grid.getTile(x, y)).getColour().ordinal();
+            default -> 0;
+        };
+
+        final Actor occupier = grid.getOccupier(x, y);
+        if (occupier != null && occupier.getX() == x && occupier.getY() == y && isVisible(occupier)
+                && occupier.getMovedAtTick() != grid.getTickCount()) {
+            actorTypes[cell] = (byte) occupier.getType().ordinal();
+        } else {
+            actorTypes[cell] = NO_ACTOR;
+        }
+    }
+
+    /**
+     * Checks if an actor should be drawn at all. A dead player is not drawn, even before it leaves the grid.
+     *
+     * @param actor The actor.
+     * @return Whether to draw the actor.
+     */
+    private static boolean isVisible(final Actor actor) {
+        return actor.getType() != ActorType.PLAYER || actor.isAlive();
+    }
+
+    /**
+     * A growable list of cell indices.
+     */
+    private static final class CellList {
+        private int[] cells = new int[16];
+        private int count = 0;
+
+        /**
+         * Adds a cell to the end of the list.
+         *
+         * @param cell The index of the cell.
+         */
+        private void add(final int cell) {
+            if (count == cells.length) {
+                cells = Arrays.copyOf(cells, count * 2);
+            }
+            cells[count++] = cell;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link Level} on a thread of its own, updating it at a fixed rate and publishing a {@link RenderSnapshot}
+ * after every tick. The UI thread reads the latest snapshot whenever it draws a frame, without locking and without
+ * touching the level, so a slow tick never holds up drawing and the two can run at different rates on different
+ * cores.
+ *
+ * Everything that touches the level goes through this class while it is running: input is queued and handed to the
+ * level at the start of the next tick. Once {@link #pause()} or {@link #stop()} has returned no tick is in progress
+ * and the level can safely be read from the calling thread (e.g. to save it), until the runner is resumed.
+ *
+ * @author Sam
+ * @see RenderSnapshot
+ */
+public class SimulationRunner implements Runnable {
+    /**
+     * The most ticks run back to back to catch up. If the simulation falls further behind than this (e.g. the JVM
+     * paused for garbage collection) the rest of the time is dropped, rather than trying to catch up and falling
+     * further behind.
+     */
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final Level level;
+    private final long tickNanos;
+    private Thread thread;
+    private final ConcurrentLinkedQueue<Direction> input;
+    private volatile RenderSnapshot snapshot;
+    private volatile RuntimeException failure;
+    private volatile boolean stopped;
+    private boolean paused;
+    private long nextTickTime;
+
+    /**
+     * Constructs a runner for a level and captures the level's first snapshot. The level is not updated until
+     * {@link #start()} is called.
+     *
+     * @param level     The level to run.
+     * @param tickNanos How long each tick lasts, in nanoseconds.
+     */
+    public SimulationRunner(final Level level, final long tickNanos) {
+        this.level = level;
+        this.tickNanos = tickNanos;
+        this.input = new ConcurrentLinkedQueue<>();
+        this.snapshot = RenderSnapshot.capture(level, null, System.nanoTime());
+    }
+
+    /**
+     * Starts updating the level. The first tick is one tick from now.
+     */
+    public void start() {
+        if (thread != null) {
+            throw new IllegalStateException("The simulation has already been started.");
+        }
+        nextTickTime = System.nanoTime() + tickNanos;
+        thread = new Thread(this, "Simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Gets the snapshot published after the most recent tick. This can be called from any thread.
+     *
+     * @return The latest snapshot.
+     */
+    public RenderSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the exception that stopped the simulation, if it failed.
+     *
+     * @return The exception, or null if the simulation has not failed.
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Queues an input for the player, to be passed to the level at the start of the next tick. This can be called
+     * from any thread.
+     *
+     * @param direction The direction the player wants to move.
+     * @see Level#receiveInput(Direction)
+     */
+    public void receiveInput(final Direction direction) {
+        input.add(direction);
+    }
+
+    /**
+     * Pauses the simulation, waiting for any tick in progress to finish.
+     */
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    /**
+     * Resumes the simulation. The time spent paused is not caught up on.
+     */
+    public synchronized void resume() {
+        paused = false;
+        nextTickTime = System.nanoTime() + tickNanos;
+        notifyAll();
+    }
+
+    /**
+     * Stops the simulation for good, waiting for the thread to finish if it was started.
+     */
+    public void stop() {
+        synchronized (this) {
+            stopped = true;
+            notifyAll();
+        }
+        if (thread != null && Thread.currentThread() != thread) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The simulation loop. Ticks are run on a fixed schedule, sleeping in between, until the level exits or the
+     * runner is stopped.
+     */
+    @Override
+    public void run() {
+        while (!stopped) {
+            final long wait;
+            synchronized (this) {
+                while (paused && !stopped) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (stopped) {
+                    return;
+                }
+
+                final long now = System.nanoTime();
+                int ticks = 0;
+                while (now >= nextTickTime && ticks < MAX_CATCH_UP_TICKS && !stopped) {
+                    tick();
+                    nextTickTime += tickNanos;
+                    ticks++;
+                }
+                if (now >= nextTickTime) {
+                    nextTickTime = now + tickNanos;
+                }
+                wait = nextTickTime - now;
+            }
+            LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    /**
+     * Updates the level once and publishes its snapshot. The runner stops itself once the level should exit, or
+     * if the update fails.
+     */
+    private void tick() {
+        Direction direction;
+        while ((direction = input.poll()) != null) {
+            level.receiveInput(direction);
+        }
+
+        try {
+            level.update();
+        } catch (IOException | ParseException | RuntimeException e) {
+            failure = (e instanceof RuntimeException) ? (RuntimeException) e : new RuntimeException(e);
+            stopped = true;
+            return;
+        }
+
+        snapshot = RenderSnapshot.capture(level, snapshot, System.nanoTime());
+        if (snapshot.getExitReason().isPresent()) {
+            stopped = true;
+        }
+    }
+}
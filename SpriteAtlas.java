@@ -0,0 +1,180 @@
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+
+/**
+ * Every image used to draw a level, packed into one texture. Each image is loaded once, scaled to
+ * {@link Level#DRAW_ENTITY_SIZE} and copied into its own square of the texture, so drawing a sprite is an unscaled
+ * copy out of the same texture rather than a scaled draw of one of many images.
+ *
+ * Sprites are identified by their index in the texture, which can be looked up by tile type, actor type, key or door
+ * colour, or explosion stage.
+ *
+ * @author Sam
+ * @see LevelRenderer
+ */
+public class SpriteAtlas {
+    /**
+     * The first stage of an explosion's animation.
+     */
+    public static final int SMALL_EXPLOSION = 0;
+    /**
+     * The second stage of an explosion's animation.
+     */
+    public static final int MEDIUM_EXPLOSION = 1;
+    /**
+     * The last stage of an explosion's animation.
+     */
+    public static final int BIG_EXPLOSION = 2;
+
+    private static final int COLUMNS = 8;
+    private static final int SIZE = Level.DRAW_ENTITY_SIZE;
+
+    private final EnumMap<TileType, Integer> tileSprites;
+    private final EnumMap<ActorType, Integer> actorSprites;
+    private final EnumMap<KeyDoorColour, Integer> keySprites;
+    private final EnumMap<KeyDoorColour, Integer> doorSprites;
+    private final int[] explosionSprites;
+    private final ArrayList<String> files;
+    private final WritableImage texture;
+
+    /**
+     * Constructs the atlas, loading and packing every image. This must be called on the JavaFX application thread.
+     */
+    public SpriteAtlas() {
+        files = new ArrayList<>();
+
+        tileSprites = new EnumMap<>(TileType.class);
+        tileSprites.put(TileType.PATH, add("path.png"));
+        tileSprites.put(TileType.DIRT, add("crateHL.jpg"));
+        tileSprites.put(TileType.WALL, add("neonWall.png"));
+        tileSprites.put(TileType.TITANIUM_WALL, add("TitaniumWall.jpg"));
+        tileSprites.put(TileType.MAGIC_WALL, add("MagicWall.jpg"));
+        tileSprites.put(TileType.EXIT, add("ExitNether.jpg"));
+
+        keySprites = new EnumMap<>(KeyDoorColour.class);
+        keySprites.put(KeyDoorColour.RED, add("KeyRed.png"));
+        keySprites.put(KeyDoorColour.GREEN, add("KeyGreen.png"));
+        keySprites.put(KeyDoorColour.BLUE, add("KeyBlue.png"));
+        keySprites.put(KeyDoorColour.YELLOW, add("KeyYellow.png"));
+
+        doorSprites = new EnumMap<>(KeyDoorColour.class);
+        doorSprites.put(KeyDoorColour.RED, add("DoorIsRed.png"));
+        doorSprites.put(KeyDoorColour.GREEN, add("DoorIsGreen.png"));
+        doorSprites.put(KeyDoorColour.BLUE, add("DoorIsBlue.png"));
+        doorSprites.put(KeyDoorColour.YELLOW, add("DoorIsYellow.png"));
+
+        actorSprites = new EnumMap<>(ActorType.class);
+        actorSprites.put(ActorType.AMOEBA, add("amoeba.png"));
+        actorSprites.put(ActorType.BOULDER, add("boulder.png"));
+        actorSprites.put(ActorType.DIAMOND, add("diamond.png"));
+        actorSprites.put(ActorType.BUTTERFLY, add("butterflie.png"));
+        actorSprites.put(ActorType.FIREFLY, add("fireflie.png"));
+        actorSprites.put(ActorType.FROG, add("headCrabHL.png"));
+        actorSprites.put(ActorType.PLAYER, add("NewLilGuy.png"));
+
+        explosionSprites = new int[] {add("smallboom.PNG"), add("mediumboom.PNG"), add("bigboom.PNG")};
+
+        texture = pack();
+    }
+
+    /**
+     * Gets the sprite of a tile type. Keys and doors have a sprite per colour instead.
+     *
+     * @param type The type of tile.
+     * @return The sprite.
+     * @see #getKeySprite(KeyDoorColour)
+     * @see #getDoorSprite(KeyDoorColour)
+     */
+    public int getTileSprite(final TileType type) {
+        return tileSprites.get(type);
+    }
+
+    /**
+     * Gets the sprite of a key.
+     *
+     * @param colour The colour of the key.
+     * @return The sprite.
+     */
+    public int getKeySprite(final KeyDoorColour colour) {
+        return keySprites.get(colour);
+    }
+
+    /**
+     * Gets the sprite of a door.
+     *
+     * @param colour The colour of the door.
+     * @return The sprite.
+     */
+    public int getDoorSprite(final KeyDoorColour colour) {
+        return doorSprites.get(colour);
+    }
+
+    /**
+     * Gets the sprite of an actor type.
+     *
+     * @param type The type of actor.
+     * @return The sprite.
+     */
+    public int getActorSprite(final ActorType type) {
+        return actorSprites.get(type);
+    }
+
+    /**
+     * Gets the sprite of a stage of an explosion.
+     *
+     * @param stage {@link #SMALL_EXPLOSION}, {@link #MEDIUM_EXPLOSION} or {@link #BIG_EXPLOSION}.
+     * @return The sprite.
+     */
+    public int getExplosionSprite(final int stage) {
+        return explosionSprites[stage];
+    }
+
+    /**
+     * Draws a sprite, one {@link Level#DRAW_ENTITY_SIZE} square, with its top left corner at a position.
+     *
+     * @param gc     The GraphicsContext to draw to.
+     * @param sprite The sprite.
+     * @param x      The x-coordinate to draw at.
+     * @param y      The y-coordinate to draw at.
+     */
+    public void draw(final GraphicsContext gc, final int sprite, final double x, final double y) {
+        gc.drawImage(texture, (sprite % COLUMNS) * SIZE, (sprite / COLUMNS) * SIZE, SIZE, SIZE, x, y, SIZE, SIZE);
+    }
+
+    /**
+     * Gives an image file the next free square of the texture.
+     *
+     * @param file The name of the image file.
+     * @return The sprite of the image.
+     */
+    private int add(final String file) {
+        files.add(file);
+        return files.size() - 1;
+    }
+
+    /**
+     * Loads every image, scales it into its square and captures the result as one texture.
+     *
+     * @return The texture.
+     */
+    private WritableImage pack() {
+        final int rows = (files.size() + COLUMNS - 1) / COLUMNS;
+        final Canvas canvas = new Canvas(COLUMNS * SIZE, rows * SIZE);
+        final GraphicsContext gc = canvas.getGraphicsContext2D();
+        for (int sprite = 0; sprite < files.size(); sprite++) {
+            gc.drawImage(new Image(files.get(sprite)), (sprite % COLUMNS) * SIZE, (sprite / COLUMNS) * SIZE,
+                    SIZE, SIZE);
+        }
+
+        final SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        return canvas.snapshot(parameters, null);
+    }
+}
@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 import java.util.Optional;
 
 /**
@@ -7,11 +5,14 @@ import java.util.Optional;
  * occupied by an actor, have specific properties like being
  * destroyable, and may have interactions with actors.
  * This is an abstract class meant to be extended by specific types of tiles.
+ * Once a tile belongs to a {@link Grid} it acts as a view onto the grid's storage, so its occupier is read from and
+ * written to the grid itself.
  *
  * @author Sam
  */
 public abstract class Tile {
     private Actor occupier;
+    private Grid grid;
     private final int x, y;
     private final boolean destroyable;
     private TileType type;
@@ -50,13 +51,6 @@ public abstract class Tile {
         return y;
     }
 
-    /**
-     * Gets the image associated with this tile.
-     *
-     * @return the image representing the tile.
-     */
-    public abstract Image getImage();
-
     /**
      * Checks if a given actor can walk on this tile.
      *
@@ -72,7 +66,7 @@ public abstract class Tile {
      * @return true if the tile has an occupier; false otherwise.
      */
     public boolean hasOccupier() {
-        return occupier != null;
+        return getOccupier() != null;
     }
 
     /**
@@ -81,7 +75,11 @@ public abstract class Tile {
      * @param occupier the actor to set as the occupier of this tile.
      */
     public void setOccupier(final Actor occupier) {
-        this.occupier = occupier;
+        if (grid != null) {
+            grid.setOccupier(x, y, occupier);
+        } else {
+            this.occupier = occupier;
+        }
     }
 
     /**
@@ -90,9 +88,23 @@ public abstract class Tile {
      * @return the actor occupying this tile, or null if unoccupied.
      */
     Actor getOccupier() {
+        if (grid != null) {
+            return grid.getOccupier(x, y);
+        }
         return occupier;
     }
 
+    /**
+     * Binds this tile to the grid that stores it, so that its occupier is kept in the grid.
+     * This is intended to be called by Grid only.
+     *
+     * @param grid the grid this tile is a view of.
+     */
+    void bind(final Grid grid) {
+        this.grid = grid;
+        this.occupier = null;
+    }
+
     /**
      * Checks if this tile is destroyable.
      *
@@ -134,6 +146,33 @@ public abstract class Tile {
      */
     public abstract String toText();
 
+    /**
+     * Two tiles are equal if they are at the same position, as tiles handed out by a grid are views of its cells.
+     *
+     * @param other the object to compare against.
+     * @return true if the other object is a tile at the same position.
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Tile tile)) {
+            return false;
+        }
+        return x == tile.x && y == tile.y;
+    }
+
+    /**
+     * A hash code consistent with {@link #equals(Object)}.
+     *
+     * @return the hash code of this tile.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * x + y;
+    }
+
     /**
      * Returns a string representation of the tile, including its type
      * and coordinates.
@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a titanium wall tile in the game. Titanium walls are
  * indestructible and block movement for all actors. They serve
@@ -9,7 +7,6 @@ import javafx.scene.image.Image;
 public class TitaniumWall extends Tile {
 
 
-    private static final Image IMAGE = new Image("TitaniumWall.jpg");
 
     /**
      * Constructs a new TitaniumWall tile at the specified coordinates.
@@ -21,17 +18,6 @@ public class TitaniumWall extends Tile {
         super(false, x, y, TileType.TITANIUM_WALL);
     }
 
-    /**
-     * Retrieves the image associated with the titanium wall.
-     *
-     * @return the {@link Image} representing the titanium wall.
-     */
-    @Override
-    public Image getImage() {
-
-        return IMAGE;
-    }
-
     /**
      * Determines if an actor can walk on the titanium wall.
      * Titanium walls block movement for all actors.
@@ -1,5 +1,3 @@
-import javafx.scene.image.Image;
-
 /**
  * Represents a wall tile in the game grid.
  * A wall is a stationary, non-walkable obstacle that blocks actor movement.
@@ -8,7 +6,6 @@ import javafx.scene.image.Image;
  */
 public class Wall extends Tile {
 
-    private static final Image IMAGE = new Image("neonWall.png");
 
     /**
      * Constructs a Wall tile at the specified grid coordinates.
@@ -20,16 +17,6 @@ public class Wall extends Tile {
         super(true, x, y, TileType.WALL);
     }
 
-    /**
-     * Returns the image associated with the wall tile.
-     *
-     * @return the {@link Image} object for the wall tile.
-     */
-    @Override
-    public Image getImage() {
-        return IMAGE;
-    }
-
     /**
      * Determines if the specified actor can walk on this tile.
      * For wall tiles, actors cannot walk on them.
@@ -0,0 +1,218 @@
+import benchmarks.Workload;
+import java.util.ArrayList;
+
+/**
+ * Sets up the engine operations that the JMH benchmarks time. This has to be in the default package to reach the
+ * engine; see {@link Workload} for why the benchmarks themselves are not. Every factory takes a level in the level
+ * file format and returns a workload that repeats one operation on it.
+ *
+ * @author Sam
+ * @see benchmarks.LevelBenchmarks
+ */
+public final class EngineWorkloads {
+    /**
+     * The size of the canvas that endless mode generates maps for.
+     */
+    private static final int ENDLESS_CANVAS_WIDTH = 3840;
+    private static final int ENDLESS_CANVAS_HEIGHT = 2160;
+
+    private EngineWorkloads() {
+    }
+
+    /**
+     * Ticks a level. When the level ends (e.g. its timer runs out) a fresh copy takes its place.
+     *
+     * @param levelText The level.
+     * @return A workload that calls {@link Level#update()} once.
+     * @throws Exception If the level is invalid.
+     */
+    public static Workload levelUpdate(String levelText) throws Exception {
+        final Level[] level = {LevelFactory.createFromText(levelText)};
+        return () -> {
+            level[0].update();
+            if (level[0].shouldExit().isPresent()) {
+                level[0] = LevelFactory.createFromText(levelText);
+            }
+            return level[0];
+        };
+    }
+
+    /**
+     * Finds a path for a frog towards the player, starting from the free cell furthest from the player. When the
+     * player can't be reached (e.g. they are walled in by dirt) the search covers everything the frog can reach.
+     *
+     * @param levelText The level.
+     * @return A workload that calls {@link Pathfinder#ShortestPath(int, int, int, int, Grid, Actor)} once.
+     * @throws Exception If the level is invalid.
+     */
+    public static Workload shortestPath(String levelText) throws Exception {
+        final Level level = LevelFactory.createFromText(levelText);
+        final Grid grid = level.getGrid();
+        final Player player = level.getPlayer();
+        final Frog frog = new Frog(player, player.getX(), player.getY());
+        final int start = findFurthestFreeCell(grid, frog, player.getX(), player.getY());
+        final int startX = start % grid.getWidth();
+        final int startY = start / grid.getWidth();
+        final Pathfinder pathfinder = new Pathfinder();
+
+        return () -> pathfinder.ShortestPath(startX, startY, player.getX(), player.getY(), grid, frog);
+    }
+
+    /**
+     * Looks up the cells of the largest amoeba group in a level, or of the player's cell if there are no amoebas.
+     *
+     * @param levelText The level.
+     * @return A workload that calls {@link Grid#getAmoebaGroup(int, int)} once.
+     * @throws Exception If the level is invalid.
+     */
+    public static Workload amoebaGroup(String levelText) throws Exception {
+        final Level level = LevelFactory.createFromText(levelText);
+        final Grid grid = level.getGrid();
+        int bestX = level.getPlayer().getX();
+        int bestY = level.getPlayer().getY();
+        int bestSize = 0;
+        for (Actor actor : level.getActors()) {
+            if (actor.getType() == ActorType.AMOEBA) {
+                final int size = grid.getAmoebaGroupSize(actor.getX(), actor.getY());
+                if (size > bestSize) {
+                    bestSize = size;
+                    bestX = actor.getX();
+                    bestY = actor.getY();
+                }
+            }
+        }
+
+        final int x = bestX;
+        final int y = bestY;
+        return () -> grid.getAmoebaGroup(x, y);
+    }
+
+    /**
+     * Ticks a fresh copy of a level up to the tick in which its amoebas all turn to diamonds, so that the workload is
+     * that one tick. The level should have an amoeba group that is already boxed in, as the ones built by
+     * {@code benchmarks.AmoebaConversionBenchmark} do. A workload can only be run once.
+     *
+     * @param levelText The level.
+     * @return A workload that calls {@link Level#update()} once, converting the amoebas.
+     * @throws Exception If the level is invalid, or its amoebas never convert.
+     */
+    public static Workload amoebaConversion(String levelText) throws Exception {
+        //Find out how many ticks it takes on a throwaway copy, as the amoebas' tick rate depends on the level.
+        final Level trial = LevelFactory.createFromText(levelText);
+        int ticks = 0;
+        do {
+            if (trial.shouldExit().isPresent()) {
+                throw new IllegalArgumentException("The level ended before its amoebas turned to diamonds.");
+            }
+            trial.update();
+            ticks++;
+        } while (countAmoebas(trial) > 0);
+
+        final Level level = LevelFactory.createFromText(levelText);
+        for (int i = 1; i < ticks; i++) {
+            level.update();
+        }
+        return () -> {
+            level.update();
+            return level;
+        };
+    }
+
+    /**
+     * Sets off explosions across a level, one cell further along each time, wrapping around at the end. After the
+     * first pass the level is mostly path, so this mostly measures the steady cost of an explosion rather than of
+     * the destruction it causes.
+     *
+     * @param levelText The level.
+     * @return A workload that calls {@link Grid#placeExplosion(Pair)} and {@link Grid#resolveExplosions()} once.
+     * @throws Exception If the level is invalid.
+     */
+    public static Workload placeExplosion(String levelText) throws Exception {
+        final Grid grid = LevelFactory.createFromText(levelText).getGrid();
+        final ArrayList<Pair<Integer, Integer>> centres = new ArrayList<>();
+        for (int y = 1; y < grid.getHeight() - 1; y++) {
+            for (int x = 1; x < grid.getWidth() - 1; x++) {
+                centres.add(new Pair<>(x, y));
+            }
+        }
+
+        final int[] next = {0};
+        return () -> {
+            grid.placeExplosion(centres.get(next[0]));
+            grid.resolveExplosions();
+            next[0] = (next[0] + 1) % centres.size();
+            return grid;
+        };
+    }
+
+    /**
+     * Parses a level.
+     *
+     * @param levelText The level.
+     * @return A workload that calls {@link LevelFactory#createFromText(String)} once.
+     */
+    public static Workload createFromText(String levelText) {
+        return () -> LevelFactory.createFromText(levelText);
+    }
+
+    /**
+     * Generates a map the size that endless mode asks for.
+     *
+     * @param levelText Unused; the generator does not start from a level.
+     * @return A workload that calls {@link MapGenerator#createMap()} once.
+     */
+    public static Workload createMap(String levelText) {
+        return () -> new MapGenerator(ENDLESS_CANVAS_WIDTH, ENDLESS_CANVAS_HEIGHT).createMap();
+    }
+
+    /**
+     * Generates a map the size that endless mode asks for, straight into a template as endless mode does.
+     *
+     * @param levelText Unused; the generator does not start from a level.
+     * @return A workload that calls {@link MapGenerator#createTemplate()} once.
+     */
+    public static Workload createTemplate(String levelText) {
+        return () -> new MapGenerator(ENDLESS_CANVAS_WIDTH, ENDLESS_CANVAS_HEIGHT).createTemplate();
+    }
+
+    /**
+     * Counts the amoebas left in a level.
+     *
+     * @param level The level to count in.
+     * @return The number of amoebas.
+     */
+    private static int countAmoebas(Level level) {
+        int count = 0;
+        for (Actor actor : level.getActors()) {
+            if (actor.getType() == ActorType.AMOEBA) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the free cell that a walker could stand on that is furthest from a target cell, as the crow flies.
+     *
+     * @param grid    The grid.
+     * @param walker  The actor that would stand there.
+     * @param targetX The x-coordinate of the target cell.
+     * @param targetY The y-coordinate of the target cell.
+     * @return The index of the furthest cell, or of the target cell if the walker can't stand anywhere.
+     */
+    private static int findFurthestFreeCell(Grid grid, Actor walker, int targetX, int targetY) {
+        int furthest = targetY * grid.getWidth() + targetX;
+        int furthestDistance = -1;
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                final int distance = Math.abs(x - targetX) + Math.abs(y - targetY);
+                if (distance > furthestDistance && grid.actorCanWalkOn(x, y, walker)
+                        && grid.getOccupier(x, y) == null) {
+                    furthest = y * grid.getWidth() + x;
+                    furthestDistance = distance;
+                }
+            }
+        }
+        return furthest;
+    }
+}
@@ -0,0 +1,148 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times the tick in which a whole amoeba group turns to diamonds at once, for increasingly large groups, and an
+ * ordinary tick of the same level afterwards. Each level is an enclosed corridor of amoebas next to a block of
+ * resting boulders, so the amoebas cannot spread and the group converts on its first update. If removing and adding
+ * actors is constant time, the conversion tick should grow no faster than the group, and ordinary ticks should not
+ * get slower.
+ *
+ * The conversion can only happen once per level, so it is timed one shot at a time on a fresh level each time.
+ *
+ * @author Sam
+ * @see Workload
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class AmoebaConversionBenchmark {
+    private static final int WIDTH = 128;
+
+    @Param({"32", "128", "512", "2048", "8192"})
+    public int groupSize;
+
+    @Param({"20000"})
+    public int boulders;
+
+    private String levelText;
+    private Workload update;
+
+    /**
+     * A level ticked up to the brink of its amoebas converting.
+     */
+    @State(Scope.Thread)
+    public static class Conversion {
+        private Workload conversion;
+
+        /**
+         * Sets up a fresh level for each conversion.
+         *
+         * @param benchmark The benchmark, holding the level.
+         * @throws Exception If the level is invalid.
+         */
+        @Setup(Level.Invocation)
+        public void setUp(AmoebaConversionBenchmark benchmark) throws Exception {
+            conversion = Workloads.create("amoebaConversion", benchmark.levelText);
+        }
+    }
+
+    /**
+     * Builds the level, and a copy of it to tick.
+     *
+     * @throws Exception If the level is invalid.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        levelText = createLevelText(groupSize, boulders);
+        update = Workloads.create("levelUpdate", levelText);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 20)
+    public Object levelUpdateConvertingAmoebas(Conversion conversion) throws Exception {
+        return conversion.conversion.run();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public Object levelUpdateAfterConversion() throws Exception {
+        return update.run();
+    }
+
+    /**
+     * Creates a level with a winding, one cell wide corridor of amoebas walled in by titanium, and below it a block
+     * of boulders packed too tightly to fall or roll. The player sits in the bottom left corner of the boulder block.
+     * The corridor keeps the amoeba group search cheap, so the timings are dominated by adding and removing actors.
+     *
+     * @param groupSize The number of amoebas.
+     * @param boulders  The number of boulders.
+     * @return The level in the level file format.
+     */
+    private static String createLevelText(int groupSize, int boulders) {
+        final int inner = WIDTH - 2;
+        final int corridorRows = (groupSize + inner + 1) / (inner + 1);
+        final int amoebaRows = corridorRows * 2 - 1;
+        final int boulderRows = (boulders + 1 + inner - 1) / inner;
+        final int height = amoebaRows + boulderRows + 3;
+        final int playerY = amoebaRows + boulderRows + 1;
+
+        //Lay the corridor out back and forth across the rows, joining each row to the next at alternating ends.
+        final boolean[][] isAmoeba = new boolean[height][WIDTH];
+        int amoebasLeft = groupSize;
+        for (int row = 0; row < corridorRows && amoebasLeft > 0; row++) {
+            final int y = 1 + row * 2;
+            for (int i = 0; i < inner && amoebasLeft > 0; i++, amoebasLeft--) {
+                isAmoeba[y][(row % 2 == 0) ? 1 + i : inner - i] = true;
+            }
+            if (amoebasLeft > 0 && row < corridorRows - 1) {
+                isAmoeba[y + 1][(row % 2 == 0) ? inner : 1] = true;
+                amoebasLeft--;
+            }
+        }
+
+        final StringBuilder grid = new StringBuilder();
+        final StringBuilder actors = new StringBuilder();
+        int bouldersLeft = boulders;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                final boolean border = x == 0 || x == WIDTH - 1 || y == 0 || y == height - 1 || y == amoebaRows + 1;
+                if (border) {
+                    grid.append("T,");
+                } else if (y <= amoebaRows) {
+                    grid.append(isAmoeba[y][x] ? "P," : "T,");
+                    if (isAmoeba[y][x]) {
+                        actors.append("A ").append(x).append(" ").append(y).append(",");
+                    }
+                } else {
+                    grid.append("P,");
+                    if (!(x == 1 && y == playerY) && bouldersLeft-- > 0) {
+                        actors.append("B ").append(x).append(" ").append(y).append(",");
+                    }
+                }
+            }
+            grid.append("\n");
+        }
+
+        return "Level\n1.0\n" + Integer.MAX_VALUE + "\n100000\n0\nGrid\n" + WIDTH + " " + height + "\n" + grid
+                + "Player\n1 " + playerY + " 0 { }\nActor\n" + actors;
+    }
+}
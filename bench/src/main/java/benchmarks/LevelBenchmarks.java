@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times the engine's hot paths on each of the shipped levels. Each measurement iteration starts from a freshly
+ * loaded level, so runs are comparable between builds.
+ *
+ * @author Sam
+ * @see Workload
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmarks {
+    @Param({"level1.txt", "level2.txt", "level3.txt", "level4.txt", "level5.txt", "bonus.txt"})
+    public String level;
+
+    private Workload update;
+    private Workload shortestPath;
+    private Workload amoebaGroup;
+    private Workload placeExplosion;
+    private Workload createFromText;
+
+    /**
+     * Loads the level and sets up a fresh copy of it for each workload.
+     *
+     * @throws Exception If the level cannot be loaded.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        final String text = Workloads.loadLevel(level);
+        update = Workloads.create("levelUpdate", text);
+        shortestPath = Workloads.create("shortestPath", text);
+        amoebaGroup = Workloads.create("amoebaGroup", text);
+        placeExplosion = Workloads.create("placeExplosion", text);
+        createFromText = Workloads.create("createFromText", text);
+    }
+
+    @Benchmark
+    public Object levelUpdate() throws Exception {
+        return update.run();
+    }
+
+    @Benchmark
+    public Object pathfinderShortestPath() throws Exception {
+        return shortestPath.run();
+    }
+
+    @Benchmark
+    public Object gridAmoebaGroup() throws Exception {
+        return amoebaGroup.run();
+    }
+
+    @Benchmark
+    public Object gridPlaceExplosion() throws Exception {
+        return placeExplosion.run();
+    }
+
+    @Benchmark
+    public Object levelFactoryCreateFromText() throws Exception {
+        return createFromText.run();
+    }
+}
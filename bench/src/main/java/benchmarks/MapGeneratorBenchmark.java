@@ -0,0 +1,52 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times generating a map for endless mode. The generator doesn't start from a level, so unlike
+ * {@link LevelBenchmarks} this isn't run once per shipped level.
+ *
+ * @author Sam
+ * @see Workload
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapGeneratorBenchmark {
+    private Workload createMap;
+    private Workload createTemplate;
+
+    /**
+     * Sets up the workloads.
+     *
+     * @throws Exception If a workload cannot be found.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        createMap = Workloads.create("createMap", null);
+        createTemplate = Workloads.create("createTemplate", null);
+    }
+
+    @Benchmark
+    public Object mapGeneratorCreateMap() throws Exception {
+        return createMap.run();
+    }
+
+    @Benchmark
+    public Object mapGeneratorCreateTemplate() throws Exception {
+        return createTemplate.run();
+    }
+}
@@ -0,0 +1,21 @@
+package benchmarks;
+
+/**
+ * One operation of the engine, set up and ready to be timed.
+ *
+ * JMH will not generate benchmarks for classes in the default package, and classes in a named package cannot refer
+ * to the engine's classes, which are all in the default package. So the benchmarks live in this package and only see
+ * the engine through workloads, which are built by {@code EngineWorkloads} in the default package and handed over
+ * through {@link Workloads}.
+ *
+ * @author Sam
+ */
+public interface Workload {
+    /**
+     * Performs the operation once.
+     *
+     * @return The result of the operation, for the benchmark to consume so that it is not optimised away.
+     * @throws Exception If the engine fails.
+     */
+    Object run() throws Exception;
+}
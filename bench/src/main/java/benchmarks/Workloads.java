@@ -0,0 +1,53 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Finds workloads in {@code EngineWorkloads} by name, and loads the shipped levels they run on. Only setup goes
+ * through here; once a benchmark has its {@link Workload} it calls it directly.
+ *
+ * @author Sam
+ */
+public final class Workloads {
+    private static final String FACTORY_CLASS = "EngineWorkloads";
+
+    private Workloads() {
+    }
+
+    /**
+     * Builds a workload.
+     *
+     * @param name      The name of the factory method in {@code EngineWorkloads}.
+     * @param levelText The level to run on, in the level file format, or null if the workload doesn't use one.
+     * @return The workload.
+     * @throws Exception If the workload cannot be found or fails to set up.
+     */
+    public static Workload create(String name, String levelText) throws Exception {
+        final Method factory = Class.forName(FACTORY_CLASS).getMethod(name, String.class);
+        try {
+            return (Workload) factory.invoke(null, levelText);
+        } catch (InvocationTargetException e) {
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Reads one of the shipped levels, which are bundled with the benchmarks.
+     *
+     * @param fileName The name of the level file, e.g. {@code level1.txt}.
+     * @return The contents of the file.
+     * @throws IOException If there is no such level.
+     */
+    public static String loadLevel(String fileName) throws IOException {
+        try (InputStream in = Workloads.class.getClassLoader().getResourceAsStream(fileName)) {
+            if (in == null) {
+                throw new IOException("No bundled level called " + fileName + ".");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
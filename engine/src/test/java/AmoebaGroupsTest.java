@@ -0,0 +1,233 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AmoebaGroups}, through the grid that keeps it up to date. The groups are only ever told about
+ * changes, so after a run of random changes they are checked against the groups worked out from scratch with a
+ * flood fill.
+ *
+ * @author Sam
+ */
+class AmoebaGroupsTest {
+    private static final int WIDTH = 6;
+    private static final int HEIGHT = 4;
+    private static final int ROUNDS = 20000;
+    private static final int ROUNDS_PER_CHECK = 200;
+    private static final int SEEDS = 4;
+
+    @Test
+    void groupsMatchAFloodFillAfterRandomChanges() {
+        for (long seed = 0; seed < SEEDS; seed++) {
+            changeAtRandom(new Random(seed));
+        }
+    }
+
+    @Test
+    void groupKeepsACellThatOpensAsItsFrontierIsRebuilt() {
+        //Two amoebas walled in with one path cell beside them.
+        final byte[] types = new byte[5 * 3];
+        Arrays.fill(types, (byte) TileType.TITANIUM_WALL.ordinal());
+        types[5 + 1] = (byte) TileType.PATH.ordinal();
+        types[5 + 2] = (byte) TileType.PATH.ordinal();
+        types[5 + 3] = (byte) TileType.PATH.ordinal();
+        final Grid grid = new Grid(5, 3, types, new int[types.length], new byte[types.length]);
+        grid.setOccupier(1, 1, new Amoeba(1, 1));
+        grid.setOccupier(2, 1, new Amoeba(2, 1));
+
+        //Each time the boulder leaves, the cell goes on the frontier again, until the frontier is big enough to be
+        //rebuilt in the middle of the boulder leaving.
+        final Boulder boulder = new Boulder(3, 1);
+        for (int i = 0; i < 24; i++) {
+            grid.setOccupier(3, 1, boulder);
+            grid.setOccupier(3, 1, null);
+        }
+
+        assertEquals(5 + 3, grid.getAmoebaGrowthCell(1, 1));
+    }
+
+    /**
+     * Makes random changes to a small grid of dirt, path and walls, checking the groups every so often.
+     *
+     * @param random The source of the changes.
+     */
+    private static void changeAtRandom(final Random random) {
+        final byte[] types = new byte[WIDTH * HEIGHT];
+        for (int cell = 0; cell < types.length; cell++) {
+            final int roll = random.nextInt(10);
+            final TileType type = (roll < 4) ? TileType.DIRT : (roll < 8) ? TileType.PATH : TileType.WALL;
+            types[cell] = (byte) type.ordinal();
+        }
+        final Grid grid = new Grid(WIDTH, HEIGHT, types, new int[types.length], new byte[types.length]);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final int x = random.nextInt(WIDTH);
+            final int y = random.nextInt(HEIGHT);
+            final TileType type = grid.getTileType(x, y);
+            final boolean walkable = type == TileType.PATH || type == TileType.DIRT;
+            //Amoebas are placed rarely and cells cleared often, so that small groups see many cells open up.
+            switch (random.nextInt(10)) {
+                case 0 -> {
+                    if (walkable) {
+                        grid.setOccupier(x, y, new Amoeba(x, y));
+                    }
+                }
+                case 1, 2, 3 -> {
+                    if (walkable && !isAmoeba(grid, x, y)) {
+                        grid.setOccupier(x, y, new Boulder(x, y));
+                    }
+                }
+                case 4, 5, 6, 7, 8 -> {
+                    if (!isAmoeba(grid, x, y) || random.nextInt(8) == 0) {
+                        grid.setOccupier(x, y, null);
+                    }
+                }
+                default -> grid.changeTile(x, y, TileType.PATH);
+            }
+            //Checking after every change would keep the frontiers tidy, so let them build up in between.
+            if (round % ROUNDS_PER_CHECK == 0) {
+                assertMatchesFloodFill(grid, round);
+            }
+        }
+    }
+
+    /**
+     * Checks the size, cells and growth cells of every amoeba's group against a flood fill of the grid.
+     *
+     * @param grid  The grid.
+     * @param round The round of changes, for the failure message.
+     */
+    private static void assertMatchesFloodFill(final Grid grid, final int round) {
+        final boolean[] seen = new boolean[WIDTH * HEIGHT];
+        for (int cell = 0; cell < seen.length; cell++) {
+            final int x = cell % WIDTH;
+            final int y = cell / WIDTH;
+            if (!isAmoeba(grid, x, y)) {
+                assertEquals(0, grid.getAmoebaGroupSize(x, y), "Round " + round + ", (" + x + ", " + y + ")");
+                continue;
+            }
+            if (seen[cell]) {
+                continue;
+            }
+
+            final int[] group = floodFill(grid, cell, seen);
+            final String where = "Round " + round + ", group at (" + x + ", " + y + ")";
+            assertEquals(group.length, grid.getAmoebaGroupSize(x, y), where);
+            final int[] cells = grid.getAmoebaGroup(x, y);
+            Arrays.sort(cells);
+            assertArrayEquals(group, cells, where);
+
+            //Block off every cell the group offers to grow into, until it says it is enclosed, so that a cell
+            //missing from its frontier shows up even when the group has other places to grow.
+            final int[] blocked = new int[WIDTH * HEIGHT];
+            int blockedCount = 0;
+            int growthCell = grid.getAmoebaGrowthCell(x, y);
+            while (growthCell != AmoebaGroups.NO_CELL) {
+                final int growthX = growthCell % WIDTH;
+                final int growthY = growthCell / WIDTH;
+                assertTrue(isGrowable(grid, growthX, growthY), where + " grew onto a full cell");
+                final int target = growthCell;
+                assertTrue(Arrays.stream(group).anyMatch(member -> isNextTo(member, target)),
+                        where + " grew away from itself");
+                grid.setOccupier(growthX, growthY, new Boulder(growthX, growthY));
+                blocked[blockedCount++] = growthCell;
+                growthCell = grid.getAmoebaGrowthCell(x, y);
+            }
+            for (int member : group) {
+                assertEquals(AmoebaGroups.NO_CELL, growableNeighbour(grid, member), where + " could still grow");
+            }
+            for (int i = 0; i < blockedCount; i++) {
+                grid.setOccupier(blocked[i] % WIDTH, blocked[i] / WIDTH, null);
+            }
+        }
+    }
+
+    /**
+     * Finds every amoeba joined to the amoeba in a cell.
+     *
+     * @param grid  The grid.
+     * @param start The index of a cell holding an amoeba.
+     * @param seen  The cells already put in a group, updated with this group's cells.
+     * @return The cells of the group, in order.
+     */
+    private static int[] floodFill(final Grid grid, final int start, final boolean[] seen) {
+        final ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int[] group = new int[0];
+        seen[start] = true;
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            final int cell = queue.poll();
+            group = Arrays.copyOf(group, group.length + 1);
+            group[group.length - 1] = cell;
+            for (int neighbour : neighbours(cell)) {
+                if (!seen[neighbour] && isAmoeba(grid, neighbour % WIDTH, neighbour / WIDTH)) {
+                    seen[neighbour] = true;
+                    queue.add(neighbour);
+                }
+            }
+        }
+        Arrays.sort(group);
+        return group;
+    }
+
+    /**
+     * Finds a cell next to a cell that an amoeba could grow into.
+     *
+     * @param grid The grid.
+     * @param cell The index of the cell.
+     * @return The index of a growable neighbour, or {@link AmoebaGroups#NO_CELL}.
+     */
+    private static int growableNeighbour(final Grid grid, final int cell) {
+        for (int neighbour : neighbours(cell)) {
+            if (isGrowable(grid, neighbour % WIDTH, neighbour / WIDTH)) {
+                return neighbour;
+            }
+        }
+        return AmoebaGroups.NO_CELL;
+    }
+
+    /**
+     * Gets the cells above, below, left and right of a cell that are on the grid.
+     *
+     * @param cell The index of the cell.
+     * @return The indices of the neighbours.
+     */
+    private static int[] neighbours(final int cell) {
+        final int x = cell % WIDTH;
+        final int y = cell / WIDTH;
+        final int[] neighbours = new int[4];
+        int count = 0;
+        if (x + 1 < WIDTH) {
+            neighbours[count++] = cell + 1;
+        }
+        if (x > 0) {
+            neighbours[count++] = cell - 1;
+        }
+        if (y + 1 < HEIGHT) {
+            neighbours[count++] = cell + WIDTH;
+        }
+        if (y > 0) {
+            neighbours[count++] = cell - WIDTH;
+        }
+        return Arrays.copyOf(neighbours, count);
+    }
+
+    private static boolean isNextTo(final int a, final int b) {
+        return Arrays.stream(neighbours(a)).anyMatch(neighbour -> neighbour == b);
+    }
+
+    private static boolean isAmoeba(final Grid grid, final int x, final int y) {
+        final Actor occupier = grid.getOccupier(x, y);
+        return occupier != null && occupier.getType() == ActorType.AMOEBA;
+    }
+
+    private static boolean isGrowable(final Grid grid, final int x, final int y) {
+        final TileType type = grid.getTileType(x, y);
+        return grid.getOccupier(x, y) == null && (type == TileType.PATH || type == TileType.DIRT);
+    }
+}
@@ -0,0 +1,105 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link DistanceField}. The grid's field is repaired as cells change, so after every change it is checked
+ * against a field built from scratch.
+ *
+ * @author Sam
+ */
+class DistanceFieldTest {
+    private static final int WIDTH = 20;
+    private static final int HEIGHT = 14;
+    private static final int ROUNDS = 3000;
+    private static final int FROGS = 4;
+
+    @Test
+    void repairedFieldMatchesAFullRebuildAfterRandomChanges() {
+        final Random random = new Random(230);
+        final byte[] types = new byte[WIDTH * HEIGHT];
+        for (int cell = 0; cell < types.length; cell++) {
+            final int roll = random.nextInt(10);
+            final TileType type = (roll < 6) ? TileType.PATH : (roll < 8) ? TileType.DIRT : TileType.WALL;
+            types[cell] = (byte) type.ordinal();
+        }
+        final Grid grid = new Grid(WIDTH, HEIGHT, types, new int[types.length], new byte[types.length]);
+
+        //A boulder stands in for the player; all the field needs of its target is where it is.
+        final Actor target = new Boulder(0, 0);
+        grid.changeTile(0, 0, TileType.PATH);
+        grid.setOccupier(0, 0, target);
+        final Frog[] frogs = new Frog[FROGS];
+        for (int i = 0; i < FROGS; i++) {
+            frogs[i] = new Frog(target, WIDTH - 1 - i, HEIGHT - 1);
+            grid.changeTile(frogs[i].getX(), frogs[i].getY(), TileType.PATH);
+            grid.setOccupier(frogs[i].getX(), frogs[i].getY(), frogs[i]);
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final int x = random.nextInt(WIDTH);
+            final int y = random.nextInt(HEIGHT);
+            final boolean free = grid.getOccupier(x, y) == null;
+            switch (random.nextInt(10)) {
+                case 0, 1, 2 -> {
+                    if (free) {
+                        grid.setOccupier(x, y, new Boulder(x, y));
+                    }
+                }
+                case 3, 4, 5 -> {
+                    final Actor occupier = grid.getOccupier(x, y);
+                    if (occupier != null && occupier.getType() == ActorType.BOULDER && occupier != target) {
+                        grid.setOccupier(x, y, null);
+                    }
+                }
+                case 6 -> grid.changeTile(x, y, TileType.PATH);
+                case 7, 8 -> {
+                    if (free && grid.getTileType(x, y) == TileType.PATH) {
+                        moveTo(grid, frogs[random.nextInt(FROGS)], x, y);
+                    }
+                }
+                default -> {
+                    if (free && grid.getTileType(x, y) == TileType.PATH) {
+                        moveTo(grid, target, x, y);
+                    }
+                }
+            }
+            assertMatchesRebuild(grid, frogs[random.nextInt(FROGS)], target, round);
+        }
+    }
+
+    /**
+     * Moves an actor to a free cell.
+     *
+     * @param grid  The grid.
+     * @param actor The actor.
+     * @param x     The x-coordinate of the cell.
+     * @param y     The y-coordinate of the cell.
+     */
+    private static void moveTo(final Grid grid, final Actor actor, final int x, final int y) {
+        grid.setOccupier(actor.getX(), actor.getY(), null);
+        actor.setX(x);
+        actor.setY(y);
+        grid.setOccupier(x, y, actor);
+    }
+
+    /**
+     * Checks the distance of every cell in the grid's field against a field built from scratch.
+     *
+     * @param grid   The grid.
+     * @param walker The actor doing the chasing.
+     * @param target The actor being chased.
+     * @param round  The round of changes, for the failure message.
+     */
+    private static void assertMatchesRebuild(final Grid grid, final Actor walker, final Actor target,
+                                             final int round) {
+        final DistanceField rebuilt = new DistanceField();
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals(rebuilt.getDistance(grid, walker, target, x, y), grid.getDistanceTo(walker, target, x, y),
+                        "Round " + round + ", (" + x + ", " + y + ")");
+            }
+        }
+    }
+}